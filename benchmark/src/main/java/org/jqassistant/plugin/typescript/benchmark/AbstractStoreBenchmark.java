@@ -0,0 +1,77 @@
+package org.jqassistant.plugin.typescript.benchmark;
+
+import com.buschmais.jqassistant.core.scanner.api.Scanner;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.jqassistant.plugin.typescript.impl.model.ScanResultCollection;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Base class of benchmarks mapping a synthetic scan result into an embedded store.
+ * <p>
+ * Every invocation runs in its own transaction and starts with an empty store. Preparation that is not part of the
+ * measurement can be done in {@link #beforeInvocation()} and cleanup in {@link #afterInvocation()}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public abstract class AbstractStoreBenchmark {
+
+    @Param({"100", "1000"})
+    protected int moduleCount;
+
+    @Param({"12"})
+    protected int declarationsPerModule;
+
+    @Param({"20"})
+    protected int dependenciesPerModule;
+
+    @Param({"3"})
+    protected int depth;
+
+    protected ScanResultCollection scanResult;
+
+    protected Scanner scanner;
+
+    private EmbeddedStore store;
+
+    @Setup(Level.Trial)
+    public void startStore() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        byte[] report = new SyntheticReportGenerator(moduleCount, declarationsPerModule, dependenciesPerModule, depth).generate();
+        scanResult = objectMapper.readValue(report, ScanResultCollection.class);
+        store = new EmbeddedStore();
+        store.start();
+        scanner = store.getScanner();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopStore() {
+        store.stop();
+    }
+
+    @Setup(Level.Invocation)
+    public void beginInvocation() {
+        store.beginTransaction();
+        beforeInvocation();
+    }
+
+    @TearDown(Level.Invocation)
+    public void endInvocation() {
+        afterInvocation();
+        store.endTransaction();
+    }
+
+    protected void beforeInvocation() {
+    }
+
+    protected void afterInvocation() {
+    }
+
+}
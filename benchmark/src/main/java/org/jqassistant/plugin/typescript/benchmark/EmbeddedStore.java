@@ -0,0 +1,121 @@
+package org.jqassistant.plugin.typescript.benchmark;
+
+import com.buschmais.jqassistant.core.scanner.api.Scanner;
+import com.buschmais.jqassistant.core.scanner.api.ScannerContext;
+import com.buschmais.jqassistant.core.store.api.Store;
+import com.buschmais.jqassistant.core.test.plugin.AbstractPluginIT;
+import com.buschmais.jqassistant.plugin.common.api.model.FileDescriptor;
+import com.buschmais.jqassistant.plugin.common.api.scanner.FileResolver;
+import org.junit.jupiter.api.TestInfo;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Starts the embedded store and the scanner the same way as for the plugin's integration tests.
+ * <p>
+ * Files are not scanned from the file system, instead {@link #beginTransaction()} provides a file resolver
+ * creating a file descriptor for every path on first use.
+ */
+public class EmbeddedStore extends AbstractPluginIT {
+
+    private Scanner scanner;
+
+    public void start() throws Exception {
+        initPluginRepository();
+        Method method = EmbeddedStore.class.getMethod("start");
+        beforeEach(new TestInfo() {
+            @Override
+            public String getDisplayName() {
+                return "benchmark";
+            }
+
+            @Override
+            public Set<String> getTags() {
+                return Set.of();
+            }
+
+            @Override
+            public Optional<Class<?>> getTestClass() {
+                return Optional.of(EmbeddedStore.class);
+            }
+
+            @Override
+            public Optional<Method> getTestMethod() {
+                return Optional.of(method);
+            }
+        });
+        scanner = super.getScanner();
+    }
+
+    public void stop() {
+        stopStore();
+        destroyPluginRepository();
+    }
+
+    @Override
+    public Scanner getScanner() {
+        return scanner;
+    }
+
+    public Store getStore() {
+        return store;
+    }
+
+    /**
+     * begins a transaction, the store is reset by {@link #endTransaction()}
+     */
+    public void beginTransaction() {
+        store.beginTransaction();
+        scanner.getContext().push(FileResolver.class, new SyntheticFileResolver());
+    }
+
+    /**
+     * Commits the transaction and keeps all nodes, e.g. to query them in later transactions.
+     */
+    public void commitTransaction() {
+        scanner.getContext().pop(FileResolver.class);
+        store.commitTransaction();
+    }
+
+    /**
+     * Ends the transaction and removes all nodes.
+     * A rollback would not be sufficient, as the store commits large transactions in between.
+     */
+    public void endTransaction() {
+        scanner.getContext().pop(FileResolver.class);
+        store.commitTransaction();
+        store.reset();
+    }
+
+    private static class SyntheticFileResolver implements FileResolver {
+
+        private final Map<String, FileDescriptor> files = new HashMap<>();
+
+        @Override
+        public <D extends FileDescriptor> D require(String requiredPath, String containedPath, Class<D> type, ScannerContext context) {
+            return match(requiredPath, type, context);
+        }
+
+        @Override
+        public <D extends FileDescriptor> D require(String path, Class<D> type, ScannerContext context) {
+            return match(path, type, context);
+        }
+
+        @Override
+        public <D extends FileDescriptor> D match(String path, Class<D> type, ScannerContext context) {
+            FileDescriptor file = files.get(path);
+            if(file == null) {
+                file = context.getStore().create(FileDescriptor.class);
+                file.setFileName(path);
+            }
+            D typed = type.isInstance(file) ? type.cast(file) : context.getStore().addDescriptorType(file, type);
+            files.put(path, typed);
+            return typed;
+        }
+    }
+
+}
@@ -0,0 +1,130 @@
+package org.jqassistant.plugin.typescript.benchmark;
+
+import org.jqassistant.plugin.typescript.impl.mapper.FqnIndex;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link FqnIndex} with the `HashMap` previously used by the `FqnResolver`.
+ * <p>
+ * Building measures the time to register all names, its allocation rate (`-prof gc`) approximates the retained size
+ * of both structures. Lookups are done with names that are not the registered string instances, as the names of
+ * references are deserialized separately from the names of the referenced concepts.
+ * The retained heap can also be printed directly using {@link #main(String[])}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FqnIndexBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int fqnCount;
+
+    private String[] fqns;
+
+    private String[] lookups;
+
+    private Map<String, Object> hashMap;
+
+    private FqnIndex<Object> fqnIndex;
+
+    @Setup
+    public void setup() {
+        fqns = generateFqns(fqnCount);
+        lookups = new String[fqns.length];
+        for(int i = 0; i < fqns.length; i++) {
+            lookups[i] = new String(fqns[(int) ((i * 0x9E3779B1L) % fqns.length)].toCharArray());
+        }
+        hashMap = buildHashMap(fqns);
+        fqnIndex = buildFqnIndex(fqns);
+    }
+
+    @Benchmark
+    public Map<String, Object> buildHashMap() {
+        return buildHashMap(fqns);
+    }
+
+    @Benchmark
+    public FqnIndex<Object> buildFqnIndex() {
+        return buildFqnIndex(fqns);
+    }
+
+    @Benchmark
+    public void lookupHashMap(Blackhole blackhole) {
+        for(String fqn : lookups) {
+            blackhole.consume(hashMap.get(fqn));
+        }
+    }
+
+    @Benchmark
+    public void lookupFqnIndex(Blackhole blackhole) {
+        for(String fqn : lookups) {
+            blackhole.consume(fqnIndex.get(fqn));
+        }
+    }
+
+    /**
+     * Generates names as the extractor does for a project with 20 names per module and 50 modules per directory,
+     * e.g. `"./src/feature0/component1/module2.ts".Declaration3.member7`.
+     */
+    static String[] generateFqns(int count) {
+        String[] fqns = new String[count];
+        for(int i = 0; i < count; i++) {
+            int module = i / 20;
+            int directory = module / 50;
+            String path = "\"./src/feature" + (directory / 100) + "/component" + (directory % 100) + "/module" + (module % 50) + ".ts\"";
+            int declaration = i % 20;
+            fqns[i] = declaration < 4 ? path + ".Declaration" + declaration : path + ".Declaration" + (declaration % 4) + ".member" + declaration;
+        }
+        return fqns;
+    }
+
+    private static Map<String, Object> buildHashMap(String[] fqns) {
+        Map<String, Object> map = new HashMap<>();
+        for(String fqn : fqns) {
+            map.put(new String(fqn.toCharArray()), fqn);
+        }
+        return map;
+    }
+
+    private static FqnIndex<Object> buildFqnIndex(String[] fqns) {
+        FqnIndex<Object> index = new FqnIndex<>();
+        for(String fqn : fqns) {
+            index.put(fqn, fqn);
+        }
+        return index;
+    }
+
+    /**
+     * prints the heap retained by both structures for the given number of names
+     */
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        String[] fqns = generateFqns(count);
+        long baseline = usedHeap();
+        Map<String, Object> map = buildHashMap(fqns);
+        long mapSize = usedHeap() - baseline;
+        map = null;
+        baseline = usedHeap();
+        FqnIndex<Object> index = buildFqnIndex(fqns);
+        long indexSize = usedHeap() - baseline;
+        System.out.println(count + " names: HashMap " + mapSize / 1024 + " KiB, FqnIndex " + indexSize / 1024 + " KiB (" +
+            index.nodeCount() + " nodes)");
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for(int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+}
@@ -0,0 +1,120 @@
+package org.jqassistant.plugin.typescript.benchmark;
+
+import com.buschmais.jqassistant.core.store.api.Store;
+import com.buschmais.xo.api.Query;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.jqassistant.plugin.typescript.impl.mapper.ProjectMapper;
+import org.jqassistant.plugin.typescript.impl.model.ClassDeclaration;
+import org.jqassistant.plugin.typescript.impl.model.ScanResultCollection;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures looking up nodes by their fully qualified name in a mapped project, as done by user rules and incremental
+ * scans, with and without the indexes on `fqn` and `referencedFqn` declared by the descriptors.
+ * <p>
+ * The synthetic report is mapped once per trial. If `indexed` is `false`, these indexes are dropped before the
+ * measurement, which corresponds to the plugin before they were declared: every lookup scans all nodes with the label.
+ * Each invocation looks up `lookupCount` names in a single transaction.
+ * <p>
+ * Larger projects require more heap than the default, e.g. `-Djmh.args="FqnLookupBenchmark -jvmArgsAppend -Xmx4g"`.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FqnLookupBenchmark {
+
+    private static final String CLASS_QUERY = "MATCH (c:TS:Class {fqn: $fqn}) RETURN count(c) AS c";
+
+    private static final String TYPE_REFERENCE_QUERY = "MATCH (t:TS:Declared {referencedFqn: $fqn}) RETURN count(t) AS c";
+
+    @Param({"1000", "10000"})
+    private int moduleCount;
+
+    @Param({"true", "false"})
+    private boolean indexed;
+
+    @Param({"100"})
+    private int lookupCount;
+
+    private EmbeddedStore store;
+
+    private List<String> fqns;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        byte[] report = new SyntheticReportGenerator(moduleCount, 12, 20, 3).generate();
+        ScanResultCollection scanResult = objectMapper.readValue(report, ScanResultCollection.class);
+
+        store = new EmbeddedStore();
+        store.start();
+        store.beginTransaction();
+        ProjectMapper.INSTANCE.map(scanResult, store.getScanner());
+        store.commitTransaction();
+        if(!indexed) {
+            dropFqnIndexes(store.getStore());
+        }
+
+        List<ClassDeclaration> classes = scanResult.getClassDeclarations();
+        fqns = new ArrayList<>();
+        for(int i = 0; i < lookupCount; i++) {
+            fqns.add(classes.get((int) ((i * 0x9E3779B1L) % classes.size())).getFqn());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        store.beginTransaction();
+        store.endTransaction();
+        store.stop();
+    }
+
+    @Benchmark
+    public void lookupClasses(Blackhole blackhole) {
+        lookup(CLASS_QUERY, blackhole);
+    }
+
+    @Benchmark
+    public void lookupTypeReferences(Blackhole blackhole) {
+        lookup(TYPE_REFERENCE_QUERY, blackhole);
+    }
+
+    private void lookup(String query, Blackhole blackhole) {
+        Store xoStore = store.getStore();
+        xoStore.beginTransaction();
+        for(String fqn : fqns) {
+            try(Query.Result<Query.Result.CompositeRowObject> result = xoStore.executeQuery(query, Map.of("fqn", fqn))) {
+                blackhole.consume(result.getSingleResult().get("c", Long.class));
+            }
+        }
+        xoStore.commitTransaction();
+    }
+
+    private static void dropFqnIndexes(Store xoStore) {
+        List<String> names = new ArrayList<>();
+        xoStore.beginTransaction();
+        try(Query.Result<Query.Result.CompositeRowObject> result = xoStore.executeQuery(
+            "SHOW INDEXES YIELD name, properties WHERE properties IN [['fqn'], ['referencedFqn']] RETURN name")) {
+            result.forEach(row -> names.add(row.get("name", String.class)));
+        }
+        xoStore.commitTransaction();
+        // schema changes cannot be combined with reads in a single transaction
+        for(String name : names) {
+            xoStore.beginTransaction();
+            xoStore.executeQuery("DROP INDEX " + name).close();
+            xoStore.commitTransaction();
+        }
+    }
+
+}
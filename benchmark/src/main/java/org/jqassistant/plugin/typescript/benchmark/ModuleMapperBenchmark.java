@@ -0,0 +1,72 @@
+package org.jqassistant.plugin.typescript.benchmark;
+
+import com.buschmais.jqassistant.core.scanner.api.ScannerContext;
+import com.buschmais.jqassistant.core.store.api.Store;
+import com.buschmais.jqassistant.plugin.common.api.model.FileDescriptor;
+import com.buschmais.jqassistant.plugin.common.api.scanner.FileResolver;
+import com.buschmais.jqassistant.plugin.common.api.scanner.LocalFileSystemFileResolver;
+import org.jqassistant.plugin.typescript.impl.mapper.FqnResolver;
+import org.jqassistant.plugin.typescript.impl.mapper.ModuleFileResolver;
+import org.jqassistant.plugin.typescript.impl.mapper.ModuleMapper;
+import org.jqassistant.plugin.typescript.impl.model.Module;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures mapping the modules of a scan result to their file descriptors.
+ * <p>
+ * The files of all modules exist before, as if the source directory has been scanned, and are looked up by the
+ * {@link LocalFileSystemFileResolver} with one query per module or, if `prefetch` is set, by a
+ * {@link ModuleFileResolver} with a single query for all modules.
+ */
+public class ModuleMapperBenchmark extends AbstractStoreBenchmark {
+
+    @Param({"false", "true"})
+    private boolean prefetch;
+
+    private final List<String> paths = new ArrayList<>();
+
+    @Override
+    protected void beforeInvocation() {
+        ScannerContext context = scanner.getContext();
+        Store store = context.getStore();
+        paths.clear();
+        for(Module module : scanResult.getModules()) {
+            store.create(FileDescriptor.class).setFileName(module.getPath());
+            paths.add(module.getPath());
+        }
+        store.flush();
+        // the resolver caches the files per store, which is reset after every invocation
+        store.getCache(LocalFileSystemFileResolver.class.getName()).invalidateAll();
+        context.push(FileResolver.class, new LocalFileSystemFileResolver());
+        context.push(FqnResolver.class, new FqnResolver());
+        if(prefetch) {
+            context.push(ModuleFileResolver.class, new ModuleFileResolver());
+        }
+    }
+
+    @Override
+    protected void afterInvocation() {
+        ScannerContext context = scanner.getContext();
+        if(prefetch) {
+            context.pop(ModuleFileResolver.class);
+        }
+        context.pop(FqnResolver.class);
+        context.pop(FileResolver.class);
+    }
+
+    @Benchmark
+    public void mapModules(Blackhole blackhole) {
+        if(prefetch) {
+            scanner.getContext().peek(ModuleFileResolver.class).prefetch(paths, scanner.getContext().getStore());
+        }
+        for(Module module : scanResult.getModules()) {
+            blackhole.consume(ModuleMapper.INSTANCE.map(module, scanner));
+        }
+    }
+
+}
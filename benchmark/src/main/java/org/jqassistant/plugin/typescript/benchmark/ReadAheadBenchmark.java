@@ -0,0 +1,47 @@
+package org.jqassistant.plugin.typescript.benchmark;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.jqassistant.plugin.typescript.impl.mapper.ProjectMappingSession;
+import org.jqassistant.plugin.typescript.impl.reader.ReadAheadPipeline;
+import org.jqassistant.plugin.typescript.impl.reader.ScanResultStreamReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Measures streaming a synthetic report into the store, with the report being read on a separate thread
+ * (`readAhead` > 0) or on the mapping thread (`readAhead=0`).
+ */
+public class ReadAheadBenchmark extends AbstractStoreBenchmark {
+
+    @Param({"0", "1024"})
+    private int readAhead;
+
+    private byte[] report;
+
+    private ScanResultStreamReader streamReader;
+
+    @Setup(Level.Trial)
+    public void generateReport() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        streamReader = new ScanResultStreamReader(objectMapper);
+        report = new SyntheticReportGenerator(moduleCount, declarationsPerModule, dependenciesPerModule, depth).generate();
+    }
+
+    @Benchmark
+    public Object stream() throws IOException {
+        ProjectMappingSession session = new ProjectMappingSession(scanner);
+        try(InputStream stream = new ByteArrayInputStream(report)) {
+            new ReadAheadPipeline(readAhead).run(sink -> streamReader.read(stream, sink), session);
+        }
+        return session.finish();
+    }
+
+}
@@ -0,0 +1,55 @@
+package org.jqassistant.plugin.typescript.benchmark;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.jqassistant.plugin.typescript.impl.model.ScanResultCollection;
+import org.jqassistant.plugin.typescript.impl.reader.IngestionProfile;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the deserialization of a whole scan result, as done by the scanner plugin without streaming, for each
+ * {@link IngestionProfile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReportDeserializationBenchmark {
+
+    @Param({"100", "1000"})
+    private int moduleCount;
+
+    @Param({"12"})
+    private int declarationsPerModule;
+
+    @Param({"20"})
+    private int dependenciesPerModule;
+
+    @Param({"3"})
+    private int depth;
+
+    @Param({"FULL", "SIGNATURES", "STRUCTURE"})
+    private IngestionProfile profile;
+
+    private ObjectMapper objectMapper;
+
+    private byte[] report;
+
+    @Setup
+    public void setup() throws IOException {
+        objectMapper = profile.configure(new ObjectMapper());
+        objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        report = new SyntheticReportGenerator(moduleCount, declarationsPerModule, dependenciesPerModule, depth).generate();
+    }
+
+    @Benchmark
+    public ScanResultCollection deserialize() throws IOException {
+        return objectMapper.readValue(report, ScanResultCollection.class);
+    }
+
+}
@@ -0,0 +1,50 @@
+package org.jqassistant.plugin.typescript.benchmark;
+
+import org.jqassistant.plugin.typescript.impl.mapper.DependencyResolver;
+import org.jqassistant.plugin.typescript.impl.mapper.FqnResolver;
+import org.jqassistant.plugin.typescript.impl.mapper.GraphWriteBuffer;
+import org.jqassistant.plugin.typescript.impl.mapper.ProjectMapper;
+import org.jqassistant.plugin.typescript.impl.mapper.ProjectMappingSession;
+import org.jqassistant.plugin.typescript.impl.model.ScanResultCollection;
+import org.openjdk.jmh.annotations.Benchmark;
+
+import java.util.ArrayList;
+
+/**
+ * Measures resolving the cross-references of a scan result whose declarations have already been mapped.
+ */
+public class ResolverBenchmark extends AbstractStoreBenchmark {
+
+    private ProjectMappingSession session;
+
+    @Override
+    protected void beforeInvocation() {
+        // map everything but the dependencies, which are resolved by the benchmark
+        ScanResultCollection declarations = new ScanResultCollection();
+        declarations.setProject(scanResult.getProject());
+        declarations.setModules(scanResult.getModules());
+        declarations.setClassDeclarations(scanResult.getClassDeclarations());
+        declarations.setInterfaceDeclarations(scanResult.getInterfaceDeclarations());
+        declarations.setVariableDeclarations(scanResult.getVariableDeclarations());
+        declarations.setDependencies(new ArrayList<>());
+        session = new ProjectMappingSession(scanner);
+        ProjectMapper.INSTANCE.map(declarations, session);
+    }
+
+    @Override
+    protected void afterInvocation() {
+        session.finish();
+    }
+
+    @Benchmark
+    public void resolveFqns() {
+        scanner.getContext().peek(FqnResolver.class).resolveAll();
+    }
+
+    @Benchmark
+    public void resolveDependencies() {
+        DependencyResolver.resolve(scanner, scanResult.getDependencies());
+        scanner.getContext().peek(GraphWriteBuffer.class).flush();
+    }
+
+}
@@ -0,0 +1,428 @@
+package org.jqassistant.plugin.typescript.benchmark;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Random;
+
+/**
+ * Generates scan results in the format of the extractor's `ts-output.json`.
+ * <p>
+ * Every module contains classes, interfaces and variables in turn. Their properties, methods and variables use type
+ * trees and initial values of the configured depth, which refer to declarations of random other modules.
+ * Each module also has the configured number of dependencies to random declarations or members of other modules.
+ * The output only depends on the configuration, so that runs with the same configuration can be compared.
+ */
+public class SyntheticReportGenerator {
+
+    public static final String PROJECT_ROOT = "/synthetic";
+
+    private static final long SEED = 42;
+
+    private static final String[] PRIMITIVES = {"string", "number", "boolean", "undefined"};
+
+    private final int moduleCount;
+
+    private final int declarationsPerModule;
+
+    private final int dependenciesPerModule;
+
+    private final int depth;
+
+    private Random random;
+
+    /**
+     * @param depth depth of the type trees and initial values, `0` only creates primitive types and literals
+     */
+    public SyntheticReportGenerator(int moduleCount, int declarationsPerModule, int dependenciesPerModule, int depth) {
+        if(moduleCount < 1 || declarationsPerModule < 1 || dependenciesPerModule < 0 || depth < 0) {
+            throw new IllegalArgumentException("Invalid report dimensions");
+        }
+        this.moduleCount = moduleCount;
+        this.declarationsPerModule = declarationsPerModule;
+        this.dependenciesPerModule = dependenciesPerModule;
+        this.depth = depth;
+    }
+
+    public byte[] generate() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        generate(out);
+        return out.toByteArray();
+    }
+
+    public void generate(OutputStream out) throws IOException {
+        random = new Random(SEED);
+        try(JsonGenerator json = new JsonFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            json.writeStartObject();
+
+            json.writeArrayFieldStart("project");
+            json.writeStartObject();
+            json.writeStringField("projectRoot", PROJECT_ROOT);
+            json.writeEndObject();
+            json.writeEndArray();
+
+            json.writeArrayFieldStart("module");
+            for(int m = 0; m < moduleCount; m++) {
+                json.writeStartObject();
+                json.writeStringField("fqn", "." + modulePath(m));
+                json.writeStringField("path", modulePath(m));
+                json.writeStringField("contentHash", Integer.toHexString(m));
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+
+            json.writeArrayFieldStart("class-declaration");
+            forEachDeclaration(0, (m, d) -> writeClass(json, m, d));
+            json.writeEndArray();
+
+            json.writeArrayFieldStart("interface-declaration");
+            forEachDeclaration(1, (m, d) -> writeInterface(json, m, d));
+            json.writeEndArray();
+
+            json.writeArrayFieldStart("variable-declaration");
+            forEachDeclaration(2, (m, d) -> writeVariable(json, m, d));
+            json.writeEndArray();
+
+            json.writeArrayFieldStart("export-declaration");
+            forEachDeclaration(0, (m, d) -> writeExport(json, m, d));
+            json.writeEndArray();
+
+            json.writeArrayFieldStart("dependency");
+            for(int m = 0; m < moduleCount; m++) {
+                for(int i = 0; i < dependenciesPerModule; i++) {
+                    writeDependency(json, m);
+                }
+            }
+            json.writeEndArray();
+
+            json.writeEndObject();
+        }
+    }
+
+    /**
+     * @return the number of named concepts, i.e. modules, declarations and their members
+     */
+    public int getNamedConceptCount() {
+        int classes = (declarationsPerModule + 2) / 3;
+        int interfaces = (declarationsPerModule + 1) / 3;
+        int variables = declarationsPerModule / 3;
+        return moduleCount * (1 + classes * 4 + interfaces * 2 + variables);
+    }
+
+    private void writeClass(JsonGenerator json, int module, int declaration) throws IOException {
+        String fqn = declarationFqn(module, declaration);
+        json.writeStartObject();
+        json.writeStringField("fqn", fqn);
+        json.writeStringField("className", declarationName(declaration));
+        json.writeBooleanField("abstract", false);
+        json.writeArrayFieldStart("typeParameters");
+        json.writeStartObject();
+        json.writeStringField("name", "T");
+        json.writeNumberField("index", 0);
+        json.writeEndObject();
+        json.writeEndArray();
+        json.writeArrayFieldStart("implementsInterfaces");
+        json.writeEndArray();
+        json.writeArrayFieldStart("properties");
+        writeProperty(json, module, fqn, "p");
+        writeProperty(json, module, fqn, "q");
+        json.writeEndArray();
+        json.writeArrayFieldStart("methods");
+        writeMethod(json, module, fqn, "m");
+        json.writeEndArray();
+        json.writeArrayFieldStart("accessorProperties");
+        json.writeEndArray();
+        json.writeArrayFieldStart("decorators");
+        json.writeEndArray();
+        writeCoordinates(json, module);
+        json.writeEndObject();
+    }
+
+    private void writeInterface(JsonGenerator json, int module, int declaration) throws IOException {
+        String fqn = declarationFqn(module, declaration);
+        json.writeStartObject();
+        json.writeStringField("fqn", fqn);
+        json.writeStringField("interfaceName", declarationName(declaration));
+        json.writeArrayFieldStart("typeParameters");
+        json.writeEndArray();
+        json.writeArrayFieldStart("extendsInterfaces");
+        json.writeEndArray();
+        json.writeArrayFieldStart("properties");
+        writeProperty(json, module, fqn, "p");
+        json.writeEndArray();
+        json.writeArrayFieldStart("methods");
+        json.writeEndArray();
+        json.writeArrayFieldStart("accessorProperties");
+        json.writeEndArray();
+        writeCoordinates(json, module);
+        json.writeEndObject();
+    }
+
+    private void writeVariable(JsonGenerator json, int module, int declaration) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("fqn", declarationFqn(module, declaration));
+        json.writeStringField("variableName", declarationName(declaration));
+        json.writeStringField("kind", "const");
+        json.writeFieldName("type");
+        writeType(json, depth);
+        json.writeFieldName("initValue");
+        writeValue(json, depth);
+        writeCoordinates(json, module);
+        json.writeEndObject();
+    }
+
+    private void writeProperty(JsonGenerator json, int module, String parentFqn, String name) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("fqn", parentFqn + "." + name);
+        json.writeStringField("propertyName", name);
+        json.writeBooleanField("optional", false);
+        json.writeFieldName("type");
+        writeType(json, depth);
+        json.writeArrayFieldStart("decorators");
+        json.writeEndArray();
+        json.writeStringField("visibility", "public");
+        json.writeBooleanField("readonly", false);
+        writeCoordinates(json, module);
+        json.writeBooleanField("override", false);
+        json.writeBooleanField("abstract", false);
+        json.writeBooleanField("isStatic", false);
+        json.writeEndObject();
+    }
+
+    private void writeMethod(JsonGenerator json, int module, String parentFqn, String name) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("fqn", parentFqn + "." + name);
+        json.writeStringField("methodName", name);
+        json.writeArrayFieldStart("parameters");
+        for(int i = 0; i < 2; i++) {
+            json.writeStartObject();
+            json.writeNumberField("index", i);
+            json.writeStringField("name", "a" + i);
+            json.writeFieldName("type");
+            writeType(json, depth);
+            json.writeBooleanField("optional", false);
+            json.writeArrayFieldStart("decorators");
+            json.writeEndArray();
+            writeCoordinates(json, module);
+            json.writeEndObject();
+        }
+        json.writeEndArray();
+        json.writeFieldName("returnType");
+        writeType(json, depth);
+        json.writeArrayFieldStart("typeParameters");
+        json.writeEndArray();
+        json.writeArrayFieldStart("decorators");
+        json.writeEndArray();
+        json.writeStringField("visibility", "public");
+        json.writeBooleanField("async", false);
+        writeCoordinates(json, module);
+        json.writeBooleanField("override", false);
+        json.writeBooleanField("abstract", false);
+        json.writeBooleanField("isStatic", false);
+        json.writeEndObject();
+    }
+
+    private void writeExport(JsonGenerator json, int module, int declaration) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("declFqn", declarationFqn(module, declaration));
+        json.writeStringField("identifier", declarationName(declaration));
+        json.writeNullField("alias");
+        json.writeNullField("importSource");
+        json.writeBooleanField("sourceInProject", true);
+        json.writeBooleanField("isDefault", false);
+        json.writeStringField("kind", "value");
+        json.writeStringField("sourceFilePath", "." + modulePath(module));
+        json.writeEndObject();
+    }
+
+    private void writeDependency(JsonGenerator json, int module) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("fqn", randomMemberFqn(random.nextInt(moduleCount)));
+        json.writeStringField("targetType", "declaration");
+        json.writeStringField("sourceFQN", randomMemberFqn(module));
+        json.writeStringField("sourceType", "declaration");
+        json.writeNumberField("cardinality", 1 + random.nextInt(3));
+        json.writeEndObject();
+    }
+
+    private void writeType(JsonGenerator json, int depth) throws IOException {
+        json.writeStartObject();
+        if(depth == 0) {
+            writePrimitiveTypeFields(json);
+            json.writeEndObject();
+            return;
+        }
+        switch(random.nextInt(4)) {
+            case 0:
+                json.writeStringField("type", "object");
+                json.writeArrayFieldStart("members");
+                for(String name : new String[]{"a", "b"}) {
+                    json.writeStartObject();
+                    json.writeStringField("name", name);
+                    json.writeFieldName("type");
+                    writeType(json, depth - 1);
+                    json.writeBooleanField("optional", false);
+                    json.writeBooleanField("readonly", false);
+                    json.writeEndObject();
+                }
+                json.writeEndArray();
+                break;
+            case 1:
+                json.writeStringField("type", "union");
+                json.writeArrayFieldStart("types");
+                writeType(json, depth - 1);
+                writeType(json, 0);
+                json.writeEndArray();
+                break;
+            case 2:
+                json.writeStringField("type", "declared");
+                json.writeStringField("fqn", randomClassFqn());
+                json.writeArrayFieldStart("typeArguments");
+                writeType(json, depth - 1);
+                json.writeEndArray();
+                break;
+            default:
+                json.writeStringField("type", "tuple");
+                json.writeArrayFieldStart("types");
+                writeType(json, depth - 1);
+                writeType(json, depth - 1);
+                json.writeEndArray();
+        }
+        json.writeEndObject();
+    }
+
+    private void writeValue(JsonGenerator json, int depth) throws IOException {
+        json.writeStartObject();
+        int kind = depth == 0 ? 3 + random.nextInt(2) : random.nextInt(3);
+        switch(kind) {
+            case 0:
+                json.writeStringField("valueType", "object");
+                json.writeObjectFieldStart("members");
+                json.writeFieldName("a");
+                writeValue(json, depth - 1);
+                json.writeFieldName("b");
+                writeValue(json, depth - 1);
+                json.writeEndObject();
+                break;
+            case 1:
+                json.writeStringField("valueType", "array");
+                json.writeArrayFieldStart("items");
+                writeValue(json, depth - 1);
+                writeValue(json, depth - 1);
+                json.writeEndArray();
+                break;
+            case 2:
+                json.writeStringField("valueType", "call");
+                json.writeFieldName("callee");
+                json.writeStartObject();
+                json.writeStringField("valueType", "declared");
+                json.writeStringField("fqn", randomClassFqn());
+                json.writeFieldName("type");
+                writeType(json, 0);
+                json.writeEndObject();
+                json.writeArrayFieldStart("args");
+                writeValue(json, depth - 1);
+                json.writeEndArray();
+                json.writeArrayFieldStart("typeArgs");
+                json.writeEndArray();
+                break;
+            case 3:
+                json.writeStringField("valueType", "literal");
+                json.writeNumberField("value", random.nextInt(1000));
+                break;
+            default:
+                json.writeStringField("valueType", "declared");
+                json.writeStringField("fqn", randomClassFqn());
+        }
+        json.writeFieldName("type");
+        writeType(json, 0);
+        json.writeEndObject();
+    }
+
+    private void writePrimitiveTypeFields(JsonGenerator json) throws IOException {
+        json.writeStringField("type", "primitive");
+        json.writeStringField("name", PRIMITIVES[random.nextInt(PRIMITIVES.length)]);
+    }
+
+    private void writeCoordinates(JsonGenerator json, int module) throws IOException {
+        json.writeObjectFieldStart("coordinates");
+        json.writeStringField("fileName", modulePath(module));
+        json.writeNumberField("startLine", 1);
+        json.writeNumberField("startColumn", 0);
+        json.writeNumberField("endLine", 2);
+        json.writeNumberField("endColumn", 1);
+        json.writeEndObject();
+    }
+
+    private void forEachDeclaration(int kind, DeclarationWriter writer) throws IOException {
+        for(int m = 0; m < moduleCount; m++) {
+            for(int d = kind; d < declarationsPerModule; d += 3) {
+                writer.write(m, d);
+            }
+        }
+    }
+
+    private String randomClassFqn() {
+        return declarationFqn(random.nextInt(moduleCount), 3 * random.nextInt((declarationsPerModule + 2) / 3));
+    }
+
+    /**
+     * @return the name of a random declaration of the module or of a member of a class
+     */
+    private String randomMemberFqn(int module) {
+        int declaration = random.nextInt(declarationsPerModule);
+        String fqn = declarationFqn(module, declaration);
+        if(declaration % 3 == 0 && random.nextBoolean()) {
+            return fqn + "." + (random.nextBoolean() ? "p" : "m");
+        }
+        return fqn;
+    }
+
+    private String modulePath(int module) {
+        return "/src/feature" + (module / 100) + "/module" + module + ".ts";
+    }
+
+    private String declarationFqn(int module, int declaration) {
+        return "\"." + modulePath(module) + "\"." + declarationName(declaration);
+    }
+
+    private static String declarationName(int declaration) {
+        switch(declaration % 3) {
+            case 0:
+                return "Class" + declaration;
+            case 1:
+                return "Interface" + declaration;
+            default:
+                return "variable" + declaration;
+        }
+    }
+
+    @FunctionalInterface
+    private interface DeclarationWriter {
+        void write(int module, int declaration) throws IOException;
+    }
+
+    /**
+     * writes a report, arguments: file, module count, declarations per module, dependencies per module and depth
+     */
+    public static void main(String[] args) throws IOException {
+        if(args.length != 5) {
+            System.err.println("Usage: SyntheticReportGenerator <file> <modules> <declarations> <dependencies> <depth>");
+            System.exit(1);
+        }
+        File file = new File(args[0]);
+        SyntheticReportGenerator generator = new SyntheticReportGenerator(Integer.parseInt(args[1]), Integer.parseInt(args[2]),
+            Integer.parseInt(args[3]), Integer.parseInt(args[4]));
+        try(OutputStream out = new FileOutputStream(file)) {
+            generator.generate(out);
+        }
+        System.out.println("Written " + file + " with " + generator.getNamedConceptCount() + " named concepts");
+    }
+
+}
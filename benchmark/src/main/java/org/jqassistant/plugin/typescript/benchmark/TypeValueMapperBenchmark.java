@@ -0,0 +1,54 @@
+package org.jqassistant.plugin.typescript.benchmark;
+
+import org.jqassistant.plugin.typescript.impl.mapper.MappingOptions;
+import org.jqassistant.plugin.typescript.impl.mapper.ProjectMappingSession;
+import org.jqassistant.plugin.typescript.impl.mapper.TypeMapper;
+import org.jqassistant.plugin.typescript.impl.mapper.ValueMapper;
+import org.jqassistant.plugin.typescript.impl.model.VariableDeclaration;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures mapping the type trees and initial values of all variables.
+ * Their depth is configured by the `depth` parameter, e.g. `-p depth=2,4,6`, values nested deeper than `maxValueDepth`
+ * are truncated (`0` for no limit).
+ */
+public class TypeValueMapperBenchmark extends AbstractStoreBenchmark {
+
+    @Param({"0"})
+    private int maxValueDepth;
+
+    private final TypeMapper typeMapper = Mappers.getMapper(TypeMapper.class);
+
+    private final ValueMapper valueMapper = Mappers.getMapper(ValueMapper.class);
+
+    private ProjectMappingSession session;
+
+    @Override
+    protected void beforeInvocation() {
+        // provides the resolvers used by the mappers
+        session = new ProjectMappingSession(scanner, MappingOptions.builder().maxValueDepth(maxValueDepth).build());
+    }
+
+    @Override
+    protected void afterInvocation() {
+        session.finish();
+    }
+
+    @Benchmark
+    public void mapTypes(Blackhole blackhole) {
+        for(VariableDeclaration variable : scanResult.getVariableDeclarations()) {
+            blackhole.consume(typeMapper.toDescriptor(variable.getType(), scanner));
+        }
+    }
+
+    @Benchmark
+    public void mapValues(Blackhole blackhole) {
+        for(VariableDeclaration variable : scanResult.getVariableDeclarations()) {
+            blackhole.consume(valueMapper.toDescriptor(variable.getInitValue(), scanner));
+        }
+    }
+
+}
@@ -3,7 +3,7 @@ package org.jqassistant.plugin.typescript.api.model;
 import com.buschmais.xo.neo4j.api.annotation.Label;
 import com.buschmais.xo.neo4j.api.annotation.Relation;
 
-@Label("AccessorProperty")
+@Label(value = "AccessorProperty", usingIndexedPropertyOf = NamedConceptDescriptor.class)
 public interface AccessorPropertyDescriptor extends TypeScriptDescriptor, NamedConceptDescriptor {
 
     String getName();
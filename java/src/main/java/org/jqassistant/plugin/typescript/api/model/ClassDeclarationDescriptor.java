@@ -5,7 +5,7 @@ import com.buschmais.xo.neo4j.api.annotation.Relation;
 
 import java.util.List;
 
-@Label("Class")
+@Label(value = "Class", usingIndexedPropertyOf = NamedConceptDescriptor.class)
 public interface ClassDeclarationDescriptor extends TypeScriptDescriptor, NamedConceptDescriptor, CodeCoordinateDescriptor {
 
     String getName();
@@ -5,7 +5,7 @@ import com.buschmais.xo.neo4j.api.annotation.Relation;
 
 import java.util.List;
 
-@Label("Constructor")
+@Label(value = "Constructor", usingIndexedPropertyOf = NamedConceptDescriptor.class)
 public interface ConstructorDeclarationDescriptor extends TypeScriptDescriptor, NamedConceptDescriptor, CodeCoordinateDescriptor {
 
     @Relation("HAS")
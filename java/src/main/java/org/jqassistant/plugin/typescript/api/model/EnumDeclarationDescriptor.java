@@ -5,7 +5,7 @@ import com.buschmais.xo.neo4j.api.annotation.Relation;
 
 import java.util.List;
 
-@Label("Enum")
+@Label(value = "Enum", usingIndexedPropertyOf = NamedConceptDescriptor.class)
 public interface EnumDeclarationDescriptor extends TypeScriptDescriptor, CodeCoordinateDescriptor, NamedConceptDescriptor {
 
     String getName();
@@ -3,7 +3,7 @@ package org.jqassistant.plugin.typescript.api.model;
 import com.buschmais.xo.neo4j.api.annotation.Label;
 import com.buschmais.xo.neo4j.api.annotation.Relation;
 
-@Label("EnumMember")
+@Label(value = "EnumMember", usingIndexedPropertyOf = NamedConceptDescriptor.class)
 public interface EnumMemberDescriptor extends TypeScriptDescriptor, NamedConceptDescriptor, CodeCoordinateDescriptor {
 
     String getName();
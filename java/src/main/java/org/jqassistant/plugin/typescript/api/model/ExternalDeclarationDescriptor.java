@@ -5,7 +5,7 @@ import com.buschmais.xo.neo4j.api.annotation.Relation;
 
 import java.util.List;
 
-@Label("ExternalDeclaration")
+@Label(value = "ExternalDeclaration", usingIndexedPropertyOf = NamedConceptDescriptor.class)
 public interface ExternalDeclarationDescriptor extends TypeScriptDescriptor, NamedConceptDescriptor {
 
     @Relation.Incoming
@@ -5,7 +5,7 @@ import com.buschmais.xo.neo4j.api.annotation.Relation;
 
 import java.util.List;
 
-@Label("ExternalModule")
+@Label(value = "ExternalModule", usingIndexedPropertyOf = NamedConceptDescriptor.class)
 public interface ExternalModuleDescriptor extends TypeScriptDescriptor, NamedConceptDescriptor {
 
     @Relation.Outgoing
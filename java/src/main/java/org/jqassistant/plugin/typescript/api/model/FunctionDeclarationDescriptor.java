@@ -5,7 +5,7 @@ import com.buschmais.xo.neo4j.api.annotation.Relation;
 
 import java.util.List;
 
-@Label("Function")
+@Label(value = "Function", usingIndexedPropertyOf = NamedConceptDescriptor.class)
 public interface FunctionDeclarationDescriptor extends TypeScriptDescriptor, NamedConceptDescriptor, CodeCoordinateDescriptor {
 
     String getName();
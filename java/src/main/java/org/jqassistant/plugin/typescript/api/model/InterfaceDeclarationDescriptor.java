@@ -5,7 +5,7 @@ import com.buschmais.xo.neo4j.api.annotation.Relation;
 
 import java.util.List;
 
-@Label("Interface")
+@Label(value = "Interface", usingIndexedPropertyOf = NamedConceptDescriptor.class)
 public interface InterfaceDeclarationDescriptor extends TypeScriptDescriptor, NamedConceptDescriptor, CodeCoordinateDescriptor {
 
     String getName();
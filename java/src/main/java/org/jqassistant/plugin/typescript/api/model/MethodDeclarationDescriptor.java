@@ -5,7 +5,7 @@ import com.buschmais.xo.neo4j.api.annotation.Relation;
 
 import java.util.List;
 
-@Label("Method")
+@Label(value = "Method", usingIndexedPropertyOf = NamedConceptDescriptor.class)
 public interface MethodDeclarationDescriptor extends TypeScriptDescriptor, NamedConceptDescriptor, CodeCoordinateDescriptor {
 
     String getName();
@@ -5,9 +5,12 @@ import com.buschmais.xo.neo4j.api.annotation.Relation;
 
 import java.util.List;
 
-@Label("Module")
+@Label(value = "Module", usingIndexedPropertyOf = NamedConceptDescriptor.class)
 public interface ModuleDescriptor extends TypeScriptDescriptor, NamedConceptDescriptor {
 
+    String getContentHash();
+    void setContentHash(String contentHash);
+
     @Relation("DECLARES")
     List<TypeAliasDeclarationDescriptor> getTypeAliasDeclarations();
 
@@ -1,7 +1,14 @@
 package org.jqassistant.plugin.typescript.api.model;
 
+import com.buschmais.xo.neo4j.api.annotation.Indexed;
+
+/**
+ * Concept identified by a fully qualified name. Descriptors with a label declare an index on `fqn` for it using
+ * `@Label(usingIndexedPropertyOf = NamedConceptDescriptor.class)`, which is created when the store is initialized.
+ */
 public interface NamedConceptDescriptor {
 
+    @Indexed
     String getFqn();
     void setFqn(String fqn);
 
@@ -5,7 +5,7 @@ import com.buschmais.xo.neo4j.api.annotation.Relation;
 
 import java.util.List;
 
-@Label("TypeAlias")
+@Label(value = "TypeAlias", usingIndexedPropertyOf = NamedConceptDescriptor.class)
 public interface TypeAliasDeclarationDescriptor extends TypeScriptDescriptor, NamedConceptDescriptor, CodeCoordinateDescriptor {
 
     String getName();
@@ -1,5 +1,6 @@
 package org.jqassistant.plugin.typescript.api.model;
 
+import com.buschmais.xo.neo4j.api.annotation.Indexed;
 import com.buschmais.xo.neo4j.api.annotation.Label;
 import com.buschmais.xo.neo4j.api.annotation.Relation;
 
@@ -8,6 +9,7 @@ import java.util.List;
 @Label("Declared")
 public interface TypeDeclaredDescriptor extends TypeDescriptor {
 
+    @Indexed
     String getReferencedFqn();
     void setReferencedFqn(String referencedFqn);
 
@@ -8,4 +8,17 @@ public interface ValueComplexDescriptor extends ValueDescriptor {
     String getExpression();
     void setExpression(String expression);
 
+    /**
+     * `true` if this node replaces an object, array or call exceeding the configured value bounds, in this case it
+     * has neither an expression nor a type
+     */
+    Boolean getTruncated();
+    void setTruncated(Boolean truncated);
+
+    /**
+     * number of members, items or arguments of the truncated value
+     */
+    Integer getElementCount();
+    void setElementCount(Integer elementCount);
+
 }
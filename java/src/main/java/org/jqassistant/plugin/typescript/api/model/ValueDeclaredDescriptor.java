@@ -1,11 +1,13 @@
 package org.jqassistant.plugin.typescript.api.model;
 
+import com.buschmais.xo.neo4j.api.annotation.Indexed;
 import com.buschmais.xo.neo4j.api.annotation.Label;
 import com.buschmais.xo.neo4j.api.annotation.Relation;
 
 @Label("Declared")
 public interface ValueDeclaredDescriptor extends ValueDescriptor {
 
+    @Indexed
     String getReferencedFqn();
     void setReferencedFqn(String referencedFqn);
 
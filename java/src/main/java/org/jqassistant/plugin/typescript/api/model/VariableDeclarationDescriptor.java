@@ -3,7 +3,7 @@ package org.jqassistant.plugin.typescript.api.model;
 import com.buschmais.xo.neo4j.api.annotation.Label;
 import com.buschmais.xo.neo4j.api.annotation.Relation;
 
-@Label("Variable")
+@Label(value = "Variable", usingIndexedPropertyOf = NamedConceptDescriptor.class)
 public interface VariableDeclarationDescriptor extends TypeScriptDescriptor, NamedConceptDescriptor, CodeCoordinateDescriptor {
 
     String getName();
@@ -10,32 +10,161 @@ import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.jqassistant.plugin.typescript.api.TypescriptScope;
 import org.jqassistant.plugin.typescript.api.model.ProjectDescriptor;
+import org.jqassistant.plugin.typescript.impl.mapper.MappingOptions;
 import org.jqassistant.plugin.typescript.impl.mapper.ProjectMapper;
+import org.jqassistant.plugin.typescript.impl.mapper.ProjectMappingSession;
 import org.jqassistant.plugin.typescript.impl.model.ScanResultCollection;
+import org.jqassistant.plugin.typescript.impl.reader.IngestionProfile;
+import org.jqassistant.plugin.typescript.impl.reader.NdjsonScanResultReader;
+import org.jqassistant.plugin.typescript.impl.reader.ReadAheadPipeline;
+import org.jqassistant.plugin.typescript.impl.reader.ScanResultStreamReader;
+import org.jqassistant.plugin.typescript.impl.reader.ShardedScanResultReader;
 
 import java.io.IOException;
+import java.io.InputStream;
 
 @ScannerPlugin.Requires(JSONFileDescriptor.class)
 public class TypescriptProjectScannerPlugin extends AbstractScannerPlugin<FileResource, ProjectDescriptor> {
 
+    /**
+     * If enabled, the scan result is read element by element instead of being deserialized as a whole.
+     */
+    public static final String PROPERTY_STREAMING = "typescript.scan.streaming";
+
+    /**
+     * Number of relationships that are written to the store in a single batch, `0` disables batching. Nodes are never batched.
+     */
+    public static final String PROPERTY_WRITE_BATCH_SIZE = "typescript.scan.write-batch-size";
+
+    /**
+     * If enabled, all usages of a primitive type within a project share a single node.
+     */
+    public static final String PROPERTY_INTERN_PRIMITIVE_TYPES = "typescript.scan.intern-primitive-types";
+
+    /**
+     * If enabled, all usages of a structurally identical composite type within a project share a single subtree.
+     */
+    public static final String PROPERTY_INTERN_COMPOSITE_TYPES = "typescript.scan.intern-composite-types";
+
+    /**
+     * If enabled, only the modules whose content changed since the previous scan of the project are replaced.
+     */
+    public static final String PROPERTY_INCREMENTAL = "typescript.scan.incremental";
+
+    /**
+     * Maximum nesting depth of object, array and call values, deeper ones are truncated. `0` disables the limit.
+     */
+    public static final String PROPERTY_MAX_VALUE_DEPTH = "typescript.scan.max-value-depth";
+
+    /**
+     * Maximum number of members, items or arguments of object, array and call values, larger ones are truncated. `0` disables the limit.
+     */
+    public static final String PROPERTY_MAX_VALUE_ELEMENTS = "typescript.scan.max-value-elements";
+
+    /**
+     * Parts of the scan result that are read into the graph: `structure`, `signatures` or `full`, see {@link IngestionProfile}.
+     */
+    public static final String PROPERTY_INGESTION_PROFILE = "typescript.scan.ingestion-profile";
+
+    /**
+     * Number of threads deserializing the shards of a sharded scan result.
+     */
+    public static final String PROPERTY_SHARD_THREADS = "typescript.scan.shard-threads";
+
+    /**
+     * Number of concepts that are read ahead on a separate thread while streaming a scan result, `0` reads and maps them
+     * on the same thread.
+     */
+    public static final String PROPERTY_READ_AHEAD = "typescript.scan.read-ahead";
+
+    public static final int DEFAULT_READ_AHEAD = 1024;
+
+    /**
+     * File name suffix of the manifest of a sharded scan result.
+     */
+    public static final String MANIFEST_SUFFIX = ".manifest.json";
+
+    /**
+     * File name suffix of a scan result written as NDJSON, i.e. one concept per line.
+     */
+    public static final String NDJSON_SUFFIX = ".ndjson";
+
     private ObjectMapper objectMapper;
 
+    private ScanResultStreamReader streamReader;
+
+    private ShardedScanResultReader shardedReader;
+
+    private NdjsonScanResultReader ndjsonReader;
+
+    private ReadAheadPipeline readAheadPipeline;
+
+    private boolean streaming;
+
+    private MappingOptions mappingOptions;
+
     @Override
-    public void initialize() {
-        this.objectMapper = new ObjectMapper();
+    protected void configure() {
+        // the object mapper depends on the ingestion profile, as skipped concepts are dropped while deserializing
+        IngestionProfile ingestionProfile = IngestionProfile.of(getStringProperty(PROPERTY_INGESTION_PROFILE, IngestionProfile.FULL.name()));
+        this.objectMapper = ingestionProfile.configure(new ObjectMapper());
 
         // TODO: remove config option
         this.objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+        this.streamReader = new ScanResultStreamReader(objectMapper, ingestionProfile);
+        this.ndjsonReader = new NdjsonScanResultReader(objectMapper, streamReader);
+
+        this.streaming = getBooleanProperty(PROPERTY_STREAMING, false);
+        this.mappingOptions = MappingOptions.builder()
+            .writeBatchSize(getIntegerProperty(PROPERTY_WRITE_BATCH_SIZE, MappingOptions.DEFAULT_WRITE_BATCH_SIZE))
+            .internPrimitiveTypes(getBooleanProperty(PROPERTY_INTERN_PRIMITIVE_TYPES, false))
+            .internCompositeTypes(getBooleanProperty(PROPERTY_INTERN_COMPOSITE_TYPES, false))
+            .incremental(getBooleanProperty(PROPERTY_INCREMENTAL, false))
+            .maxValueDepth(getIntegerProperty(PROPERTY_MAX_VALUE_DEPTH, 0))
+            .maxValueElements(getIntegerProperty(PROPERTY_MAX_VALUE_ELEMENTS, 0))
+            .build();
+        this.readAheadPipeline = new ReadAheadPipeline(getIntegerProperty(PROPERTY_READ_AHEAD, DEFAULT_READ_AHEAD));
+        this.shardedReader = new ShardedScanResultReader(objectMapper,
+            getIntegerProperty(PROPERTY_SHARD_THREADS, Runtime.getRuntime().availableProcessors()));
+    }
+
+    private int getIntegerProperty(String name, int defaultValue) {
+        Object value = getProperties().get(name);
+        if(value == null) {
+            return defaultValue;
+        }
+        return value instanceof Number ? ((Number) value).intValue() : Integer.parseInt(value.toString().trim());
     }
 
     @Override
     public boolean accepts(FileResource fileResource, String path, Scope scope) {
-        return TypescriptScope.PROJECT.equals(scope) && path.endsWith(".json");
+        return TypescriptScope.PROJECT.equals(scope) && (path.endsWith(".json") || path.endsWith(NDJSON_SUFFIX));
     }
 
     @Override
     public ProjectDescriptor scan(FileResource fileResource, String path, Scope scope, Scanner scanner) throws IOException {
+        if(path.endsWith(MANIFEST_SUFFIX)) {
+            try(ProjectMappingSession session = new ProjectMappingSession(scanner, mappingOptions)) {
+                shardedReader.read(fileResource.getFile(), session);
+                return session.finish();
+            }
+        }
+        if(path.endsWith(NDJSON_SUFFIX)) {
+            try(ProjectMappingSession session = new ProjectMappingSession(scanner, mappingOptions);
+                InputStream stream = fileResource.createStream()) {
+                readAheadPipeline.run(sink -> ndjsonReader.read(stream, sink), session);
+                return session.finish();
+            }
+        }
+        if(streaming) {
+            try(ProjectMappingSession session = new ProjectMappingSession(scanner, mappingOptions);
+                InputStream stream = fileResource.createStream()) {
+                readAheadPipeline.run(sink -> streamReader.read(stream, sink), session);
+                return session.finish();
+            }
+        }
         ScanResultCollection scanResultCollection = objectMapper.readValue(fileResource.createStream(), ScanResultCollection.class);
-        return ProjectMapper.INSTANCE.map(scanResultCollection, scanner);
+        return ProjectMapper.INSTANCE.map(scanResultCollection, scanner, mappingOptions);
     }
 }
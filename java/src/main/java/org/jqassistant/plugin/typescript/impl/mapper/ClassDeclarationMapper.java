@@ -6,6 +6,7 @@ import org.jqassistant.plugin.typescript.api.model.ClassDeclarationDescriptor;
 import org.jqassistant.plugin.typescript.impl.model.ClassDeclaration;
 import org.mapstruct.*;
 
+import java.util.Collections;
 import java.util.List;
 
 import static org.mapstruct.factory.Mappers.getMapper;
@@ -36,8 +37,15 @@ public interface ClassDeclarationMapper extends
 
     @AfterMapping
     default void after(ClassDeclaration value, @MappingTarget ClassDeclarationDescriptor target, @Context Scanner scanner) {
-        scanner.getContext().peek(FqnResolver.class).registerFqn(target);
+        FqnResolver fqnResolver = scanner.getContext().peek(FqnResolver.class);
+        fqnResolver.registerFqn(target);
         scanner.getContext().peek(TypeParameterResolver.class).popScope();
+
+        DeclarationHierarchy hierarchy = scanner.getContext().peek(DeclarationHierarchy.class);
+        hierarchy.declare(target, value.getProperties(), fqnResolver);
+        hierarchy.declare(target, Collections.singletonList(value.getConstructor()), fqnResolver);
+        hierarchy.declare(target, value.getMethods(), fqnResolver);
+        hierarchy.declare(target, value.getAccessorProperties(), fqnResolver);
     }
 
     List<ClassDeclarationDescriptor> mapList(List<ClassDeclaration> value, @Context Scanner scanner);
@@ -0,0 +1,58 @@
+package org.jqassistant.plugin.typescript.impl.mapper;
+
+import lombok.extern.slf4j.Slf4j;
+import org.jqassistant.plugin.typescript.api.model.TypeScriptDescriptor;
+import org.jqassistant.plugin.typescript.impl.model.NamedConcept;
+
+import java.util.*;
+
+/**
+ * Keeps track of the `DECLARES` relationships between the mapped language concepts, so that they can be traversed
+ * upwards without querying the store.
+ * <p>
+ * Type parameter declarations are not registered, as they neither declare other concepts nor take part in
+ * dependencies.
+ */
+@Slf4j
+public class DeclarationHierarchy {
+
+    /**
+     * declaring concept by the id of the declared concept
+     */
+    private final Map<Object, TypeScriptDescriptor> parents = new HashMap<>();
+
+    public void declare(TypeScriptDescriptor parent, TypeScriptDescriptor child) {
+        if(parent == null || child == null) {
+            return;
+        }
+        TypeScriptDescriptor previous = parents.putIfAbsent(child.getId(), parent);
+        if(previous != null && !previous.getId().equals(parent.getId())) {
+            log.debug("Ignoring additional declaring concept of " + child);
+        }
+    }
+
+    /**
+     * registers the descriptors of the given named concepts as children of the parent
+     */
+    public void declare(TypeScriptDescriptor parent, Collection<? extends NamedConcept> children, FqnResolver fqnResolver) {
+        for(NamedConcept child : children) {
+            if(child != null) {
+                declare(parent, fqnResolver.getByFqn(child.getFqn()));
+            }
+        }
+    }
+
+    /**
+     * @return all concepts that directly or transitively declare the given one, starting with the nearest
+     */
+    public List<TypeScriptDescriptor> getAncestors(TypeScriptDescriptor descriptor) {
+        List<TypeScriptDescriptor> ancestors = new ArrayList<>();
+        TypeScriptDescriptor parent = parents.get(descriptor.getId());
+        while(parent != null && !ancestors.contains(parent)) {
+            ancestors.add(parent);
+            parent = parents.get(parent.getId());
+        }
+        return ancestors;
+    }
+
+}
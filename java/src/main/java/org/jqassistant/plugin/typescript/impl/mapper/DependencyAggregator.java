@@ -0,0 +1,122 @@
+package org.jqassistant.plugin.typescript.impl.mapper;
+
+import org.jqassistant.plugin.typescript.api.model.TypeScriptDescriptor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sums up the cardinalities of dependencies per source/target pair before any relationship is created.
+ * <p>
+ * Descriptors are numbered densely in the order they are first seen, a pair is then identified by a single `long`
+ * built from both numbers. Pairs are kept in an open-addressing hash table of primitive arrays, so adding a
+ * dependency does not allocate.
+ */
+public class DependencyAggregator {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final int EMPTY = -1;
+
+    private final Map<Object, Integer> indexById = new HashMap<>();
+
+    private final List<TypeScriptDescriptor> descriptors = new ArrayList<>();
+
+    /**
+     * hash table slots, holding the position of the pair in {@link #pairs} or `-1`
+     */
+    private int[] slots = newSlots(INITIAL_CAPACITY);
+
+    private long[] pairs = new long[INITIAL_CAPACITY / 2];
+
+    private int[] cardinalities = new int[INITIAL_CAPACITY / 2];
+
+    private int size = 0;
+
+    /**
+     * @return the dense number of the given descriptor
+     */
+    public int indexOf(TypeScriptDescriptor descriptor) {
+        Integer index = indexById.get(descriptor.getId());
+        if(index == null) {
+            index = descriptors.size();
+            indexById.put(descriptor.getId(), index);
+            descriptors.add(descriptor);
+        }
+        return index;
+    }
+
+    public void add(int source, int target, int cardinality) {
+        long pair = ((long) source << 32) | (target & 0xFFFFFFFFL);
+        int mask = slots.length - 1;
+        int slot = hash(pair) & mask;
+        while(slots[slot] != EMPTY) {
+            int position = slots[slot];
+            if(pairs[position] == pair) {
+                cardinalities[position] += cardinality;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if(size == pairs.length) {
+            pairs = Arrays.copyOf(pairs, size * 2);
+            cardinalities = Arrays.copyOf(cardinalities, size * 2);
+        }
+        pairs[size] = pair;
+        cardinalities[size] = cardinality;
+        slots[slot] = size++;
+        if(size * 2 > slots.length) {
+            rehash(slots.length * 2);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public TypeScriptDescriptor getSource(int position) {
+        return descriptors.get((int) (pairs[position] >>> 32));
+    }
+
+    public TypeScriptDescriptor getTarget(int position) {
+        return descriptors.get((int) pairs[position]);
+    }
+
+    public int getCardinality(int position) {
+        return cardinalities[position];
+    }
+
+    /**
+     * @return the number of hash table slots, which is at least twice the number of pairs
+     */
+    int capacity() {
+        return slots.length;
+    }
+
+    private void rehash(int capacity) {
+        slots = newSlots(capacity);
+        int mask = capacity - 1;
+        for(int position = 0; position < size; position++) {
+            int slot = hash(pairs[position]) & mask;
+            while(slots[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = position;
+        }
+    }
+
+    private static int[] newSlots(int capacity) {
+        int[] slots = new int[capacity];
+        Arrays.fill(slots, EMPTY);
+        return slots;
+    }
+
+    static int hash(long pair) {
+        long h = pair * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+}
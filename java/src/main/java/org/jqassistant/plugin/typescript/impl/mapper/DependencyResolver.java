@@ -13,38 +13,83 @@ public class DependencyResolver {
     public static void resolve(Scanner scanner, List<Dependency> dependencies) {
         ScannerContext context = scanner.getContext();
         FqnResolver fqnResolver = context.peek(FqnResolver.class);
+        DeclarationHierarchy hierarchy = context.peek(DeclarationHierarchy.class);
+        GraphWriteBuffer writeBuffer = context.peek(GraphWriteBuffer.class);
 
+        DependencyAggregator aggregator = new DependencyAggregator();
         for(Dependency dep : dependencies) {
-            TypeScriptDescriptor source = fqnResolver.getByFqn(dep.getSourceFQN());
-            TypeScriptDescriptor target = fqnResolver.getByFqn(dep.getFqn());
+            TypeScriptDescriptor source = fqnResolver.getByFqn(toConceptFqn(dep.getSourceFQN()));
+            TypeScriptDescriptor target = fqnResolver.getByFqn(toConceptFqn(dep.getFqn()));
             if(source != null && target != null) {
-                DependsOnDescriptor relationDescriptor = context.getStore().create(source, DependsOnDescriptor.class, target);
-                relationDescriptor.setCardinality(dep.getCardinality());
+                int cardinality = dep.getCardinality() != null ? dep.getCardinality() : 0;
+                int[] sourceAncestors = indicesOf(aggregator, hierarchy.getAncestors(source));
+                int[] targetAncestors = indicesOf(aggregator, hierarchy.getAncestors(target));
+                int sourceIndex = aggregator.indexOf(source);
+
+                // the dependency itself and the ones lifted to all parents of the target that are not parents of the source
+                liftToSourceParents(aggregator, sourceIndex, aggregator.indexOf(target), targetAncestors, 0, sourceAncestors, cardinality);
+                for(int i = 0; i < targetAncestors.length; i++) {
+                    if(!contains(sourceAncestors, 0, targetAncestors[i])) {
+                        liftToSourceParents(aggregator, sourceIndex, targetAncestors[i], targetAncestors, i + 1, sourceAncestors, cardinality);
+                    }
+                }
             }
         }
 
-        // create missing transitive relationships
-        context.getStore().executeQuery(
-                "MATCH (decl:TS)-[r:DEPENDS_ON]->(trgt:TS)<-[:DECLARES*]-(trgtParent:TS) " +
-                "WHERE NOT (trgtParent)-[:DECLARES*]->(decl) " +
-                "CREATE (decl)-[:DEPENDS_ON {cardinality: r.cardinality}]->(trgtParent)"
-        );
-        context.getStore().executeQuery(
-                "MATCH (srcParent:TS)-[:DECLARES*]->(decl:TS)-[r:DEPENDS_ON]->(trgt:TS) " +
-                "WHERE NOT (srcParent)-[:DECLARES*]->(trgt) " +
-                "CREATE (srcParent)-[:DEPENDS_ON {cardinality: r.cardinality}]->(trgt)"
-        );
-
-        // aggregate relationships
-        context.getStore().executeQuery(
-                "MATCH (src:TS)-[r:DEPENDS_ON]->(trgt:TS) " +
-                "WITH src, trgt, collect(r) AS rels, sum(r.cardinality) AS new_cardinality " +
-                "WHERE size(rels) > 1 " +
-                "SET (rels[0]).cardinality = new_cardinality " +
-                "WITH src, trgt, rels, new_cardinality " +
-                "UNWIND range(1,size(rels)-1) AS idx " +
-                "DELETE rels[idx]"
-        );
+        for(int i = 0; i < aggregator.size(); i++) {
+            TypeScriptDescriptor source = aggregator.getSource(i);
+            TypeScriptDescriptor target = aggregator.getTarget(i);
+            if(fqnResolver.isRetained(source) && fqnResolver.isRetained(target)) {
+                continue; // still exists from the previous scan
+            }
+            int cardinality = aggregator.getCardinality(i);
+            writeBuffer.create(source, DependsOnDescriptor.class, target, r -> r.setCardinality(cardinality));
+        }
+    }
+
+    /**
+     * adds the given dependency and the ones lifted to all parents of the source that are not parents of the target
+     *
+     * @param targetAncestors ancestors of the target starting at the given offset
+     */
+    private static void liftToSourceParents(DependencyAggregator aggregator, int source, int target, int[] targetAncestors, int targetAncestorsOffset,
+                                            int[] sourceAncestors, int cardinality) {
+        aggregator.add(source, target, cardinality);
+        for(int sourceParent : sourceAncestors) {
+            if(!contains(targetAncestors, targetAncestorsOffset, sourceParent)) {
+                aggregator.add(sourceParent, target, cardinality);
+            }
+        }
+    }
+
+    /**
+     * The extractor names the modules of dependencies by their scope fqn, which is quoted (e.g. `"./src/main.ts"`),
+     * while modules are registered by their unquoted fqn.
+     *
+     * @return the given fqn without the quotes, if it is a quoted module fqn
+     */
+    static String toConceptFqn(String fqn) {
+        if(fqn != null && fqn.length() > 1 && fqn.charAt(0) == '"' && fqn.indexOf('"', 1) == fqn.length() - 1) {
+            return fqn.substring(1, fqn.length() - 1);
+        }
+        return fqn;
+    }
+
+    private static int[] indicesOf(DependencyAggregator aggregator, List<TypeScriptDescriptor> descriptors) {
+        int[] indices = new int[descriptors.size()];
+        for(int i = 0; i < indices.length; i++) {
+            indices[i] = aggregator.indexOf(descriptors.get(i));
+        }
+        return indices;
+    }
+
+    private static boolean contains(int[] indices, int offset, int index) {
+        for(int i = offset; i < indices.length; i++) {
+            if(indices[i] == index) {
+                return true;
+            }
+        }
+        return false;
     }
 
 }
@@ -30,7 +30,9 @@ public interface EnumDeclarationMapper extends DescriptorMapper<EnumDeclaration,
 
     @AfterMapping
     default void registerFqn(EnumDeclaration type, @MappingTarget EnumDeclarationDescriptor target, @Context Scanner scanner) {
-        scanner.getContext().peek(FqnResolver.class).registerFqn(target);
+        FqnResolver fqnResolver = scanner.getContext().peek(FqnResolver.class);
+        fqnResolver.registerFqn(target);
+        scanner.getContext().peek(DeclarationHierarchy.class).declare(target, type.getMembers(), fqnResolver);
     }
 
     List<EnumDeclarationDescriptor> mapList(List<EnumDeclaration> value, @Context Scanner scanner);
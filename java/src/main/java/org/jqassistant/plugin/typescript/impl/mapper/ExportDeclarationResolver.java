@@ -14,6 +14,7 @@ public class ExportDeclarationResolver {
     public static void resolve(Scanner scanner, List<ExportDeclaration> exports) {
         ScannerContext context = scanner.getContext();
         FqnResolver fqnResolver = context.peek(FqnResolver.class);
+        GraphWriteBuffer writeBuffer = context.peek(GraphWriteBuffer.class);
 
         for(ExportDeclaration export : exports) {
             if(export.getKind().equals("namespace")) {
@@ -23,13 +24,11 @@ public class ExportDeclarationResolver {
             TypeScriptDescriptor module = fqnResolver.getByFqn(export.getSourceFilePath());
             TypeScriptDescriptor target = fqnResolver.getByFqn(export.getDeclFqn());
             if(target != null && module instanceof ModuleDescriptor) {
-                ModuleExportsDescriptor relationDescriptor = context.getStore().create(module, ModuleExportsDescriptor.class, target);
-
-                if(export.getAlias() != null) {
-                    relationDescriptor.setExportedName(export.getAlias());
-                } else {
-                    relationDescriptor.setExportedName(export.getIdentifier());
+                if(fqnResolver.isRetained(module) && fqnResolver.isRetained(target)) {
+                    continue; // still exists from the previous scan
                 }
+                String exportedName = export.getAlias() != null ? export.getAlias() : export.getIdentifier();
+                writeBuffer.create(module, ModuleExportsDescriptor.class, target, r -> r.setExportedName(exportedName));
 
             }
         }
@@ -7,39 +7,30 @@ import org.jqassistant.plugin.typescript.api.model.ExternalModuleDescriptor;
 import org.jqassistant.plugin.typescript.api.model.ExternalModuleExportsDescriptor;
 import org.jqassistant.plugin.typescript.impl.model.ExternalDeclaration;
 import org.jqassistant.plugin.typescript.impl.model.ExternalModule;
-import org.jqassistant.plugin.typescript.impl.model.ScanResultCollection;
 import org.mapstruct.Context;
 
-import java.util.ArrayList;
-import java.util.List;
-
 public class ExternalModuleMapper {
 
     public static final ExternalModuleMapper INSTANCE = new ExternalModuleMapper();
 
-    public List<ExternalModuleDescriptor> map(ScanResultCollection scanResultCollection, @Context Scanner scanner) {
+    public ExternalModuleDescriptor map(ExternalModule extMod, @Context Scanner scanner) {
         ScannerContext scannerContext = scanner.getContext();
         FqnResolver fqnResolver = scanner.getContext().peek(FqnResolver.class);
+        GraphWriteBuffer writeBuffer = scannerContext.peek(GraphWriteBuffer.class);
 
-        List<ExternalModuleDescriptor> result = new ArrayList<>();
-        for(ExternalModule extMod : scanResultCollection.getExternalModules()) {
-            ExternalModuleDescriptor modDescriptor = scannerContext.getStore().create(ExternalModuleDescriptor.class);
-            modDescriptor.setFqn(extMod.getFqn());
-
-            for(ExternalDeclaration extDecl : extMod.getDeclarations()) {
-                ExternalDeclarationDescriptor declDescriptor = scannerContext.getStore().create(ExternalDeclarationDescriptor.class);
-                declDescriptor.setFqn(extDecl.getFqn());
-                fqnResolver.registerFqn(declDescriptor);
+        ExternalModuleDescriptor modDescriptor = scannerContext.getStore().create(ExternalModuleDescriptor.class);
+        modDescriptor.setFqn(extMod.getFqn());
 
-                ExternalModuleExportsDescriptor relationDescriptor = scannerContext.getStore().create(modDescriptor, ExternalModuleExportsDescriptor.class, declDescriptor);
-                relationDescriptor.setExportedName(extDecl.getName());
-            }
+        for(ExternalDeclaration extDecl : extMod.getDeclarations()) {
+            ExternalDeclarationDescriptor declDescriptor = scannerContext.getStore().create(ExternalDeclarationDescriptor.class);
+            declDescriptor.setFqn(extDecl.getFqn());
+            fqnResolver.registerFqn(declDescriptor);
 
-            fqnResolver.registerFqn(modDescriptor);
-            result.add(modDescriptor);
+            writeBuffer.create(modDescriptor, ExternalModuleExportsDescriptor.class, declDescriptor, r -> r.setExportedName(extDecl.getName()));
         }
 
-        return result;
+        fqnResolver.registerFqn(modDescriptor);
+        return modDescriptor;
     }
 
 }
@@ -0,0 +1,374 @@
+package org.jqassistant.plugin.typescript.impl.mapper;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+
+/**
+ * Maps fully qualified names to values, storing every name as a path of segments in a trie.
+ * <p>
+ * A name is split in front of every `.` outside of double quotes, e.g. `"./src/app/x.ts".MyClass.method` consists
+ * of the segments `"./src/app/x.ts"`, `.MyClass` and `.method`. Segments shared by several names, like the path of
+ * their module, are stored once.
+ * <p>
+ * All nodes are kept in a single byte array, each one as its parent, hash, value index and UTF-8 encoded segment.
+ * A node is addressed by its offset within this array, which stays valid for the lifetime of the index. Looking up a
+ * name does not allocate and touches about two memory locations per segment: the hash table slot and the node.
+ * A node can be obtained for a name before a value is assigned to it, which allows to resolve references without
+ * keeping their names.
+ */
+public class FqnIndex<V> {
+
+    /**
+     * node of a name that is not part of the index
+     */
+    public static final int NONE = -1;
+
+    private static final int ROOT = -1;
+
+    private static final int EMPTY = -1;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final VarHandle INT = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private static final int PARENT = 0;
+
+    private static final int HASH = 4;
+
+    private static final int VALUE = 8;
+
+    private static final int SEGMENT_LENGTH = 12;
+
+    private static final int SEGMENT = 16;
+
+    /**
+     * hash table slots, holding the node of the segment or `-1`
+     */
+    private int[] slots = newSlots(INITIAL_CAPACITY * 2);
+
+    /**
+     * parent, hash, value index, segment length and segment of every node, stored next to each other
+     */
+    private byte[] nodes = new byte[INITIAL_CAPACITY * 32];
+
+    private int nodesLength = 0;
+
+    private int nodeCount = 0;
+
+    private Object[] values = new Object[INITIAL_CAPACITY];
+
+    private int size = 0;
+
+    /**
+     * Assigns the value to the name, unless the name already has a value.
+     *
+     * @return `false` if the name already had a value
+     */
+    public boolean put(String fqn, V value) {
+        int node = nodeOf(fqn);
+        if(getInt(node + VALUE) != EMPTY) {
+            return false;
+        }
+        if(size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size] = value;
+        setInt(node + VALUE, size++);
+        return true;
+    }
+
+    /**
+     * @return the value of the name, or `null` if there is none
+     */
+    public V get(String fqn) {
+        return fqn != null ? get(find(fqn, false)) : null;
+    }
+
+    /**
+     * @return the value of the node, or `null` if there is none
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int node) {
+        if(node == NONE) {
+            return null;
+        }
+        int value = getInt(node + VALUE);
+        return value != EMPTY ? (V) values[value] : null;
+    }
+
+    public boolean containsKey(String fqn) {
+        return get(fqn) != null;
+    }
+
+    /**
+     * @return the node of the name, which is created if it does not exist yet
+     */
+    public int nodeOf(String fqn) {
+        return find(fqn, true);
+    }
+
+    /**
+     * @return the number of names with a value
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the number of nodes, i.e. the number of distinct name prefixes ending at a segment
+     */
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * calls the consumer for all names with a value, each name is decoded to a new string
+     */
+    public void forEach(BiConsumer<String, V> consumer) {
+        for(int node = 0; node < nodesLength; node = next(node)) {
+            V value = get(node);
+            if(value != null) {
+                consumer.accept(fqnOf(node), value);
+            }
+        }
+    }
+
+    private int find(String fqn, boolean create) {
+        int node = ROOT;
+        int start = 0;
+        int hash = ROOT;
+        boolean quoted = false;
+        for(int i = 0; i < fqn.length(); i++) {
+            char c = fqn.charAt(i);
+            if(c == '.' && i > start && !quoted) {
+                node = child(node, mix(hash), fqn, start, i, create);
+                if(node == NONE) {
+                    return NONE;
+                }
+                start = i;
+                hash = node;
+            } else if(c == '"') {
+                quoted = !quoted;
+            }
+            hash = 31 * hash + c;
+        }
+        return child(node, mix(hash), fqn, start, fqn.length(), create);
+    }
+
+    /**
+     * @param hash hash of the segment, based on the parent node
+     */
+    private int child(int parent, int hash, String fqn, int start, int end, boolean create) {
+        int mask = slots.length - 1;
+        int slot = hash & mask;
+        while(slots[slot] != EMPTY) {
+            int node = slots[slot];
+            if(getInt(node + HASH) == hash && getInt(node + PARENT) == parent && segmentEquals(node, fqn, start, end)) {
+                return node;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if(!create) {
+            return NONE;
+        }
+
+        int node = nodesLength;
+        if(node + SEGMENT + (end - start) * 4 > nodes.length) {
+            nodes = Arrays.copyOf(nodes, Math.max(nodes.length * 2, node + SEGMENT + (end - start) * 4));
+        }
+        setInt(node + PARENT, parent);
+        setInt(node + HASH, hash);
+        setInt(node + VALUE, EMPTY);
+        setInt(node + SEGMENT_LENGTH, encodeSegment(fqn, start, end, node + SEGMENT));
+        nodesLength = next(node);
+        nodeCount++;
+        slots[slot] = node;
+        if(nodeCount * 2 > slots.length) {
+            rehash(slots.length * 2);
+        }
+        return node;
+    }
+
+    private boolean segmentEquals(int node, String fqn, int start, int end) {
+        int length = getInt(node + SEGMENT_LENGTH);
+        if(length < end - start) {
+            // every char takes at least one byte
+            return false;
+        }
+        int position = node + SEGMENT;
+        int limit = position + length;
+        for(int i = start; i < end; i++) {
+            char c = fqn.charAt(i);
+            if(c < 0x80) {
+                if(position == limit || nodes[position++] != c) {
+                    return false;
+                }
+                continue;
+            }
+            int codePoint = codePointAt(fqn, i, end);
+            if(codePoint > 0xFFFF) {
+                i++;
+            }
+            int codePointLength = utf8Length(codePoint);
+            if(position + codePointLength > limit) {
+                return false;
+            }
+            switch(codePointLength) {
+                case 2:
+                    if(nodes[position] != (byte) (0xC0 | (codePoint >> 6)) ||
+                        nodes[position + 1] != (byte) (0x80 | (codePoint & 0x3F))) {
+                        return false;
+                    }
+                    break;
+                case 3:
+                    if(nodes[position] != (byte) (0xE0 | (codePoint >> 12)) ||
+                        nodes[position + 1] != (byte) (0x80 | ((codePoint >> 6) & 0x3F)) ||
+                        nodes[position + 2] != (byte) (0x80 | (codePoint & 0x3F))) {
+                        return false;
+                    }
+                    break;
+                default:
+                    if(nodes[position] != (byte) (0xF0 | (codePoint >> 18)) ||
+                        nodes[position + 1] != (byte) (0x80 | ((codePoint >> 12) & 0x3F)) ||
+                        nodes[position + 2] != (byte) (0x80 | ((codePoint >> 6) & 0x3F)) ||
+                        nodes[position + 3] != (byte) (0x80 | (codePoint & 0x3F))) {
+                        return false;
+                    }
+            }
+            position += codePointLength;
+        }
+        return position == limit;
+    }
+
+    /**
+     * @return the number of bytes written
+     */
+    private int encodeSegment(String fqn, int start, int end, int offset) {
+        int position = offset;
+        for(int i = start; i < end; i++) {
+            int codePoint = codePointAt(fqn, i, end);
+            if(codePoint > 0xFFFF) {
+                i++;
+            }
+            switch(utf8Length(codePoint)) {
+                case 1:
+                    nodes[position++] = (byte) codePoint;
+                    break;
+                case 2:
+                    nodes[position++] = (byte) (0xC0 | (codePoint >> 6));
+                    nodes[position++] = (byte) (0x80 | (codePoint & 0x3F));
+                    break;
+                case 3:
+                    nodes[position++] = (byte) (0xE0 | (codePoint >> 12));
+                    nodes[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    nodes[position++] = (byte) (0x80 | (codePoint & 0x3F));
+                    break;
+                default:
+                    nodes[position++] = (byte) (0xF0 | (codePoint >> 18));
+                    nodes[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    nodes[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    nodes[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            }
+        }
+        return position - offset;
+    }
+
+    private String fqnOf(int node) {
+        StringBuilder fqn = new StringBuilder();
+        for(int current = node; current != ROOT; current = getInt(current + PARENT)) {
+            fqn.insert(0, decodeSegment(current));
+        }
+        return fqn.toString();
+    }
+
+    /**
+     * decodes the segment of the node, unlike {@link java.nio.charset.Charset} also restoring unpaired surrogates
+     */
+    private String decodeSegment(int node) {
+        int position = node + SEGMENT;
+        int limit = next(node);
+        StringBuilder segment = new StringBuilder(limit - position);
+        while(position < limit) {
+            int b = nodes[position] & 0xFF;
+            if(b < 0x80) {
+                segment.append((char) b);
+                position += 1;
+            } else if(b < 0xE0) {
+                segment.append((char) (((b & 0x1F) << 6) | (nodes[position + 1] & 0x3F)));
+                position += 2;
+            } else if(b < 0xF0) {
+                segment.append((char) (((b & 0x0F) << 12) | ((nodes[position + 1] & 0x3F) << 6) | (nodes[position + 2] & 0x3F)));
+                position += 3;
+            } else {
+                segment.appendCodePoint(((b & 0x07) << 18) | ((nodes[position + 1] & 0x3F) << 12) |
+                    ((nodes[position + 2] & 0x3F) << 6) | (nodes[position + 3] & 0x3F));
+                position += 4;
+            }
+        }
+        return segment.toString();
+    }
+
+    private void rehash(int capacity) {
+        slots = newSlots(capacity);
+        int mask = capacity - 1;
+        for(int node = 0; node < nodesLength; node = next(node)) {
+            int slot = getInt(node + HASH) & mask;
+            while(slots[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = node;
+        }
+    }
+
+    /**
+     * @return the node stored after the given one
+     */
+    private int next(int node) {
+        return node + SEGMENT + getInt(node + SEGMENT_LENGTH);
+    }
+
+    private int getInt(int offset) {
+        return (int) INT.get(nodes, offset);
+    }
+
+    private void setInt(int offset, int value) {
+        INT.set(nodes, offset, value);
+    }
+
+    /**
+     * @return the code point at the index, unpaired surrogates are returned as they are
+     */
+    private static int codePointAt(String fqn, int index, int end) {
+        char c = fqn.charAt(index);
+        if(Character.isHighSurrogate(c) && index + 1 < end && Character.isLowSurrogate(fqn.charAt(index + 1))) {
+            return Character.toCodePoint(c, fqn.charAt(index + 1));
+        }
+        return c;
+    }
+
+    private static int utf8Length(int codePoint) {
+        if(codePoint < 0x80) {
+            return 1;
+        } else if(codePoint < 0x800) {
+            return 2;
+        } else if(codePoint <= 0xFFFF) {
+            return 3;
+        }
+        return 4;
+    }
+
+    private static int mix(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static int[] newSlots(int capacity) {
+        int[] slots = new int[capacity];
+        Arrays.fill(slots, EMPTY);
+        return slots;
+    }
+
+}
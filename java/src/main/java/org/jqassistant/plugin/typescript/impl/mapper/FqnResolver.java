@@ -6,58 +6,98 @@ import org.jqassistant.plugin.typescript.api.model.TypeDeclaredDescriptor;
 import org.jqassistant.plugin.typescript.api.model.TypeScriptDescriptor;
 import org.jqassistant.plugin.typescript.api.model.ValueDeclaredDescriptor;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
+/**
+ * Registers the named concepts of a scan by their fully qualified name and resolves the references of declared types
+ * and values to them.
+ * <p>
+ * The names are kept in a {@link FqnIndex}. References only keep the index node of their referenced name, so that
+ * neither the names nor further reads of the store are needed to resolve them.
+ */
 @Slf4j
 public class FqnResolver {
 
-    private final Map<String, NamedConceptDescriptor> namedConcepts = new HashMap<>();
+    private final FqnIndex<NamedConceptDescriptor> namedConcepts = new FqnIndex<>();
 
-    private final List<TypeDeclaredDescriptor> typeDeclaredListToResolve = new ArrayList<>();
-    private final List<ValueDeclaredDescriptor> valueDeclaredListToResolve = new ArrayList<>();
+    /**
+     * declared types and values to resolve, together with the index nodes of their referenced names
+     */
+    private final List<TypeScriptDescriptor> refsToResolve = new ArrayList<>();
+    private int[] refNodes = new int[64];
+
+    /**
+     * ids of the concepts that were not mapped in the current scan but retained from a previous one
+     */
+    private final Set<Object> retainedIds = new HashSet<>();
 
 
     public void registerRef(TypeDeclaredDescriptor descriptor) {
-        typeDeclaredListToResolve.add(descriptor);
+        registerRef(descriptor, descriptor.getReferencedFqn());
     }
 
     public void registerRef(ValueDeclaredDescriptor descriptor) {
-        valueDeclaredListToResolve.add(descriptor);
+        registerRef(descriptor, descriptor.getReferencedFqn());
     }
 
-
-    public void resolveAll() {
-        for(TypeDeclaredDescriptor descriptor : typeDeclaredListToResolve) {
-            descriptor.setReference(getByFqn(descriptor.getReferencedFqn()));
+    private void registerRef(TypeScriptDescriptor descriptor, String referencedFqn) {
+        if(refsToResolve.size() == refNodes.length) {
+            refNodes = Arrays.copyOf(refNodes, refNodes.length * 2);
         }
+        refNodes[refsToResolve.size()] = referencedFqn != null ? namedConcepts.nodeOf(referencedFqn) : FqnIndex.NONE;
+        refsToResolve.add(descriptor);
+    }
 
-        for(ValueDeclaredDescriptor descriptor : valueDeclaredListToResolve) {
-            descriptor.setReference(getByFqn(descriptor.getReferencedFqn()));
+
+    public void resolveAll() {
+        for(int i = 0; i < refsToResolve.size(); i++) {
+            TypeScriptDescriptor descriptor = refsToResolve.get(i);
+            TypeScriptDescriptor reference = (TypeScriptDescriptor) namedConcepts.get(refNodes[i]);
+            if(descriptor instanceof TypeDeclaredDescriptor) {
+                ((TypeDeclaredDescriptor) descriptor).setReference(reference);
+            } else {
+                ((ValueDeclaredDescriptor) descriptor).setReference(reference);
+            }
         }
+        refsToResolve.clear();
     }
 
 
     public void registerFqn(NamedConceptDescriptor concept) {
-        if(namedConcepts.containsKey(concept.getFqn())) {
-            log.warn("Language concept with fully qualified name \"" + concept.getFqn() + "\" already exists!");
+        if(concept.getFqn() == null) {
+            log.debug("Skipping language concept without fully qualified name: " + concept);
             return;
         }
-        namedConcepts.put(concept.getFqn(), concept);
+        if(!namedConcepts.put(concept.getFqn(), concept)) {
+            log.warn("Language concept with fully qualified name \"" + concept.getFqn() + "\" already exists!");
+        }
+    }
+
+    /**
+     * registers a concept that already exists in the store from a previous scan
+     */
+    public void registerRetainedFqn(NamedConceptDescriptor concept) {
+        registerFqn(concept);
+        registerRetained((TypeScriptDescriptor) concept);
+    }
+
+    /**
+     * marks a concept without a fully qualified name as existing from a previous scan
+     */
+    public void registerRetained(TypeScriptDescriptor concept) {
+        retainedIds.add(concept.getId());
+    }
+
+    public boolean isRetained(TypeScriptDescriptor descriptor) {
+        return retainedIds.contains(descriptor.getId());
     }
 
     public TypeScriptDescriptor getByFqn(String fqn) {
-        if(namedConcepts.containsKey(fqn)) {
-            return (TypeScriptDescriptor) namedConcepts.get(fqn);
-        } else {
-            return null;
-        }
+        return (TypeScriptDescriptor) namedConcepts.get(fqn);
     }
 
     public void logAll() {
-        namedConcepts.keySet().forEach(log::info);
-        log.info("Total registered FQNs: " + namedConcepts.keySet().size());
+        namedConcepts.forEach((fqn, concept) -> log.info(fqn));
+        log.info("Total registered FQNs: " + namedConcepts.size());
     }
 }
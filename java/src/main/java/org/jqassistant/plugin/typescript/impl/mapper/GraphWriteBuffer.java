@@ -0,0 +1,139 @@
+package org.jqassistant.plugin.typescript.impl.mapper;
+
+import com.buschmais.jqassistant.core.store.api.Store;
+import com.buschmais.jqassistant.core.store.api.model.Descriptor;
+import com.buschmais.xo.neo4j.api.annotation.Relation;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Stages relationships between already existing descriptors and writes them in batches using `UNWIND` queries.
+ * <p>
+ * The buffer is limited to relationships on purpose, it never creates nodes: the mappers need the descriptor of a node
+ * right after its creation (to add its children, register its fqn or resolve references to it), which a staged node
+ * could not provide before it has been written. Nodes are therefore created through the store as before.
+ * <p>
+ * Only relationships whose descriptor is not needed after its creation can be staged, i.e. the descriptor is only
+ * used to set its properties. These properties are set on a recording proxy of the relation descriptor type,
+ * so that the mappers keep working against the descriptor interfaces. Calling anything but a setter on that proxy,
+ * or keeping it beyond the initializer, fails with an {@link UnsupportedOperationException}.
+ * <p>
+ * A batch size of `0` or less disables the buffer, all relationships are then created immediately.
+ */
+@Slf4j
+public class GraphWriteBuffer {
+
+    private static final String CREATE_RELATIONSHIPS_QUERY =
+        "UNWIND $rows AS row " +
+        "MATCH (source) WHERE id(source) = row.source " +
+        "MATCH (target) WHERE id(target) = row.target " +
+        "CREATE (source)-[r:%s]->(target) " +
+        "SET r += row.properties";
+
+    private final Store store;
+
+    private final int batchSize;
+
+    private final Map<Class<?>, RelationBatch> batches = new LinkedHashMap<>();
+
+    public GraphWriteBuffer(Store store, int batchSize) {
+        this.store = store;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Stages a relationship of the given type between source and target.
+     *
+     * @param initializer sets the properties of the relationship, may be `null`
+     */
+    public <S extends Descriptor, R extends Descriptor, T extends Descriptor> void create(S source, Class<R> relationType, T target, Consumer<R> initializer) {
+        if(source == null || target == null) {
+            log.debug("Skipping " + relationType.getSimpleName() + " relationship with missing source or target");
+            return;
+        }
+        if(batchSize <= 0) {
+            R relation = store.create(source, relationType, target);
+            if(initializer != null) {
+                initializer.accept(relation);
+            }
+            return;
+        }
+
+        RelationBatch batch = batches.computeIfAbsent(relationType, RelationBatch::new);
+        Map<String, Object> properties = new HashMap<>();
+        if(initializer != null) {
+            batch.recorder.properties = properties;
+            initializer.accept(relationType.cast(batch.recorderProxy));
+            batch.recorder.properties = null;
+        }
+        Map<String, Object> row = new HashMap<>();
+        row.put("source", source.getId());
+        row.put("target", target.getId());
+        row.put("properties", properties);
+        batch.rows.add(row);
+
+        if(batch.rows.size() >= batchSize) {
+            flush(batch);
+        }
+    }
+
+    /**
+     * Writes all staged relationships to the store.
+     */
+    public void flush() {
+        batches.values().forEach(this::flush);
+    }
+
+    private void flush(RelationBatch batch) {
+        if(batch.rows.isEmpty()) {
+            return;
+        }
+        store.flush();
+        store.executeQuery(String.format(CREATE_RELATIONSHIPS_QUERY, batch.relationName), Map.of("rows", batch.rows)).close();
+        batch.rows = new ArrayList<>();
+    }
+
+    private static class RelationBatch {
+
+        private final String relationName;
+
+        private final PropertyRecorder recorder = new PropertyRecorder();
+
+        private final Object recorderProxy;
+
+        private List<Map<String, Object>> rows = new ArrayList<>();
+
+        private RelationBatch(Class<?> relationType) {
+            Relation relation = relationType.getAnnotation(Relation.class);
+            if(relation == null || relation.value().isEmpty()) {
+                throw new IllegalArgumentException(relationType.getName() + " is not a named relation descriptor");
+            }
+            this.relationName = relation.value();
+            this.recorderProxy = Proxy.newProxyInstance(relationType.getClassLoader(), new Class<?>[]{relationType}, recorder);
+        }
+    }
+
+    /**
+     * Records the values passed to the setters of a relation descriptor.
+     */
+    private static class PropertyRecorder implements InvocationHandler {
+
+        private Map<String, Object> properties;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            String name = method.getName();
+            if(properties == null || !name.startsWith("set") || name.length() < 4 || args == null || args.length != 1) {
+                throw new UnsupportedOperationException("Only setters can be used on staged relationships: " + method);
+            }
+            properties.put(Character.toLowerCase(name.charAt(3)) + name.substring(4), args[0]);
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,292 @@
+package org.jqassistant.plugin.typescript.impl.mapper;
+
+import com.buschmais.jqassistant.core.scanner.api.Scanner;
+import com.buschmais.jqassistant.core.scanner.api.ScannerContext;
+import com.buschmais.jqassistant.core.store.api.Store;
+import com.buschmais.xo.api.Query;
+import lombok.extern.slf4j.Slf4j;
+import org.jqassistant.plugin.typescript.api.model.*;
+import org.jqassistant.plugin.typescript.impl.model.ExternalDeclaration;
+import org.jqassistant.plugin.typescript.impl.model.ExternalModule;
+import org.jqassistant.plugin.typescript.impl.model.Module;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Updates the graph of a previously scanned project instead of rebuilding it.
+ * <p>
+ * Modules whose content hash did not change keep their `DECLARES` subtree, the named concepts and the declaration
+ * hierarchy of these subtrees are loaded from the store and marked as retained in the {@link FqnResolver}.
+ * The subtrees of changed and removed modules are deleted, together with the `DEPENDS_ON` and `EXPORTS`
+ * relationships of their module nodes. All relationships with at least one endpoint that is not retained are then
+ * re-resolved from the scan result.
+ * <p>
+ * External modules and declarations are retained as long as they are part of the scan result, the ones that are no
+ * longer used by any module of the project are deleted.
+ */
+@Slf4j
+public class IncrementalModuleUpdater {
+
+    /**
+     * relationships that point from a subtree to concepts outside of it, besides the `REFERENCES` of declared types
+     * and values
+     */
+    private static final List<String> CROSS_REFERENCES = List.of("DEPENDS_ON", "EXPORTS");
+
+    private static final String EXPAND_SUBTREES_QUERY =
+        "MATCH (parent:TS)-[r]->(child:TS) WHERE id(parent) IN $parents AND NOT type(r) IN $crossReferences " +
+        "AND NOT (parent:Declared AND type(r) = 'REFERENCES') " +
+        "RETURN DISTINCT id(child) AS child";
+
+    private static final String DELETE_SUBTREES_QUERY =
+        "MATCH (node:TS) WHERE id(node) IN $subtree " +
+        "OPTIONAL MATCH (ref:TS:Declared)-[:REFERENCES]->(node) WHERE NOT id(ref) IN $subtree " +
+        "WITH collect(DISTINCT node) AS nodes, collect(DISTINCT id(ref)) AS refs " +
+        "FOREACH (node IN nodes | DETACH DELETE node) " +
+        "RETURN refs";
+
+    private static final String DELETE_MODULE_RELATIONSHIPS_QUERY =
+        "MATCH (module:TS:Module)-[r:DEPENDS_ON|EXPORTS]-() " +
+        "WHERE id(module) IN $modules AND (type(r) = 'DEPENDS_ON' OR startNode(r) = module) " +
+        "DELETE r";
+
+    private static final String REMOVE_MODULES_QUERY =
+        "MATCH (project:TS:Project)-[c:CONTAINS]->(module:TS:Module) WHERE id(module) IN $modules " +
+        "DELETE c " +
+        "REMOVE module:TS:Module, module.fqn, module.contentHash";
+
+    private static final String DANGLING_REFS_QUERY =
+        "MATCH (ref:TS:Declared) WHERE id(ref) IN $refs AND NOT (ref)-[:REFERENCES]->() " +
+        "RETURN ref";
+
+    private static final String LOAD_HIERARCHY_QUERY =
+        "MATCH (module:TS:Module) WHERE id(module) IN $modules " +
+        "MATCH (module)-[:DECLARES|HAS|HAS_PARAMETER*0..]->(parent:TS)-[:DECLARES]->(child:TS) " +
+        "RETURN parent, child";
+
+    private final Scanner scanner;
+
+    private final Map<String, ModuleDescriptor> existingModules = new HashMap<>();
+
+    private final Map<String, ExternalModuleDescriptor> existingExternalModules = new HashMap<>();
+
+    private final Set<Object> existingModuleIds = new HashSet<>();
+
+    private final List<ModuleDescriptor> unchangedModules = new ArrayList<>();
+
+    /**
+     * fqns of the declarations of the retained external modules in the scan result, by the fqn of their module
+     */
+    private final Map<String, Set<String>> retainedExternalDeclarations = new HashMap<>();
+
+    /**
+     * ids of declared types and values outside of deleted subtrees whose reference has been deleted with them
+     */
+    private final List<Object> danglingRefs = new ArrayList<>();
+
+    public IncrementalModuleUpdater(Scanner scanner) {
+        this.scanner = scanner;
+    }
+
+    /**
+     * collects the modules and external modules of the project from its previous scan
+     */
+    public void loadExisting(ProjectDescriptor project) {
+        for(ModuleDescriptor module : project.getModules()) {
+            if(module.getFqn() != null) {
+                existingModules.put(module.getFqn(), module);
+                existingModuleIds.add(module.getId());
+            }
+        }
+        for(ExternalModuleDescriptor externalModule : project.getExternalModules()) {
+            existingExternalModules.put(externalModule.getFqn(), externalModule);
+        }
+        log.info("Updating " + existingModules.size() + " previously scanned modules incrementally");
+    }
+
+    /**
+     * Checks whether the given module has changed since the previous scan. The subtree of a changed module is deleted.
+     *
+     * @return `true` if the module can be left untouched
+     */
+    public boolean retainModule(Module module) {
+        ModuleDescriptor existing = existingModules.remove(module.getFqn());
+        if(existing == null) {
+            return false;
+        }
+        if(module.getContentHash() != null && module.getContentHash().equals(existing.getContentHash())) {
+            unchangedModules.add(existing);
+            return true;
+        }
+        deleteSubtrees(List.of(existing));
+        return false;
+    }
+
+    /**
+     * @return `true` if the module node has been part of the project before, i.e. it is already contained in it
+     */
+    public boolean isExisting(ModuleDescriptor module) {
+        return existingModuleIds.contains(module.getId());
+    }
+
+    /**
+     * Reuses an external module of the previous scan. Declarations that did not exist before are added to it.
+     *
+     * @return the existing external module, or `null` if there is none
+     */
+    public ExternalModuleDescriptor retainExternalModule(ExternalModule externalModule) {
+        ExternalModuleDescriptor existing = existingExternalModules.get(externalModule.getFqn());
+        if(existing == null) {
+            return null;
+        }
+        ScannerContext context = scanner.getContext();
+        FqnResolver fqnResolver = context.peek(FqnResolver.class);
+        GraphWriteBuffer writeBuffer = context.peek(GraphWriteBuffer.class);
+
+        Set<String> declarations = retainedExternalDeclarations.computeIfAbsent(externalModule.getFqn(), k -> new HashSet<>());
+        externalModule.getDeclarations().forEach(declaration -> declarations.add(declaration.getFqn()));
+        Set<String> existingDeclarations = new HashSet<>();
+        for(ExternalModuleExportsDescriptor exports : existing.getExportedDeclarations()) {
+            ExternalDeclarationDescriptor declaration = exports.getExportedDeclaration();
+            existingDeclarations.add(declaration.getFqn());
+            if(declarations.contains(declaration.getFqn())) {
+                fqnResolver.registerRetainedFqn(declaration);
+            }
+        }
+        for(ExternalDeclaration declaration : externalModule.getDeclarations()) {
+            if(!existingDeclarations.contains(declaration.getFqn())) {
+                ExternalDeclarationDescriptor declDescriptor = context.getStore().create(ExternalDeclarationDescriptor.class);
+                declDescriptor.setFqn(declaration.getFqn());
+                fqnResolver.registerFqn(declDescriptor);
+                writeBuffer.create(existing, ExternalModuleExportsDescriptor.class, declDescriptor, r -> r.setExportedName(declaration.getName()));
+            }
+        }
+        fqnResolver.registerRetainedFqn(existing);
+        return existing;
+    }
+
+    /**
+     * Removes the modules and external modules that are no longer part of the project and registers the concepts of all
+     * unchanged modules. Has to be called before any relationships are resolved.
+     */
+    public void finish() {
+        ScannerContext context = scanner.getContext();
+        FqnResolver fqnResolver = context.peek(FqnResolver.class);
+        DeclarationHierarchy hierarchy = context.peek(DeclarationHierarchy.class);
+
+        if(!existingModules.isEmpty()) {
+            log.info("Removing " + existingModules.size() + " modules that no longer exist");
+            List<ModuleDescriptor> removedModules = new ArrayList<>(existingModules.values());
+            deleteSubtrees(removedModules);
+            execute(REMOVE_MODULES_QUERY, Map.of("modules", idsOf(removedModules)));
+            existingModules.clear();
+        }
+
+        List<Object> removedExternalConcepts = new ArrayList<>();
+        for(ExternalModuleDescriptor externalModule : existingExternalModules.values()) {
+            Set<String> declarations = retainedExternalDeclarations.get(externalModule.getFqn());
+            if(declarations == null) {
+                removedExternalConcepts.add(externalModule.getId());
+            }
+            for(ExternalModuleExportsDescriptor exports : externalModule.getExportedDeclarations()) {
+                ExternalDeclarationDescriptor declaration = exports.getExportedDeclaration();
+                if(declarations == null || !declarations.contains(declaration.getFqn())) {
+                    removedExternalConcepts.add(declaration.getId());
+                }
+            }
+        }
+        if(!removedExternalConcepts.isEmpty()) {
+            log.info("Removing " + removedExternalConcepts.size() + " external modules and declarations that are no longer used");
+            deleteNodes(removedExternalConcepts);
+        }
+        existingExternalModules.clear();
+        retainedExternalDeclarations.clear();
+
+        log.info("Retaining " + unchangedModules.size() + " unchanged modules");
+        for(ModuleDescriptor module : unchangedModules) {
+            fqnResolver.registerRetainedFqn(module);
+        }
+        if(!unchangedModules.isEmpty()) {
+            try(Query.Result<Query.Result.CompositeRowObject> result =
+                    context.getStore().executeQuery(LOAD_HIERARCHY_QUERY, Map.of("modules", idsOf(unchangedModules)))) {
+                for(Query.Result.CompositeRowObject row : result) {
+                    TypeScriptDescriptor parent = row.get("parent", TypeScriptDescriptor.class);
+                    TypeScriptDescriptor child = row.get("child", TypeScriptDescriptor.class);
+                    hierarchy.declare(parent, child);
+                    fqnResolver.registerRetained(parent);
+                    if(child instanceof NamedConceptDescriptor && ((NamedConceptDescriptor) child).getFqn() != null) {
+                        fqnResolver.registerRetainedFqn((NamedConceptDescriptor) child);
+                    }
+                }
+            }
+        }
+
+        if(!danglingRefs.isEmpty()) {
+            // refs of subtrees that have been deleted afterwards are not returned
+            try(Query.Result<Query.Result.CompositeRowObject> result =
+                    context.getStore().executeQuery(DANGLING_REFS_QUERY, Map.of("refs", danglingRefs))) {
+                for(Query.Result.CompositeRowObject row : result) {
+                    TypeScriptDescriptor ref = row.get("ref", TypeScriptDescriptor.class);
+                    if(ref instanceof TypeDeclaredDescriptor) {
+                        fqnResolver.registerRef((TypeDeclaredDescriptor) ref);
+                    } else if(ref instanceof ValueDeclaredDescriptor) {
+                        fqnResolver.registerRef((ValueDeclaredDescriptor) ref);
+                    }
+                }
+            }
+            danglingRefs.clear();
+        }
+    }
+
+    private void deleteSubtrees(List<ModuleDescriptor> modules) {
+        Store store = scanner.getContext().getStore();
+        scanner.getContext().peek(GraphWriteBuffer.class).flush();
+        store.flush();
+
+        List<Object> ids = idsOf(modules);
+        execute(DELETE_MODULE_RELATIONSHIPS_QUERY, Map.of("modules", ids));
+
+        // expanded level by level, as variable length paths explode on the cyclic parts of the graph
+        Set<Object> subtree = new HashSet<>();
+        Set<Object> moduleIds = new HashSet<>(ids);
+        List<Object> parents = ids;
+        while(!parents.isEmpty()) {
+            List<Object> children = new ArrayList<>();
+            try(Query.Result<Query.Result.CompositeRowObject> result =
+                    store.executeQuery(EXPAND_SUBTREES_QUERY, Map.of("parents", parents, "crossReferences", CROSS_REFERENCES))) {
+                for(Query.Result.CompositeRowObject row : result) {
+                    Object child = row.get("child", Object.class);
+                    if(!moduleIds.contains(child) && subtree.add(child)) {
+                        children.add(child);
+                    }
+                }
+            }
+            parents = children;
+        }
+        deleteNodes(new ArrayList<>(subtree));
+    }
+
+    /**
+     * deletes the given nodes, the declared types and values referencing them are re-resolved
+     */
+    private void deleteNodes(List<Object> ids) {
+        Store store = scanner.getContext().getStore();
+        scanner.getContext().peek(GraphWriteBuffer.class).flush();
+        store.flush();
+        try(Query.Result<Query.Result.CompositeRowObject> result = store.executeQuery(DELETE_SUBTREES_QUERY, Map.of("subtree", ids))) {
+            for(Query.Result.CompositeRowObject row : result) {
+                danglingRefs.addAll(row.get("refs", List.class));
+            }
+        }
+    }
+
+    private void execute(String query, Map<String, Object> parameters) {
+        scanner.getContext().getStore().executeQuery(query, parameters).close();
+    }
+
+    private static List<Object> idsOf(List<? extends TypeScriptDescriptor> descriptors) {
+        return descriptors.stream().map(TypeScriptDescriptor::getId).collect(Collectors.toList());
+    }
+
+}
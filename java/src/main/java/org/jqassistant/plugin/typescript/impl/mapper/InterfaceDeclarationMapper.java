@@ -35,8 +35,14 @@ public interface InterfaceDeclarationMapper extends
 
     @AfterMapping
     default void after(InterfaceDeclaration type, @MappingTarget InterfaceDeclarationDescriptor target, @Context Scanner scanner) {
-        scanner.getContext().peek(FqnResolver.class).registerFqn(target);
+        FqnResolver fqnResolver = scanner.getContext().peek(FqnResolver.class);
+        fqnResolver.registerFqn(target);
         scanner.getContext().peek(TypeParameterResolver.class).popScope();
+
+        DeclarationHierarchy hierarchy = scanner.getContext().peek(DeclarationHierarchy.class);
+        hierarchy.declare(target, type.getProperties(), fqnResolver);
+        hierarchy.declare(target, type.getMethods(), fqnResolver);
+        hierarchy.declare(target, type.getAccessorProperties(), fqnResolver);
     }
 
     List<InterfaceDeclarationDescriptor> mapList(List<InterfaceDeclaration> value, @Context Scanner scanner);
@@ -0,0 +1,58 @@
+package org.jqassistant.plugin.typescript.impl.mapper;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Settings that control how a scan result is mapped to the graph.
+ */
+@Getter
+@Builder
+@ToString
+public class MappingOptions {
+
+    public static final int DEFAULT_WRITE_BATCH_SIZE = 10000;
+
+    /**
+     * number of relationships that are staged per relationship type before they are written to the store,
+     * `0` or less creates every relationship immediately
+     */
+    @Builder.Default
+    private final int writeBatchSize = DEFAULT_WRITE_BATCH_SIZE;
+
+    /**
+     * share one primitive type node per distinct name instead of creating one for every usage
+     */
+    @Builder.Default
+    private final boolean internPrimitiveTypes = false;
+
+    /**
+     * share one node per structurally identical union, intersection, object, tuple and function type
+     */
+    @Builder.Default
+    private final boolean internCompositeTypes = false;
+
+    /**
+     * only replace the modules that changed since the previous scan of the project, disables type interning
+     */
+    @Builder.Default
+    private final boolean incremental = false;
+
+    /**
+     * maximum number of objects, arrays and calls a value may be nested in before it is truncated, `0` or less for no limit
+     */
+    @Builder.Default
+    private final int maxValueDepth = 0;
+
+    /**
+     * maximum number of members, items or arguments of an object, array or call before it is truncated, `0` or less for no limit
+     */
+    @Builder.Default
+    private final int maxValueElements = 0;
+
+    public static MappingOptions defaults() {
+        return MappingOptions.builder().build();
+    }
+
+}
@@ -0,0 +1,56 @@
+package org.jqassistant.plugin.typescript.impl.mapper;
+
+import com.buschmais.jqassistant.core.scanner.api.ScannerContext;
+import com.buschmais.jqassistant.core.store.api.Store;
+import com.buschmais.jqassistant.plugin.common.api.model.FileDescriptor;
+import com.buschmais.jqassistant.plugin.common.api.scanner.FileResolver;
+import com.buschmais.xo.api.Query;
+
+import java.util.*;
+
+/**
+ * Resolves the file descriptors of modules.
+ * <p>
+ * The files of a batch of modules are fetched by {@link #prefetch(Collection, Store)} using a single query on the
+ * indexed `fileName`, instead of one query per module. Paths that have not been prefetched, have no file node yet or
+ * match more than one file node are resolved by the {@link FileResolver} of the scanner context.
+ */
+public class ModuleFileResolver {
+
+    private static final String PREFETCH_QUERY =
+        "MATCH (file:File) WHERE file.fileName IN $paths " +
+        "RETURN file";
+
+    private final Map<String, FileDescriptor> files = new HashMap<>();
+
+    /**
+     * replaces the prefetched files by the ones of the given paths
+     */
+    public void prefetch(Collection<String> paths, Store store) {
+        files.clear();
+        if(paths.isEmpty()) {
+            return;
+        }
+        Set<String> ambiguousPaths = new HashSet<>();
+        store.flush();
+        try(Query.Result<Query.Result.CompositeRowObject> result = store.executeQuery(PREFETCH_QUERY, Map.of("paths", paths))) {
+            for(Query.Result.CompositeRowObject row : result) {
+                FileDescriptor file = row.get("file", FileDescriptor.class);
+                if(files.putIfAbsent(file.getFileName(), file) != null) {
+                    ambiguousPaths.add(file.getFileName());
+                }
+            }
+        }
+        // left to the file resolver, which decides how to handle them
+        files.keySet().removeAll(ambiguousPaths);
+    }
+
+    public FileDescriptor match(String path, ScannerContext context) {
+        FileDescriptor file = files.remove(path);
+        if(file != null) {
+            return file;
+        }
+        return context.peek(FileResolver.class).match(path, FileDescriptor.class, context);
+    }
+
+}
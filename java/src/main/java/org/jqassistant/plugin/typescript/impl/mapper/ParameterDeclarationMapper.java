@@ -58,6 +58,7 @@ public interface ParameterDeclarationMapper extends
         PropertyDeclarationDescriptor propertyDescriptor = propertyDeclarationMapper.toDescriptor(value, scanner);
 
         parameterDescriptor.setParameterProperty(propertyDescriptor);
+        scannerContext.peek(DeclarationHierarchy.class).declare(parameterDescriptor, propertyDescriptor);
         return parameterDescriptor;
     }
 
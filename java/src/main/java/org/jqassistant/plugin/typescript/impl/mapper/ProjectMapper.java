@@ -1,10 +1,6 @@
 package org.jqassistant.plugin.typescript.impl.mapper;
 
 import com.buschmais.jqassistant.core.scanner.api.Scanner;
-import com.buschmais.jqassistant.core.scanner.api.ScannerContext;
-import com.buschmais.jqassistant.plugin.common.api.model.DirectoryDescriptor;
-import com.buschmais.jqassistant.plugin.common.api.model.FileDescriptor;
-import com.buschmais.jqassistant.plugin.common.api.scanner.FileResolver;
 import org.jqassistant.plugin.typescript.api.model.ProjectDescriptor;
 import org.jqassistant.plugin.typescript.impl.model.ScanResultCollection;
 
@@ -13,28 +9,34 @@ public class ProjectMapper {
     public static final ProjectMapper INSTANCE = new ProjectMapper();
 
     public ProjectDescriptor map(ScanResultCollection scanResultCollection, Scanner scanner) {
-        FileResolver fileResolver = scanner.getContext().peek(FileResolver.class);
-        FileDescriptor fileDescriptor = fileResolver.match(scanResultCollection.getProject().get(0).getProjectRoot(), DirectoryDescriptor.class, scanner.getContext());
-        ProjectDescriptor result = scanner.getContext().getStore().addDescriptorType(fileDescriptor, ProjectDescriptor.class);
-
-        ScannerContext context = scanner.getContext();
-
-        context.push(FqnResolver.class, new FqnResolver());
-
-        result.getModules().addAll(
-            ModuleMapper.INSTANCE.map(scanResultCollection, scanner)
-        );
-
-        result.getExternalModules().addAll(
-            ExternalModuleMapper.INSTANCE.map(scanResultCollection, scanner)
-        );
-
-        DependencyResolver.resolve(scanner, scanResultCollection.getDependencies());
-        ExportDeclarationResolver.resolve(scanner, scanResultCollection.getExportDeclarations());
+        return map(scanResultCollection, scanner, MappingOptions.defaults());
+    }
 
-        context.pop(FqnResolver.class).resolveAll();
+    public ProjectDescriptor map(ScanResultCollection scanResultCollection, Scanner scanner, MappingOptions options) {
+        try(ProjectMappingSession session = new ProjectMappingSession(scanner, options)) {
+            map(scanResultCollection, session);
+            return session.finish();
+        }
+    }
 
-        return result;
+    /**
+     * hands all concepts of the scan result to the given session without finishing it
+     */
+    public void map(ScanResultCollection scanResultCollection, ProjectMappingSession session) {
+        session.useTypeTable(scanResultCollection.getTypeTable());
+        scanResultCollection.getProject().forEach(session::mapProject);
+        scanResultCollection.getModules().forEach(session::mapModule);
+
+        scanResultCollection.getClassDeclarations().forEach(session::mapClassDeclaration);
+        scanResultCollection.getInterfaceDeclarations().forEach(session::mapInterfaceDeclaration);
+        scanResultCollection.getTypeAliasDeclarations().forEach(session::mapTypeAliasDeclaration);
+        scanResultCollection.getEnumDeclarations().forEach(session::mapEnumDeclaration);
+        scanResultCollection.getFunctionDeclarations().forEach(session::mapFunctionDeclaration);
+        scanResultCollection.getVariableDeclarations().forEach(session::mapVariableDeclaration);
+
+        scanResultCollection.getExternalModules().forEach(session::mapExternalModule);
+        scanResultCollection.getExportDeclarations().forEach(session::addExportDeclaration);
+        scanResultCollection.getDependencies().forEach(session::addDependency);
     }
 
 }
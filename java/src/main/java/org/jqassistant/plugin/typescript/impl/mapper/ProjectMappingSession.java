@@ -0,0 +1,304 @@
+package org.jqassistant.plugin.typescript.impl.mapper;
+
+import com.buschmais.jqassistant.core.scanner.api.Scanner;
+import com.buschmais.jqassistant.core.scanner.api.ScannerContext;
+import com.buschmais.jqassistant.plugin.common.api.model.DirectoryDescriptor;
+import com.buschmais.jqassistant.plugin.common.api.model.FileDescriptor;
+import com.buschmais.jqassistant.plugin.common.api.scanner.FileResolver;
+import lombok.extern.slf4j.Slf4j;
+import org.jqassistant.plugin.typescript.api.model.ExternalModuleDescriptor;
+import org.jqassistant.plugin.typescript.api.model.ModuleDescriptor;
+import org.jqassistant.plugin.typescript.api.model.ProjectDescriptor;
+import org.jqassistant.plugin.typescript.api.model.TypeScriptDescriptor;
+import org.jqassistant.plugin.typescript.impl.model.*;
+import org.jqassistant.plugin.typescript.impl.model.Module;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Maps the language concepts of a single scan result one element at a time.
+ * Declarations are attached to their module as soon as both are known, while dependencies and exports are
+ * collected and resolved in {@link #finish()}, after all named concepts have been registered.
+ * The order in which the concepts are passed to the session does not matter.
+ * <p>
+ * The memory used while mapping is therefore not bounded by a single element: the {@link ExportDeclaration} and
+ * {@link Dependency} objects of the whole scan result are kept until {@link #finish()}, as both of their ends may only
+ * be known at the end. They are small compared to the declarations, whose objects are released once mapped.
+ * Modules are mapped in batches of {@value #MODULE_BATCH_SIZE}, whose files are fetched from the store at once, see
+ * {@link ModuleFileResolver}.
+ * <p>
+ * In incremental mode, the declarations of modules that have not changed since the previous scan are skipped, see
+ * {@link IncrementalModuleUpdater}. Declarations are then only mapped once it is known whether their module changed.
+ * <p>
+ * The session pushes its resolvers onto the scanner context until it is finished. A session that cannot be finished,
+ * e.g. because reading the scan result failed, has to be closed to release them.
+ */
+@Slf4j
+public class ProjectMappingSession implements AutoCloseable {
+
+    private static final int MODULE_BATCH_SIZE = 1000;
+
+    private final Scanner scanner;
+
+    private ProjectDescriptor project;
+
+    private final List<ModuleDescriptor> modules = new ArrayList<>();
+
+    private final Map<String, ModuleDescriptor> modulesByPath = new HashMap<>();
+
+    /**
+     * modules that have been passed to the session, but not mapped yet
+     */
+    private final List<Module> moduleBatch = new ArrayList<>();
+
+    /**
+     * declarations whose module has not been mapped yet, keyed by their file name
+     */
+    private final Map<String, List<Consumer<ModuleDescriptor>>> pendingDeclarations = new HashMap<>();
+
+    private final List<ExternalModuleDescriptor> externalModules = new ArrayList<>();
+
+    private final List<ExportDeclaration> exportDeclarations = new ArrayList<>();
+
+    private final List<Dependency> dependencies = new ArrayList<>();
+
+    /**
+     * `null` if the project is mapped from scratch
+     */
+    private final IncrementalModuleUpdater incrementalUpdater;
+
+    /**
+     * paths of unchanged modules that are retained from the previous scan
+     */
+    private final Set<String> retainedModulePaths = new HashSet<>();
+
+    /**
+     * types of the resolvers that are currently pushed onto the scanner context by this session
+     */
+    private final Deque<Class<?>> pushedTypes = new ArrayDeque<>();
+
+    public ProjectMappingSession(Scanner scanner) {
+        this(scanner, MappingOptions.defaults());
+    }
+
+    public ProjectMappingSession(Scanner scanner, MappingOptions options) {
+        this.scanner = scanner;
+        this.incrementalUpdater = options.isIncremental() ? new IncrementalModuleUpdater(scanner) : null;
+        boolean internTypes = options.isInternPrimitiveTypes() || options.isInternCompositeTypes();
+        if(options.isIncremental() && internTypes) {
+            log.warn("Type interning is not supported for incremental scans and will be disabled");
+        }
+
+        push(FqnResolver.class, new FqnResolver());
+        push(TypeParameterResolver.class, new TypeParameterResolver());
+        push(GraphWriteBuffer.class, new GraphWriteBuffer(scanner.getContext().getStore(), options.getWriteBatchSize()));
+        push(DeclarationHierarchy.class, new DeclarationHierarchy());
+        push(ModuleFileResolver.class, new ModuleFileResolver());
+        TypeTable typeTable = new TypeTable(!options.isIncremental());
+        push(TypeTable.class, typeTable);
+        push(TypeInterner.class, options.isIncremental() ?
+            new TypeInterner(false, false, typeTable) :
+            new TypeInterner(options.isInternPrimitiveTypes(), options.isInternCompositeTypes(), typeTable));
+        push(ValueBounds.class, new ValueBounds(options.getMaxValueDepth(), options.getMaxValueElements()));
+    }
+
+    /**
+     * replaces the type table by the one of the scan result (or shard) whose concepts are mapped next
+     */
+    public void useTypeTable(List<Type> types) {
+        scanner.getContext().peek(TypeTable.class).reset(types);
+    }
+
+    /**
+     * adds the next entry to the type table, which has to be done before the first concept referencing it is mapped
+     */
+    public void addTableType(Type value) {
+        scanner.getContext().peek(TypeTable.class).add(value);
+    }
+
+    public void mapProject(Project value) {
+        if(project != null) {
+            log.warn("Scan result contains more than one project, ignoring \"" + value.getProjectRoot() + "\"");
+            return;
+        }
+        ScannerContext context = scanner.getContext();
+        FileResolver fileResolver = context.peek(FileResolver.class);
+        FileDescriptor fileDescriptor = fileResolver.match(value.getProjectRoot(), DirectoryDescriptor.class, context);
+        project = context.getStore().addDescriptorType(fileDescriptor, ProjectDescriptor.class);
+        if(incrementalUpdater != null) {
+            incrementalUpdater.loadExisting(project);
+        }
+    }
+
+    public void mapModule(Module value) {
+        moduleBatch.add(value);
+        if(moduleBatch.size() >= MODULE_BATCH_SIZE) {
+            mapModuleBatch();
+        }
+    }
+
+    private void mapModuleBatch() {
+        List<String> paths = new ArrayList<>(moduleBatch.size());
+        for(Module module : moduleBatch) {
+            paths.add(module.getPath());
+        }
+        ScannerContext context = scanner.getContext();
+        context.peek(ModuleFileResolver.class).prefetch(paths, context.getStore());
+        moduleBatch.forEach(this::mapBatchedModule);
+        moduleBatch.clear();
+    }
+
+    private void mapBatchedModule(Module value) {
+        if(incrementalUpdater != null && incrementalUpdater.retainModule(value)) {
+            retainedModulePaths.add(value.getPath());
+            pendingDeclarations.remove(value.getPath());
+            return;
+        }
+        ModuleDescriptor moduleDescriptor = ModuleMapper.INSTANCE.map(value, scanner);
+        if(moduleDescriptor == null) {
+            return;
+        }
+        if(incrementalUpdater == null || !incrementalUpdater.isExisting(moduleDescriptor)) {
+            modules.add(moduleDescriptor);
+        }
+        modulesByPath.put(value.getPath(), moduleDescriptor);
+        List<Consumer<ModuleDescriptor>> pending = pendingDeclarations.remove(value.getPath());
+        if(pending != null) {
+            pending.forEach(attachment -> attachment.accept(moduleDescriptor));
+        }
+    }
+
+    public void mapTypeAliasDeclaration(TypeAliasDeclaration value) {
+        mapDeclaration(fileNameOf(value.getCoordinates()), () -> TypeAliasDeclarationMapper.INSTANCE.toDescriptor(value, scanner),
+            (module, descriptor) -> module.getTypeAliasDeclarations().add(descriptor));
+    }
+
+    public void mapClassDeclaration(ClassDeclaration value) {
+        mapDeclaration(fileNameOf(value.getCoordinates()), () -> ClassDeclarationMapper.INSTANCE.toDescriptor(value, scanner),
+            (module, descriptor) -> module.getClassDeclarations().add(descriptor));
+    }
+
+    public void mapInterfaceDeclaration(InterfaceDeclaration value) {
+        mapDeclaration(fileNameOf(value.getCoordinates()), () -> InterfaceDeclarationMapper.INSTANCE.toDescriptor(value, scanner),
+            (module, descriptor) -> module.getInterfaceDeclarations().add(descriptor));
+    }
+
+    public void mapEnumDeclaration(EnumDeclaration value) {
+        mapDeclaration(fileNameOf(value.getCoordinates()), () -> EnumDeclarationMapper.INSTANCE.toDescriptor(value, scanner),
+            (module, descriptor) -> module.getEnumDeclarations().add(descriptor));
+    }
+
+    public void mapFunctionDeclaration(FunctionDeclaration value) {
+        mapDeclaration(fileNameOf(value.getCoordinates()), () -> FunctionDeclarationMapper.INSTANCE.toDescriptor(value, scanner),
+            (module, descriptor) -> module.getFunctionDeclarations().add(descriptor));
+    }
+
+    public void mapVariableDeclaration(VariableDeclaration value) {
+        mapDeclaration(fileNameOf(value.getCoordinates()), () -> VariableDeclarationMapper.INSTANCE.toDescriptor(value, scanner),
+            (module, descriptor) -> module.getVariableDeclarations().add(descriptor));
+    }
+
+    public void mapExternalModule(ExternalModule value) {
+        if(incrementalUpdater != null && incrementalUpdater.retainExternalModule(value) != null) {
+            return;
+        }
+        externalModules.add(ExternalModuleMapper.INSTANCE.map(value, scanner));
+    }
+
+    public void addExportDeclaration(ExportDeclaration value) {
+        exportDeclarations.add(value);
+    }
+
+    public void addDependency(Dependency value) {
+        dependencies.add(value);
+    }
+
+    /**
+     * Creates all cross-references between the mapped concepts and releases the resolvers of this session.
+     *
+     * @return the project descriptor, or `null` if the scan result did not contain a project
+     */
+    public ProjectDescriptor finish() {
+        mapModuleBatch();
+        pop(ModuleFileResolver.class);
+        pop(TypeParameterResolver.class);
+        pop(TypeInterner.class);
+        pop(ValueBounds.class);
+        pop(TypeTable.class);
+
+        if(!pendingDeclarations.isEmpty()) {
+            log.debug("Skipping declarations of " + pendingDeclarations.size() + " files without a scanned module");
+            pendingDeclarations.clear();
+        }
+
+        if(project != null) {
+            project.getModules().addAll(modules);
+            project.getExternalModules().addAll(externalModules);
+        }
+
+        if(incrementalUpdater != null) {
+            incrementalUpdater.finish();
+        }
+
+        DependencyResolver.resolve(scanner, dependencies);
+        ExportDeclarationResolver.resolve(scanner, exportDeclarations);
+
+        pop(DeclarationHierarchy.class);
+        pop(GraphWriteBuffer.class).flush();
+        pop(FqnResolver.class).resolveAll();
+
+        return project;
+    }
+
+    /**
+     * Releases all resolvers this session still holds on the scanner context, without creating the cross-references.
+     * Does nothing if the session has been finished.
+     */
+    @Override
+    public void close() {
+        while(!pushedTypes.isEmpty()) {
+            scanner.getContext().pop(pushedTypes.pop());
+        }
+    }
+
+    private <T> void push(Class<T> type, T resolver) {
+        scanner.getContext().push(type, resolver);
+        pushedTypes.push(type);
+    }
+
+    private <T> T pop(Class<T> type) {
+        pushedTypes.remove(type);
+        return scanner.getContext().pop(type);
+    }
+
+    private <D extends TypeScriptDescriptor> void mapDeclaration(String fileName, Supplier<D> mapping, BiConsumer<ModuleDescriptor, D> attachment) {
+        if(retainedModulePaths.contains(fileName)) {
+            return;
+        }
+        ModuleDescriptor module = modulesByPath.get(fileName);
+        if(module == null && incrementalUpdater != null) {
+            // the declaration must not be mapped before it is known whether its module has changed
+            pendingDeclarations.computeIfAbsent(fileName, k -> new ArrayList<>()).add(m -> mapDeclaration(fileName, mapping, attachment));
+            return;
+        }
+
+        D declaration = mapping.get();
+        Consumer<ModuleDescriptor> declaringAttachment = m -> {
+            attachment.accept(m, declaration);
+            scanner.getContext().peek(DeclarationHierarchy.class).declare(m, declaration);
+        };
+        if(module != null) {
+            declaringAttachment.accept(module);
+        } else {
+            pendingDeclarations.computeIfAbsent(fileName, k -> new ArrayList<>()).add(declaringAttachment);
+        }
+    }
+
+    private static String fileNameOf(CodeCoordinates coordinates) {
+        return coordinates != null ? coordinates.getFileName() : null;
+    }
+
+}
@@ -0,0 +1,208 @@
+package org.jqassistant.plugin.typescript.impl.mapper;
+
+import org.jqassistant.plugin.typescript.api.model.TypeDescriptor;
+import org.jqassistant.plugin.typescript.api.model.TypePrimitiveDescriptor;
+import org.jqassistant.plugin.typescript.impl.model.*;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Shares type descriptors between all usages of the same type within a single scan.
+ * <p>
+ * Composite types (union, intersection, object, tuple and function) are identified by a canonical structural key of
+ * their whole subtree. Subtrees containing type parameter references or type parameter declarations are never shared,
+ * as these have to be resolved within the scope of their usage by the {@link TypeParameterResolver}.
+ * <p>
+ * References into the {@link TypeTable} are keyed by the structure of their entry, so that types are also shared across
+ * the shards of a scan result.
+ * <p>
+ * Shared type nodes have more than one incoming relationship, so the single-valued parent accessors of
+ * {@link TypeDescriptor} must not be used for them.
+ */
+public class TypeInterner {
+
+    private final boolean internPrimitives;
+
+    private final boolean internComposites;
+
+    private final TypeTable typeTable;
+
+    private final Map<String, TypePrimitiveDescriptor> primitives = new HashMap<>();
+
+    private final Map<String, TypeDescriptor> composites = new HashMap<>();
+
+    /**
+     * structural keys of the subtrees of the type that is currently mapped, `null` marks subtrees that cannot be shared
+     */
+    private final Map<Type, String> keyCache = new IdentityHashMap<>();
+
+    private int depth = 0;
+
+    public TypeInterner(boolean internPrimitives, boolean internComposites, TypeTable typeTable) {
+        this.internPrimitives = internPrimitives;
+        this.internComposites = internComposites;
+        this.typeTable = typeTable;
+    }
+
+    /**
+     * @return the shared descriptor for the primitive type with the given name, or a new one if interning is disabled
+     */
+    public TypePrimitiveDescriptor primitive(String name, Supplier<TypePrimitiveDescriptor> factory) {
+        if(!internPrimitives || name == null) {
+            return factory.get();
+        }
+        return primitives.computeIfAbsent(name, n -> factory.get());
+    }
+
+    /**
+     * @return the shared descriptor for a structurally identical composite type, or the one created by the given factory
+     */
+    public TypeDescriptor composite(Type type, Supplier<TypeDescriptor> factory) {
+        if(!internComposites || !isComposite(type)) {
+            return factory.get();
+        }
+        depth++;
+        try {
+            String key = key(type);
+            if(key == null) {
+                return factory.get();
+            }
+            TypeDescriptor descriptor = composites.get(key);
+            if(descriptor == null) {
+                // nested composites are interned by the factory, so computeIfAbsent cannot be used here
+                descriptor = factory.get();
+                composites.put(key, descriptor);
+            }
+            return descriptor;
+        } finally {
+            if(--depth == 0) {
+                keyCache.clear();
+            }
+        }
+    }
+
+    private static boolean isComposite(Type type) {
+        return type instanceof TypeUnion || type instanceof TypeIntersection || type instanceof TypeObject ||
+            type instanceof TypeTuple || type instanceof TypeFunction;
+    }
+
+    private String key(Type type) {
+        if(keyCache.containsKey(type)) {
+            return keyCache.get(type);
+        }
+        StringBuilder builder = new StringBuilder();
+        String key = appendKey(builder, type) ? builder.toString() : null;
+        if(isComposite(type)) {
+            keyCache.put(type, key);
+        }
+        return key;
+    }
+
+    /**
+     * appends the structural key of the given type
+     *
+     * @return `false` if the type cannot be shared
+     */
+    private boolean appendKey(StringBuilder builder, Type type) {
+        if(type == null) {
+            builder.append('~');
+        } else if(type instanceof TypeParameterReference) {
+            return false;
+        } else if(type instanceof TypeTableReference) {
+            return appendNested(builder, typeTable.getEntry(((TypeTableReference) type).getId()));
+        } else if(type instanceof TypePrimitive) {
+            appendString(builder.append('P'), ((TypePrimitive) type).getName());
+        } else if(type instanceof TypeLiteral) {
+            Object value = ((TypeLiteral) type).getValue();
+            builder.append('L');
+            if(value != null) {
+                appendString(builder.append(value.getClass().getSimpleName()), value.toString());
+            } else {
+                builder.append('~');
+            }
+        } else if(type instanceof TypeNotIdentified) {
+            appendString(builder.append('N'), ((TypeNotIdentified) type).getIdentifier());
+        } else if(type instanceof TypeDeclared) {
+            TypeDeclared declared = (TypeDeclared) type;
+            appendString(builder.append('D'), declared.getFqn());
+            return appendKeys(builder, declared.getTypeArguments());
+        } else if(type instanceof TypeUnion) {
+            return appendKeys(builder.append('U'), ((TypeUnion) type).getTypes());
+        } else if(type instanceof TypeIntersection) {
+            return appendKeys(builder.append('I'), ((TypeIntersection) type).getTypes());
+        } else if(type instanceof TypeTuple) {
+            return appendKeys(builder.append('T'), ((TypeTuple) type).getTypes());
+        } else if(type instanceof TypeObject) {
+            List<TypeObjectMember> members = ((TypeObject) type).getMembers();
+            builder.append("O(").append(members.size());
+            for(TypeObjectMember member : members) {
+                appendString(builder.append(','), member.getName());
+                builder.append(member.getOptional()).append(member.getReadonly());
+                if(!appendNested(builder, member.getType())) {
+                    return false;
+                }
+            }
+            builder.append(')');
+        } else if(type instanceof TypeFunction) {
+            TypeFunction function = (TypeFunction) type;
+            if(!function.getTypeParameters().isEmpty()) {
+                return false;
+            }
+            builder.append("F(").append(function.getAsync()).append(',').append(function.getParameters().size());
+            for(TypeFunctionParameter parameter : function.getParameters()) {
+                builder.append(',').append(parameter.getIndex());
+                appendString(builder, parameter.getName());
+                builder.append(parameter.getOptional());
+                if(!appendNested(builder, parameter.getType())) {
+                    return false;
+                }
+            }
+            if(!appendNested(builder.append("->"), function.getReturnType())) {
+                return false;
+            }
+            builder.append(')');
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    private boolean appendKeys(StringBuilder builder, List<Type> types) {
+        builder.append('(').append(types.size());
+        for(Type type : types) {
+            if(!appendNested(builder.append(','), type)) {
+                return false;
+            }
+        }
+        builder.append(')');
+        return true;
+    }
+
+    private boolean appendNested(StringBuilder builder, Type type) {
+        if(type != null && isComposite(type)) {
+            String key = key(type);
+            if(key == null) {
+                return false;
+            }
+            builder.append(key);
+            return true;
+        }
+        return appendKey(builder, type);
+    }
+
+    /**
+     * appends a length-prefixed string, so that names containing delimiters cannot produce ambiguous keys
+     */
+    private static void appendString(StringBuilder builder, String value) {
+        if(value == null) {
+            builder.append('~');
+        } else {
+            builder.append(value.length()).append(':').append(value);
+        }
+    }
+
+}
@@ -15,6 +15,21 @@ import java.util.stream.Collectors;
 public interface TypeMapper extends DescriptorMapper<Type, TypeDescriptor> {
 
     @Override
+    default TypeDescriptor toDescriptor(Type value, @Context Scanner scanner) {
+        if(value == null) {
+            return null;
+        }
+        if(value instanceof TypeTableReference) {
+            return scanner.getContext()
+                .peek(TypeTable.class)
+                .resolve(((TypeTableReference) value).getId(), entry -> toDescriptor(entry, scanner));
+        }
+        return scanner.getContext()
+            .peek(TypeInterner.class)
+            .composite(value, () -> mapType(value, scanner));
+    }
+
+    @Named("mapType")
     @SubclassMapping(source = TypePrimitive.class, target = TypePrimitiveDescriptor.class)
     @SubclassMapping(source = TypeDeclared.class, target = TypeDeclaredDescriptor.class)
     @SubclassMapping(source = TypeUnion.class, target = TypeUnionDescriptor.class)
@@ -28,7 +43,7 @@ public interface TypeMapper extends DescriptorMapper<Type, TypeDescriptor> {
     @Mapping(target = "dependents", ignore = true)
     @Mapping(target = "dependencies", ignore = true)
     @Mapping(target = "exporters", ignore = true)
-    TypeDescriptor toDescriptor(Type value, @Context Scanner scanner);
+    TypeDescriptor mapType(Type value, @Context Scanner scanner);
 
     default List<TypeDescriptor> mapList(List<Type> value, @Context Scanner scanner) {
         return value.stream()
@@ -61,13 +76,14 @@ public interface TypeMapper extends DescriptorMapper<Type, TypeDescriptor> {
             return null;
         }
         ScannerContext scannerContext = scanner.getContext();
+        GraphWriteBuffer writeBuffer = scannerContext.peek(GraphWriteBuffer.class);
         TypeDeclaredDescriptor descriptor = scannerContext.getStore().create(TypeDeclaredDescriptor.class);
         descriptor.setReferencedFqn(value.getFqn());
         for(int i = 0; i < value.getTypeArguments().size(); i++) {
             Type arg = value.getTypeArguments().get(i);
             TypeDescriptor argDescriptor = toDescriptor(arg, scanner);
-            TypeDeclaredHasTypeArgumentDescriptor relationDescriptor = scannerContext.getStore().create(descriptor, TypeDeclaredHasTypeArgumentDescriptor.class, argDescriptor);
-            relationDescriptor.setIndex(i);
+            int index = i;
+            writeBuffer.create(descriptor, TypeDeclaredHasTypeArgumentDescriptor.class, argDescriptor, r -> r.setIndex(index));
         }
         scannerContext.peek(FqnResolver.class).registerRef(descriptor);
         return descriptor;
@@ -154,13 +170,14 @@ public interface TypeMapper extends DescriptorMapper<Type, TypeDescriptor> {
             return null;
         }
         ScannerContext scannerContext = scanner.getContext();
+        GraphWriteBuffer writeBuffer = scannerContext.peek(GraphWriteBuffer.class);
         TypeTupleDescriptor descriptor = scannerContext.getStore().create(TypeTupleDescriptor.class);
         List<Type> types = value.getTypes();
         for (int i = 0; i < types.size(); i++) {
             Type item = types.get(i);
             TypeDescriptor itemDescriptor = toDescriptor(item, scanner);
-            TypeTupleContainsDescriptor relationDescriptor = scannerContext.getStore().create(descriptor, TypeTupleContainsDescriptor.class, itemDescriptor);
-            relationDescriptor.setIndex(i);
+            int index = i;
+            writeBuffer.create(descriptor, TypeTupleContainsDescriptor.class, itemDescriptor, r -> r.setIndex(index));
         }
         return descriptor;
     }
@@ -179,9 +196,9 @@ public interface TypeMapper extends DescriptorMapper<Type, TypeDescriptor> {
 
     @ObjectFactory
     default TypePrimitiveDescriptor resolveTypePrimitive(TypePrimitive value, @TargetType Class<TypePrimitiveDescriptor> descriptorType, @Context Scanner scanner) {
-        return scanner.getContext()
-            .getStore()
-            .create(descriptorType);
+        ScannerContext scannerContext = scanner.getContext();
+        return scannerContext.peek(TypeInterner.class)
+            .primitive(value.getName(), () -> scannerContext.getStore().create(descriptorType));
     }
 
     @ObjectFactory
@@ -0,0 +1,72 @@
+package org.jqassistant.plugin.typescript.impl.mapper;
+
+import org.jqassistant.plugin.typescript.api.model.TypeDescriptor;
+import org.jqassistant.plugin.typescript.impl.model.Type;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Holds the type table of the scan result that is currently mapped, i.e. the distinct types that are referenced by
+ * their index using {@link org.jqassistant.plugin.typescript.impl.model.TypeTableReference}.
+ * <p>
+ * Each entry is mapped once and its descriptor is shared by all references, unless sharing is disabled (incremental
+ * scans), in which case every reference is mapped to a separate subtree. Shared type nodes have more than one incoming
+ * relationship, so the single-valued parent accessors of {@link TypeDescriptor} must not be used for them.
+ * <p>
+ * The ids are only unique within a single file, so the table is replaced for every shard of a sharded scan result.
+ */
+public class TypeTable {
+
+    private final boolean share;
+
+    private final List<Type> entries = new ArrayList<>();
+
+    private final List<TypeDescriptor> descriptors = new ArrayList<>();
+
+    public TypeTable(boolean share) {
+        this.share = share;
+    }
+
+    /**
+     * replaces all entries, e.g. by the table of the next shard
+     */
+    public void reset(List<Type> types) {
+        entries.clear();
+        descriptors.clear();
+        types.forEach(this::add);
+    }
+
+    /**
+     * adds the entry with the next id
+     */
+    public void add(Type type) {
+        entries.add(type);
+        descriptors.add(null);
+    }
+
+    public Type getEntry(int id) {
+        if(id < 0 || id >= entries.size()) {
+            throw new IllegalStateException("Type table does not contain an entry with id " + id + ", it has to precede all references to it");
+        }
+        return entries.get(id);
+    }
+
+    /**
+     * @return the descriptor of the entry with the given id, which is created by the given mapping on first use
+     */
+    public TypeDescriptor resolve(int id, Function<Type, TypeDescriptor> mapping) {
+        Type entry = getEntry(id);
+        if(!share) {
+            return mapping.apply(entry);
+        }
+        TypeDescriptor descriptor = descriptors.get(id);
+        if(descriptor == null) {
+            descriptor = mapping.apply(entry);
+            descriptors.set(id, descriptor);
+        }
+        return descriptor;
+    }
+
+}
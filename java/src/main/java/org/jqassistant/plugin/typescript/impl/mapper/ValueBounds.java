@@ -0,0 +1,71 @@
+package org.jqassistant.plugin.typescript.impl.mapper;
+
+import org.jqassistant.plugin.typescript.impl.model.Value;
+import org.jqassistant.plugin.typescript.impl.model.ValueArray;
+import org.jqassistant.plugin.typescript.impl.model.ValueCall;
+import org.jqassistant.plugin.typescript.impl.model.ValueObject;
+
+/**
+ * Limits the size of the value trees created by the {@link ValueMapper}, e.g. for large configuration objects.
+ * <p>
+ * Objects, arrays and calls that are nested in more than `maxDepth` other ones or have more than `maxElements`
+ * members, items or arguments are replaced by a single `:Value:Complex` node marked as truncated.
+ * A limit of `0` or less disables the respective check.
+ */
+public class ValueBounds {
+
+    private final int maxDepth;
+
+    private final int maxElements;
+
+    /**
+     * number of objects, arrays and calls enclosing the value that is mapped next
+     */
+    private int depth = 0;
+
+    public ValueBounds(int maxDepth, int maxElements) {
+        this.maxDepth = maxDepth;
+        this.maxElements = maxElements;
+    }
+
+    /**
+     * @return `true` if the given value has to be truncated at the current depth
+     */
+    public boolean exceeds(Value value) {
+        int elementCount = elementCountOf(value);
+        if(elementCount < 0) {
+            return false;
+        }
+        return (maxDepth > 0 && depth >= maxDepth) || (maxElements > 0 && elementCount > maxElements);
+    }
+
+    /**
+     * to be called before the elements of the given value are mapped, followed by {@link #exit(Value)} afterwards
+     */
+    public void enter(Value value) {
+        if(elementCountOf(value) >= 0) {
+            depth++;
+        }
+    }
+
+    public void exit(Value value) {
+        if(elementCountOf(value) >= 0) {
+            depth--;
+        }
+    }
+
+    /**
+     * @return the number of members, items or arguments of an object, array or call, `-1` for all other values
+     */
+    public static int elementCountOf(Value value) {
+        if(value instanceof ValueObject) {
+            return ((ValueObject) value).getMembers().size();
+        } else if(value instanceof ValueArray) {
+            return ((ValueArray) value).getItems().size();
+        } else if(value instanceof ValueCall) {
+            return ((ValueCall) value).getArgs().size();
+        }
+        return -1;
+    }
+
+}
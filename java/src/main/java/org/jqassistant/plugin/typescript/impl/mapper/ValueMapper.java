@@ -17,6 +17,26 @@ import org.mapstruct.factory.Mappers;
 public interface ValueMapper extends DescriptorMapper<Value, ValueDescriptor> {
 
     @Override
+    default ValueDescriptor toDescriptor(Value value, @Context Scanner scanner) {
+        if(value == null) {
+            return null;
+        }
+        ValueBounds bounds = scanner.getContext().peekOrDefault(ValueBounds.class, null);
+        if(bounds == null) {
+            return mapValue(value, scanner);
+        }
+        if(bounds.exceeds(value)) {
+            return mapTruncatedValue(value, scanner);
+        }
+        bounds.enter(value);
+        try {
+            return mapValue(value, scanner);
+        } finally {
+            bounds.exit(value);
+        }
+    }
+
+    @Named("mapValue")
     @SubclassMapping(source = ValueNull.class, target = ValueNullDescriptor.class)
     @SubclassMapping(source = ValueLiteral.class, target = ValueLiteralDescriptor.class)
     @SubclassMapping(source = ValueDeclared.class, target = ValueDeclaredDescriptor.class)
@@ -30,7 +50,18 @@ public interface ValueMapper extends DescriptorMapper<Value, ValueDescriptor> {
     @Mapping(target = "dependents", ignore = true)
     @Mapping(target = "dependencies", ignore = true)
     @Mapping(target = "exporters", ignore = true)
-    ValueDescriptor toDescriptor(Value value, @Context Scanner scanner);
+    ValueDescriptor mapValue(Value value, @Context Scanner scanner);
+
+    /**
+     * @return a single node replacing the given value and all values nested in it, see {@link ValueBounds}
+     */
+    @Named("mapTruncatedValue")
+    default ValueComplexDescriptor mapTruncatedValue(Value value, @Context Scanner scanner) {
+        ValueComplexDescriptor descriptor = scanner.getContext().getStore().create(ValueComplexDescriptor.class);
+        descriptor.setTruncated(true);
+        descriptor.setElementCount(ValueBounds.elementCountOf(value));
+        return descriptor;
+    }
 
     default List<ValueDescriptor> mapList(List<Value> value, @Context Scanner scanner) {
         return value.stream()
@@ -110,13 +141,14 @@ public interface ValueMapper extends DescriptorMapper<Value, ValueDescriptor> {
             return null;
         }
         ScannerContext scannerContext = scanner.getContext();
+        GraphWriteBuffer writeBuffer = scannerContext.peek(GraphWriteBuffer.class);
         ValueArrayDescriptor descriptor = scannerContext.getStore().create(ValueArrayDescriptor.class);
         List<Value> values = value.getItems();
         for (int i = 0; i < values.size(); i++) {
             Value item = values.get(i);
             ValueDescriptor itemDescriptor = toDescriptor(item, scanner);
-            ValueArrayContainsDescriptor relationDescriptor = scannerContext.getStore().create(descriptor, ValueArrayContainsDescriptor.class, itemDescriptor);
-            relationDescriptor.setIndex(i);
+            int index = i;
+            writeBuffer.create(descriptor, ValueArrayContainsDescriptor.class, itemDescriptor, r -> r.setIndex(index));
         }
 
         TypeMapper typeMapper = Mappers.getMapper(TypeMapper.class);
@@ -129,21 +161,22 @@ public interface ValueMapper extends DescriptorMapper<Value, ValueDescriptor> {
             return null;
         }
         ScannerContext scannerContext = scanner.getContext();
+        GraphWriteBuffer writeBuffer = scannerContext.peek(GraphWriteBuffer.class);
         ValueCallDescriptor descriptor = scannerContext.getStore().create(ValueCallDescriptor.class);
 
         for(int i = 0; i < value.getArgs().size(); i++) {
             Value arg = value.getArgs().get(i);
             ValueDescriptor argDescriptor = toDescriptor(arg, scanner);
-            ValueCallHasArgumentDescriptor relationDescriptor = scannerContext.getStore().create(descriptor, ValueCallHasArgumentDescriptor.class, argDescriptor);
-            relationDescriptor.setIndex(i);
+            int index = i;
+            writeBuffer.create(descriptor, ValueCallHasArgumentDescriptor.class, argDescriptor, r -> r.setIndex(index));
         }
 
         TypeMapper typeMapper = Mappers.getMapper(TypeMapper.class);
         for(int i = 0; i < value.getTypeArgs().size(); i++) {
             Type typeArg = value.getTypeArgs().get(i);
             TypeDescriptor typeArgDescriptor = typeMapper.toDescriptor(typeArg, scanner);
-            ValueCallHasTypeArgumentDescriptor relationDescriptor = scannerContext.getStore().create(descriptor, ValueCallHasTypeArgumentDescriptor.class, typeArgDescriptor);
-            relationDescriptor.setIndex(i);
+            int index = i;
+            writeBuffer.create(descriptor, ValueCallHasTypeArgumentDescriptor.class, typeArgDescriptor, r -> r.setIndex(index));
         }
 
         descriptor.setType(typeMapper.toDescriptor(value.getType(), scanner));
@@ -164,6 +197,8 @@ public interface ValueMapper extends DescriptorMapper<Value, ValueDescriptor> {
     @Mapping(target = "dependents", ignore = true)
     @Mapping(target = "dependencies", ignore = true)
     @Mapping(target = "exporters", ignore = true)
+    @Mapping(target = "truncated", ignore = true)
+    @Mapping(target = "elementCount", ignore = true)
     ValueComplexDescriptor mapValueComplex(ValueComplex value, @Context Scanner scanner);
 
     @ObjectFactory
@@ -11,4 +11,9 @@ public class Module extends NamedConcept {
 
     private String path;
 
+    /**
+     * hash of the module's source code, `null` for reports of older extractor versions
+     */
+    private String contentHash;
+
 }
@@ -13,6 +13,12 @@ import java.util.List;
 @ToString
 public class ScanResultCollection {
 
+    /**
+     * distinct types referenced by {@link TypeTableReference}s, only written by `jqa-ts-lce --type-table`
+     */
+    @JsonAlias("type-table")
+    private List<Type> typeTable = new ArrayList<>();
+
     private List<Project> project = new ArrayList<>();
 
     @JsonAlias("module")
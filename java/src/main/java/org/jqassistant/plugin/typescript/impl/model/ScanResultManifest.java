@@ -0,0 +1,21 @@
+package org.jqassistant.plugin.typescript.impl.model;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entry point of a sharded scan result. Contains the concepts that do not belong to a single source file, e.g. the
+ * project itself, and the paths of the shards relative to the manifest.
+ */
+@Getter
+@Setter
+@ToString(callSuper = true)
+public class ScanResultManifest extends ScanResultCollection {
+
+    private List<String> shards = new ArrayList<>();
+
+}
@@ -22,7 +22,8 @@ import lombok.ToString;
     @JsonSubTypes.Type(value = TypeParameterReference.class, name = "type-parameter"),
     @JsonSubTypes.Type(value = TypeLiteral.class, name = "literal"),
     @JsonSubTypes.Type(value = TypeTuple.class, name = "tuple"),
-    @JsonSubTypes.Type(value = TypeNotIdentified.class, name = "not-identified")
+    @JsonSubTypes.Type(value = TypeNotIdentified.class, name = "not-identified"),
+    @JsonSubTypes.Type(value = TypeTableReference.class, name = "ref")
 })
 public abstract class Type {
 }
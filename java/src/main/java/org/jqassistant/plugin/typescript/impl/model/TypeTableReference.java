@@ -0,0 +1,17 @@
+package org.jqassistant.plugin.typescript.impl.model;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Reference to an entry of the type table of a scan result (`jqa-ts-lce --type-table`)
+ */
+@Getter
+@Setter
+@ToString
+public class TypeTableReference extends Type {
+
+    private int id;
+
+}
@@ -0,0 +1,17 @@
+package org.jqassistant.plugin.typescript.impl.reader;
+
+import org.jqassistant.plugin.typescript.impl.mapper.ProjectMappingSession;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * Receives the concepts of a scan result in the order they have been read, each as the mapping that hands it to a
+ * {@link ProjectMappingSession}.
+ */
+@FunctionalInterface
+public interface ConceptSink {
+
+    void add(Consumer<ProjectMappingSession> mapping) throws IOException;
+
+}
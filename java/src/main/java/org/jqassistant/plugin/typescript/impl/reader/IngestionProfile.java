@@ -0,0 +1,74 @@
+package org.jqassistant.plugin.typescript.impl.reader;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Determines which parts of a scan result are read into the graph.
+ * <p>
+ * Skipped types and values are dropped while the scan result is deserialized, see {@link IngestionProfileDeserializerModifier},
+ * so they neither occupy the heap nor are they written to the store.
+ */
+public enum IngestionProfile {
+
+    /**
+     * modules, declarations, exports and dependencies, without the types and values of declarations
+     * (the base types of classes and interfaces are kept, but without type arguments)
+     */
+    STRUCTURE(false, false),
+
+    /**
+     * like {@link #FULL}, but without values (e.g. initializers of variables and properties, decorator arguments)
+     */
+    SIGNATURES(true, false),
+
+    /**
+     * all concepts of the scan result
+     */
+    FULL(true, true);
+
+    private final boolean types;
+
+    private final boolean values;
+
+    IngestionProfile(boolean types, boolean values) {
+        this.types = types;
+        this.values = values;
+    }
+
+    public boolean includesTypes() {
+        return types;
+    }
+
+    public boolean includesValues() {
+        return values;
+    }
+
+    /**
+     * registers the deserializer modifier dropping the skipped concepts, unless this profile includes all of them
+     */
+    public ObjectMapper configure(ObjectMapper objectMapper) {
+        if(this != FULL) {
+            objectMapper.registerModule(new SimpleModule("typescript-ingestion-profile")
+                .setDeserializerModifier(new IngestionProfileDeserializerModifier(this)));
+        }
+        return objectMapper;
+    }
+
+    /**
+     * @param name the name of a profile, case-insensitive
+     */
+    public static IngestionProfile of(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown ingestion profile \"" + name + "\", supported profiles are " +
+                Arrays.stream(values()).map(profile -> profile.name().toLowerCase(Locale.ROOT)).collect(Collectors.joining(", ")), e);
+        }
+    }
+
+}
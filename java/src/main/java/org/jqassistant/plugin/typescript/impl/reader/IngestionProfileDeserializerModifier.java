@@ -0,0 +1,58 @@
+package org.jqassistant.plugin.typescript.impl.reader;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.PropertyName;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerBuilder;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
+import com.fasterxml.jackson.databind.deser.SettableBeanProperty;
+import org.jqassistant.plugin.typescript.impl.model.Type;
+import org.jqassistant.plugin.typescript.impl.model.Value;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Turns all properties holding types or values that are not part of an {@link IngestionProfile} into ignored properties,
+ * whose JSON subtrees are skipped by the parser without creating any objects.
+ * <p>
+ * Only properties declared as {@link Type} or {@link Value} (or as a collection of them) are skipped, properties declared
+ * as a specific type like the base types of classes are kept.
+ * Collection properties keep their initial (empty) value.
+ */
+class IngestionProfileDeserializerModifier extends BeanDeserializerModifier {
+
+    private final IngestionProfile profile;
+
+    IngestionProfileDeserializerModifier(IngestionProfile profile) {
+        this.profile = profile;
+    }
+
+    @Override
+    public BeanDeserializerBuilder updateBuilder(DeserializationConfig config, BeanDescription beanDesc, BeanDeserializerBuilder builder) {
+        List<SettableBeanProperty> skipped = new ArrayList<>();
+        for(Iterator<SettableBeanProperty> it = builder.getProperties(); it.hasNext(); ) {
+            SettableBeanProperty property = it.next();
+            if(isSkipped(property.getType())) {
+                skipped.add(property);
+            }
+        }
+        for(SettableBeanProperty property : skipped) {
+            builder.removeProperty(property.getFullName());
+            builder.addIgnorable(property.getName());
+            for(PropertyName alias : property.findAliases(config)) {
+                builder.addIgnorable(alias.getSimpleName());
+            }
+        }
+        return builder;
+    }
+
+    private boolean isSkipped(JavaType type) {
+        JavaType conceptType = type.isCollectionLikeType() ? type.getContentType() : type;
+        return (!profile.includesTypes() && conceptType.hasRawClass(Type.class)) ||
+            (!profile.includesValues() && conceptType.hasRawClass(Value.class));
+    }
+
+}
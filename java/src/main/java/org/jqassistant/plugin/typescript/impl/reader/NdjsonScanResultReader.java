@@ -0,0 +1,75 @@
+package org.jqassistant.plugin.typescript.impl.reader;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.jqassistant.plugin.typescript.impl.mapper.ProjectMappingSession;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads a scan result written as NDJSON (`jqa-ts-lce --ndjson`), i.e. one record per line holding a single concept and its
+ * concept id, e.g. `{"conceptId":"class-declaration","concept":{...}}`.
+ * <p>
+ * As for the {@link ScanResultStreamReader}, every concept is handed to the {@link ProjectMappingSession} as soon as it
+ * has been deserialized, so only a single concept is held in memory at a time.
+ */
+@Slf4j
+public class NdjsonScanResultReader {
+
+    private static final String CONCEPT_ID = "conceptId";
+
+    private static final String CONCEPT = "concept";
+
+    private final ObjectMapper objectMapper;
+
+    private final ScanResultStreamReader conceptReader;
+
+    public NdjsonScanResultReader(ObjectMapper objectMapper, ScanResultStreamReader conceptReader) {
+        this.objectMapper = objectMapper;
+        this.conceptReader = conceptReader;
+    }
+
+    public void read(InputStream inputStream, ProjectMappingSession session) throws IOException {
+        read(inputStream, mapping -> mapping.accept(session));
+    }
+
+    /**
+     * Reads the scan result and hands the mapping of each concept to the given sink instead of applying it.
+     */
+    public void read(InputStream inputStream, ConceptSink sink) throws IOException {
+        try(JsonParser parser = objectMapper.getFactory().createParser(inputStream)) {
+            JsonToken token;
+            while((token = parser.nextToken()) != null) {
+                if(token != JsonToken.START_OBJECT) {
+                    throw new IOException("Expected a concept record in line " + parser.getCurrentLocation().getLineNr() + ", found " + token);
+                }
+                readRecord(parser, sink);
+            }
+        }
+    }
+
+    private void readRecord(JsonParser parser, ConceptSink sink) throws IOException {
+        String conceptId = null;
+        while(parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            if(CONCEPT_ID.equals(field)) {
+                conceptId = parser.getValueAsString();
+            } else if(CONCEPT.equals(field)) {
+                if(conceptId == null) {
+                    throw new IOException("Expected the concept id before the concept in line " + parser.getCurrentLocation().getLineNr());
+                }
+                if(!conceptReader.readConcept(conceptId, parser, sink)) {
+                    log.debug("Skipping unsupported concept \"" + conceptId + "\"");
+                    parser.skipChildren();
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+}
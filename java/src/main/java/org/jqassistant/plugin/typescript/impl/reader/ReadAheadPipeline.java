@@ -0,0 +1,144 @@
+package org.jqassistant.plugin.typescript.impl.reader;
+
+import org.jqassistant.plugin.typescript.impl.mapper.ProjectMappingSession;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+/**
+ * Reads a scan result on a separate thread, while its concepts are mapped by the calling thread, which is the only one
+ * accessing the store. Deserializing the report thereby overlaps with writing the graph.
+ * <p>
+ * The reader hands the concepts in batches to a bounded queue, so that at most about `capacity` concepts are held in
+ * memory waiting to be mapped. With a capacity of `0` or less, the concepts are mapped by the calling thread as soon as
+ * they have been read.
+ */
+public class ReadAheadPipeline {
+
+    private static final int BATCH_SIZE = 256;
+
+    /**
+     * marks the end of the scan result
+     */
+    private static final List<Consumer<ProjectMappingSession>> END = new ArrayList<>();
+
+    private final int capacity;
+
+    public ReadAheadPipeline(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Reads the scan result from the given source and maps all of its concepts, without finishing the session.
+     */
+    public void run(Source source, ProjectMappingSession session) throws IOException {
+        if(capacity <= 0) {
+            source.read(mapping -> mapping.accept(session));
+            return;
+        }
+        BlockingQueue<List<Consumer<ProjectMappingSession>>> queue = new ArrayBlockingQueue<>(Math.max(1, capacity / BATCH_SIZE));
+        ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "typescript-report-reader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Future<?> reading = executor.submit(() -> {
+                try {
+                    BatchingSink sink = new BatchingSink(queue);
+                    source.read(sink);
+                    sink.flush();
+                } finally {
+                    // an interrupted reader has been abandoned by the mapping thread
+                    if(!Thread.currentThread().isInterrupted()) {
+                        put(queue, END);
+                    }
+                }
+                return null;
+            });
+            List<Consumer<ProjectMappingSession>> batch;
+            while((batch = take(queue)) != END) {
+                batch.forEach(mapping -> mapping.accept(session));
+            }
+            complete(reading);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void put(BlockingQueue<List<Consumer<ProjectMappingSession>>> queue, List<Consumer<ProjectMappingSession>> batch) throws InterruptedIOException {
+        try {
+            queue.put(batch);
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while reading the scan result");
+        }
+    }
+
+    private static List<Consumer<ProjectMappingSession>> take(BlockingQueue<List<Consumer<ProjectMappingSession>>> queue) throws InterruptedIOException {
+        try {
+            return queue.take();
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while mapping the scan result");
+        }
+    }
+
+    /**
+     * rethrows the exception the reader failed with, if any
+     */
+    private static void complete(Future<?> reading) throws IOException {
+        try {
+            reading.get();
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while reading the scan result");
+        } catch(ExecutionException e) {
+            if(e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Could not read scan result", e.getCause());
+        }
+    }
+
+    /**
+     * reads a scan result and hands its concepts to the given sink
+     */
+    @FunctionalInterface
+    public interface Source {
+
+        void read(ConceptSink sink) throws IOException;
+
+    }
+
+    private static class BatchingSink implements ConceptSink {
+
+        private final BlockingQueue<List<Consumer<ProjectMappingSession>>> queue;
+
+        private List<Consumer<ProjectMappingSession>> batch = new ArrayList<>(BATCH_SIZE);
+
+        private BatchingSink(BlockingQueue<List<Consumer<ProjectMappingSession>>> queue) {
+            this.queue = queue;
+        }
+
+        @Override
+        public void add(Consumer<ProjectMappingSession> mapping) throws IOException {
+            batch.add(mapping);
+            if(batch.size() >= BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        private void flush() throws IOException {
+            if(!batch.isEmpty()) {
+                put(queue, batch);
+                batch = new ArrayList<>(BATCH_SIZE);
+            }
+        }
+    }
+
+}
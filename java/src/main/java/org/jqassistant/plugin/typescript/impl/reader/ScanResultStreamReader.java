@@ -0,0 +1,119 @@
+package org.jqassistant.plugin.typescript.impl.reader;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.extern.slf4j.Slf4j;
+import org.jqassistant.plugin.typescript.impl.mapper.ProjectMappingSession;
+import org.jqassistant.plugin.typescript.impl.model.*;
+import org.jqassistant.plugin.typescript.impl.model.Module;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Reads a scan result token by token and hands every element of the top-level concept arrays to a
+ * {@link ProjectMappingSession} as soon as it has been deserialized.
+ * In contrast to deserializing a {@link ScanResultCollection}, only a single concept is held in memory at a time.
+ * The type table is skipped if the {@link IngestionProfile} does not include types.
+ */
+@Slf4j
+public class ScanResultStreamReader {
+
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, ConceptHandler<?>> handlers = new HashMap<>();
+
+    public ScanResultStreamReader(ObjectMapper objectMapper) {
+        this(objectMapper, IngestionProfile.FULL);
+    }
+
+    /**
+     * @param objectMapper object mapper that has been configured for the given profile, see {@link IngestionProfile#configure(ObjectMapper)}
+     */
+    public ScanResultStreamReader(ObjectMapper objectMapper, IngestionProfile profile) {
+        this.objectMapper = objectMapper;
+
+        if(profile.includesTypes()) {
+            register(objectMapper, "type-table", Type.class, ProjectMappingSession::addTableType);
+        }
+        register(objectMapper, "project", Project.class, ProjectMappingSession::mapProject);
+        register(objectMapper, "module", Module.class, ProjectMappingSession::mapModule);
+        register(objectMapper, "type-alias-declaration", TypeAliasDeclaration.class, ProjectMappingSession::mapTypeAliasDeclaration);
+        register(objectMapper, "class-declaration", ClassDeclaration.class, ProjectMappingSession::mapClassDeclaration);
+        register(objectMapper, "interface-declaration", InterfaceDeclaration.class, ProjectMappingSession::mapInterfaceDeclaration);
+        register(objectMapper, "enum-declaration", EnumDeclaration.class, ProjectMappingSession::mapEnumDeclaration);
+        register(objectMapper, "function-declaration", FunctionDeclaration.class, ProjectMappingSession::mapFunctionDeclaration);
+        register(objectMapper, "variable-declaration", VariableDeclaration.class, ProjectMappingSession::mapVariableDeclaration);
+        register(objectMapper, "external-module", ExternalModule.class, ProjectMappingSession::mapExternalModule);
+        register(objectMapper, "export-declaration", ExportDeclaration.class, ProjectMappingSession::addExportDeclaration);
+        register(objectMapper, "dependency", Dependency.class, ProjectMappingSession::addDependency);
+    }
+
+    public void read(InputStream inputStream, ProjectMappingSession session) throws IOException {
+        read(inputStream, mapping -> mapping.accept(session));
+    }
+
+    /**
+     * Reads the scan result and hands the mapping of each concept to the given sink instead of applying it.
+     */
+    public void read(InputStream inputStream, ConceptSink sink) throws IOException {
+        try(JsonParser parser = objectMapper.getFactory().createParser(inputStream)) {
+            if(parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected scan result to start with an object, found " + parser.currentToken());
+            }
+            while(parser.nextToken() == JsonToken.FIELD_NAME) {
+                String conceptId = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                if(!handlers.containsKey(conceptId) || token != JsonToken.START_ARRAY) {
+                    log.debug("Skipping unsupported concept \"" + conceptId + "\"");
+                    parser.skipChildren();
+                    continue;
+                }
+                while(parser.nextToken() != JsonToken.END_ARRAY) {
+                    readConcept(conceptId, parser, sink);
+                }
+            }
+        }
+    }
+
+    /**
+     * Deserializes the concept starting at the current token of the parser and hands its mapping to the sink.
+     *
+     * @return `false` if concepts with the given id are not supported, in this case the parser is not moved
+     */
+    boolean readConcept(String conceptId, JsonParser parser, ConceptSink sink) throws IOException {
+        ConceptHandler<?> handler = handlers.get(conceptId);
+        if(handler == null) {
+            return false;
+        }
+        handler.handle(parser, sink);
+        return true;
+    }
+
+    private <T> void register(ObjectMapper objectMapper, String conceptId, Class<T> conceptType, BiConsumer<ProjectMappingSession, T> consumer) {
+        handlers.put(conceptId, new ConceptHandler<>(objectMapper.readerFor(conceptType), consumer));
+    }
+
+    private static class ConceptHandler<T> {
+
+        private final ObjectReader reader;
+
+        private final BiConsumer<ProjectMappingSession, T> consumer;
+
+        private ConceptHandler(ObjectReader reader, BiConsumer<ProjectMappingSession, T> consumer) {
+            this.reader = reader;
+            this.consumer = consumer;
+        }
+
+        private void handle(JsonParser parser, ConceptSink sink) throws IOException {
+            T concept = reader.readValue(parser);
+            sink.add(session -> consumer.accept(session, concept));
+        }
+    }
+
+}
@@ -0,0 +1,83 @@
+package org.jqassistant.plugin.typescript.impl.reader;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.jqassistant.plugin.typescript.impl.mapper.ProjectMapper;
+import org.jqassistant.plugin.typescript.impl.mapper.ProjectMappingSession;
+import org.jqassistant.plugin.typescript.impl.model.ScanResultCollection;
+import org.jqassistant.plugin.typescript.impl.model.ScanResultManifest;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Reads a scan result that has been split into shards listed by a {@link ScanResultManifest}.
+ * <p>
+ * The shards are deserialized by a pool of worker threads, while all of them are mapped by the calling thread, which
+ * is the only one accessing the store. References between shards are resolved when the session is finished.
+ * At most two shards per worker are held in memory waiting to be mapped.
+ */
+@Slf4j
+public class ShardedScanResultReader {
+
+    private final ObjectMapper objectMapper;
+
+    private final int threads;
+
+    public ShardedScanResultReader(ObjectMapper objectMapper, int threads) {
+        this.objectMapper = objectMapper;
+        this.threads = Math.max(1, threads);
+    }
+
+    public void read(File manifestFile, ProjectMappingSession session) throws IOException {
+        ScanResultManifest manifest = objectMapper.readValue(manifestFile, ScanResultManifest.class);
+        ProjectMapper.INSTANCE.map(manifest, session);
+
+        List<String> shards = manifest.getShards();
+        log.info("Reading " + shards.size() + " shards of " + manifestFile.getName() + " using " + threads + " threads");
+        File baseDirectory = manifestFile.getAbsoluteFile().getParentFile();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "typescript-shard-reader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            CompletionService<ScanResultCollection> completionService = new ExecutorCompletionService<>(executor);
+            int submitted = 0;
+            for(; submitted < Math.min(shards.size(), threads * 2); submitted++) {
+                submit(completionService, new File(baseDirectory, shards.get(submitted)));
+            }
+            for(int mapped = 0; mapped < shards.size(); mapped++) {
+                ScanResultCollection shard = take(completionService);
+                if(submitted < shards.size()) {
+                    submit(completionService, new File(baseDirectory, shards.get(submitted++)));
+                }
+                ProjectMapper.INSTANCE.map(shard, session);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void submit(CompletionService<ScanResultCollection> completionService, File shardFile) {
+        completionService.submit(() -> objectMapper.readValue(shardFile, ScanResultCollection.class));
+    }
+
+    private static ScanResultCollection take(CompletionService<ScanResultCollection> completionService) throws IOException {
+        try {
+            return completionService.take().get();
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while reading shards");
+        } catch(ExecutionException e) {
+            if(e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Could not read shard", e.getCause());
+        }
+    }
+
+}
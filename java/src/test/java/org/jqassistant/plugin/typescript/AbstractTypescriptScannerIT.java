@@ -0,0 +1,109 @@
+package org.jqassistant.plugin.typescript;
+
+import com.buschmais.jqassistant.core.shared.io.ClasspathResource;
+import com.buschmais.jqassistant.core.test.plugin.AbstractPluginIT;
+import org.jqassistant.plugin.typescript.api.TypescriptScope;
+import org.jqassistant.plugin.typescript.api.model.ProjectDescriptor;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Scans the sample project together with one of its scan results from `.reports/jqa`.
+ * <p>
+ * The scan results contain the placeholder `${projectRoot}`, which is replaced by the location of the sample project
+ * before they are scanned.
+ */
+public abstract class AbstractTypescriptScannerIT extends AbstractPluginIT {
+
+    private static final String PROJECT_ROOT_PLACEHOLDER = "${projectRoot}";
+
+    @TempDir
+    File reportDirectory;
+
+    protected File getSampleProject() {
+        return ClasspathResource.getFile(AbstractTypescriptScannerIT.class, "/sample-project");
+    }
+
+    /**
+     * scans the files of the sample project
+     */
+    protected void scanSampleProject(Map<String, Object> properties) {
+        File sampleProject = getSampleProject();
+        getScanner(properties).scan(sampleProject, sampleProject.getAbsolutePath(), null);
+    }
+
+    /**
+     * scans the given scan result of the sample project, whose files have to be scanned before
+     */
+    protected ProjectDescriptor scanReport(String reportName, Map<String, Object> properties) throws IOException {
+        File sampleProject = getSampleProject();
+        String report = Files.readString(new File(sampleProject, ".reports/jqa/" + reportName).toPath(), StandardCharsets.UTF_8)
+            .replace(PROJECT_ROOT_PLACEHOLDER, sampleProject.getAbsolutePath().replace("\\", "\\\\"));
+        File reportFile = new File(reportDirectory, reportName);
+        Files.writeString(reportFile.toPath(), report, StandardCharsets.UTF_8);
+        return getScanner(properties).scan(reportFile, reportFile.getAbsolutePath(), TypescriptScope.PROJECT);
+    }
+
+    /**
+     * Describes the graph of all TypeScript nodes and their relationships independently of node ids, see
+     * {@link #describeNodes()} and {@link #describeRelationships()}.
+     */
+    protected List<String> describeGraph() {
+        List<String> graph = new ArrayList<>(describeNodes());
+        graph.addAll(describeRelationships());
+        Collections.sort(graph);
+        return graph;
+    }
+
+    /**
+     * @return the sorted descriptions of all TypeScript nodes by their labels and properties
+     */
+    protected List<String> describeNodes() {
+        List<String> nodes = new ArrayList<>();
+        for(Map<String, Object> row : query("MATCH (n:TS) RETURN labels(n) AS labels, properties(n) AS properties").getRows()) {
+            nodes.add(describe(row.get("labels"), row.get("properties")));
+        }
+        Collections.sort(nodes);
+        return nodes;
+    }
+
+    /**
+     * Describes all relationships with a TypeScript node at one end by their type and properties and by the labels and
+     * properties of both nodes, so nodes that only differ in their relationships are not distinguished.
+     *
+     * @return the sorted descriptions
+     */
+    protected List<String> describeRelationships() {
+        List<String> relationships = new ArrayList<>();
+        for(Map<String, Object> row : query("MATCH (a)-[r]->(b) WHERE a:TS OR b:TS " +
+                "RETURN labels(a) AS aLabels, properties(a) AS aProperties, type(r) AS type, properties(r) AS properties, " +
+                "labels(b) AS bLabels, properties(b) AS bProperties").getRows()) {
+            relationships.add(describe(row.get("aLabels"), row.get("aProperties")) +
+                "-[:" + row.get("type") + " " + new TreeMap<>((Map<?, ?>) row.get("properties")) + "]->" +
+                describe(row.get("bLabels"), row.get("bProperties")));
+        }
+        Collections.sort(relationships);
+        return relationships;
+    }
+
+    /**
+     * @return the given relationship descriptions without those starting at a type, see {@link #describeRelationships()}
+     */
+    protected static List<String> withoutTypeSources(List<String> relationships) {
+        return relationships.stream()
+            .filter(relationship -> !Arrays.asList(relationship.substring(1, relationship.indexOf(' ')).split(":")).contains("Type"))
+            .collect(Collectors.toList());
+    }
+
+    private static String describe(Object labels, Object properties) {
+        return "(" + ((Collection<?>) labels).stream().map(Object::toString).sorted().collect(Collectors.joining(":")) +
+            " " + new TreeMap<>((Map<?, ?>) properties) + ")";
+    }
+
+}
@@ -0,0 +1,121 @@
+package org.jqassistant.plugin.typescript;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.jqassistant.plugin.typescript.impl.model.Dependency;
+import org.jqassistant.plugin.typescript.impl.model.ScanResultCollection;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies the `DEPENDS_ON` relationships lifted to the declaring concepts of their source and target.
+ */
+public class DependencyIT extends AbstractTypescriptScannerIT {
+
+    private static final String MAIN = "./src/main.ts";
+
+    private static final String MY_SERVICE = "./src/my-service.ts";
+
+    /**
+     * the queries that lifted and aggregated the dependencies before this was done while mapping
+     */
+    private static final String[] LIFTING_QUERIES = {
+        "MATCH (decl:TS)-[r:DEPENDS_ON]->(trgt:TS)<-[:DECLARES*]-(trgtParent:TS) " +
+            "WHERE NOT (trgtParent)-[:DECLARES*]->(decl) " +
+            "CREATE (decl)-[:DEPENDS_ON {cardinality: r.cardinality}]->(trgtParent)",
+        "MATCH (srcParent:TS)-[:DECLARES*]->(decl:TS)-[r:DEPENDS_ON]->(trgt:TS) " +
+            "WHERE NOT (srcParent)-[:DECLARES*]->(trgt) " +
+            "CREATE (srcParent)-[:DEPENDS_ON {cardinality: r.cardinality}]->(trgt)",
+        "MATCH (src:TS)-[r:DEPENDS_ON]->(trgt:TS) " +
+            "WITH src, trgt, collect(r) AS rels, sum(r.cardinality) AS new_cardinality " +
+            "WHERE size(rels) > 1 " +
+            "SET (rels[0]).cardinality = new_cardinality " +
+            "WITH src, trgt, rels, new_cardinality " +
+            "UNWIND range(1,size(rels)-1) AS idx " +
+            "DELETE rels[idx]"
+    };
+
+    @Test
+    public void testLiftedDependencies() throws Exception {
+        scanSampleProject(Map.of());
+        scanReport("ts-output.json", Map.of());
+        store.beginTransaction();
+        Map<String, Integer> dependencies = getDependencies();
+
+        String myService = "\"" + MY_SERVICE + "\".MyService";
+        String run = "\"" + MAIN + "\".run";
+        // declared by the scan result
+        assertThat(dependencies).containsEntry(run + " -> " + myService + ".getModel1", 1);
+        // lifted to the declaring concepts of the target
+        assertThat(dependencies).containsEntry(run + " -> " + myService, 3);
+        assertThat(dependencies).containsEntry(run + " -> " + MY_SERVICE, 3);
+        // lifted to the declaring concepts of the source
+        assertThat(dependencies).containsEntry(MAIN + " -> " + myService + ".getModel1", 1);
+        assertThat(dependencies).containsEntry(MAIN + " -> " + myService, 3);
+        // lifted and declared by the scan result
+        assertThat(dependencies).containsEntry(MAIN + " -> " + MY_SERVICE, 4);
+        // external modules and declarations
+        assertThat(dependencies).containsEntry("\"./src/component1/component1.model.ts\".MyReferenceTestClass.propTestNode -> path.parse", 1);
+        assertThat(dependencies).containsEntry("./src/component1/component1.model.ts -> path", 1);
+        // not lifted within the declaring module
+        assertThat(dependencies).doesNotContainKey("./src/simple.ts -> ./src/simple.ts");
+        store.commitTransaction();
+    }
+
+    @Test
+    public void testLiftedDependenciesMatchLiftingQueries() throws Exception {
+        scanSampleProject(Map.of());
+        scanReport("ts-output.json", Map.of());
+        store.beginTransaction();
+        Map<String, Integer> dependencies = getDependencies();
+        assertThat(query("MATCH (n:TS) WHERE n.fqn IS NOT NULL WITH n.fqn AS fqn, count(n) AS nodes WHERE nodes > 1 RETURN fqn").getRows())
+            .as("fqns identify the endpoints of dependencies").isEmpty();
+
+        // replace the dependencies by the ones of the scan result and lift them using the queries
+        query("MATCH (:TS)-[r:DEPENDS_ON]->(:TS) DELETE r");
+        List<Dependency> reportDependencies = readDependencies("ts-output.json");
+        assertThat(reportDependencies).extracting(Dependency::getSourceFQN).as("modules are named by their quoted fqn")
+            .contains("\"" + MAIN + "\"").doesNotContain(MAIN);
+        for(Dependency dependency : reportDependencies) {
+            query("MATCH (source:TS {fqn: $source}), (target:TS {fqn: $target}) " +
+                    "CREATE (source)-[:DEPENDS_ON {cardinality: $cardinality}]->(target)",
+                Map.of("source", unquoteModule(dependency.getSourceFQN()), "target", unquoteModule(dependency.getFqn()),
+                    "cardinality", dependency.getCardinality()));
+        }
+        for(String liftingQuery : LIFTING_QUERIES) {
+            query(liftingQuery);
+        }
+
+        assertThat(dependencies).isEqualTo(getDependencies());
+        store.commitTransaction();
+    }
+
+    /**
+     * @return the cardinalities of all dependencies by "<source fqn> -> <target fqn>"
+     */
+    private Map<String, Integer> getDependencies() {
+        Map<String, Integer> dependencies = new TreeMap<>();
+        for(Map<String, Object> row : query("MATCH (source:TS)-[r:DEPENDS_ON]->(target:TS) " +
+                "RETURN source.fqn AS source, target.fqn AS target, r.cardinality AS cardinality").getRows()) {
+            String key = row.get("source") + " -> " + row.get("target");
+            assertThat(dependencies).as("single relationship for " + key).doesNotContainKey(key);
+            dependencies.put(key, ((Number) row.get("cardinality")).intValue());
+        }
+        return dependencies;
+    }
+
+    private static String unquoteModule(String fqn) {
+        return fqn.matches("\"[^\"]*\"") ? fqn.substring(1, fqn.length() - 1) : fqn;
+    }
+
+    private List<Dependency> readDependencies(String reportName) throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        File report = new File(getSampleProject(), ".reports/jqa/" + reportName);
+        return objectMapper.readValue(report, ScanResultCollection.class).getDependencies();
+    }
+
+}
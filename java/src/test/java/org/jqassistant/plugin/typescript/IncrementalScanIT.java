@@ -0,0 +1,55 @@
+package org.jqassistant.plugin.typescript;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.jqassistant.plugin.typescript.impl.TypescriptProjectScannerPlugin.PROPERTY_INCREMENTAL;
+
+/**
+ * Verifies that updating a previously scanned project incrementally results in the same graph as scanning it from scratch.
+ * <p>
+ * Compared to `ts-output.json`, `ts-output-changed.json` contains a changed `my-service.ts`, while `edge.ts` has been
+ * removed together with the external module `util` and the external declaration `path.sep` only used by it.
+ */
+public class IncrementalScanIT extends AbstractTypescriptScannerIT {
+
+    private static final Map<String, Object> INCREMENTAL = Map.of(PROPERTY_INCREMENTAL, true);
+
+    @Test
+    public void testIncrementalScanEqualsFullScan() throws Exception {
+        scanSampleProject(INCREMENTAL);
+        scanReport("ts-output.json", INCREMENTAL);
+        scanReport("ts-output-changed.json", INCREMENTAL);
+        store.beginTransaction();
+        List<String> incrementalGraph = describeGraph();
+        assertThat(query("MATCH (m:TS:ExternalModule) RETURN m.fqn AS fqn").getColumn("fqn")).containsExactly("path");
+        assertThat(query("MATCH (d:TS:ExternalDeclaration) RETURN d.fqn AS fqn").getColumn("fqn")).containsExactly("path.parse");
+        assertThat(query("MATCH (m:TS:Module {fqn: './src/edge.ts'}) RETURN m").getRows()).isEmpty();
+        store.commitTransaction();
+
+        store.reset();
+        scanSampleProject(INCREMENTAL);
+        scanReport("ts-output-changed.json", INCREMENTAL);
+        store.beginTransaction();
+        assertThat(incrementalGraph).isEqualTo(describeGraph());
+        store.commitTransaction();
+    }
+
+    @Test
+    public void testUnchangedProjectIsRetained() throws Exception {
+        scanSampleProject(INCREMENTAL);
+        scanReport("ts-output.json", INCREMENTAL);
+        store.beginTransaction();
+        List<String> graph = describeGraph();
+        store.commitTransaction();
+
+        scanReport("ts-output.json", INCREMENTAL);
+        store.beginTransaction();
+        assertThat(describeGraph()).isEqualTo(graph);
+        store.commitTransaction();
+    }
+
+}
@@ -0,0 +1,82 @@
+package org.jqassistant.plugin.typescript;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.jqassistant.plugin.typescript.impl.TypescriptProjectScannerPlugin.PROPERTY_INTERN_COMPOSITE_TYPES;
+import static org.jqassistant.plugin.typescript.impl.TypescriptProjectScannerPlugin.PROPERTY_INTERN_PRIMITIVE_TYPES;
+
+/**
+ * Verifies that interned types are shared by all of their usages without changing the graph otherwise.
+ */
+public class TypeInterningIT extends AbstractTypescriptScannerIT {
+
+    @Test
+    public void testInternPrimitiveTypes() throws Exception {
+        Map<String, Object> properties = Map.of(PROPERTY_INTERN_PRIMITIVE_TYPES, true);
+        scanSampleProject(properties);
+        scanReport("ts-output.json", properties);
+        store.beginTransaction();
+        List<Map<String, Object>> primitives = query("MATCH (t:TS:Type:Primitive) " +
+            "RETURN t.name AS name, count(t) AS nodes, sum(size(()-->(t))) AS usages ORDER BY name").getRows();
+        assertThat(primitives).extracting(row -> row.get("name")).containsExactly("any", "number", "string", "symbol", "void");
+        assertThat(primitives).allSatisfy(row -> assertThat(((Number) row.get("nodes")).intValue()).isEqualTo(1));
+        assertThat(primitives).filteredOn(row -> "number".equals(row.get("name")))
+            .allSatisfy(row -> assertThat(((Number) row.get("usages")).intValue()).isGreaterThan(1));
+        List<String> relationships = describeRelationships();
+        store.commitTransaction();
+
+        store.reset();
+        scanSampleProject(Map.of());
+        scanReport("ts-output.json", Map.of());
+        store.beginTransaction();
+        assertThat(query("MATCH (t:TS:Type:Primitive {name: 'number'}) RETURN t").getRows()).hasSizeGreaterThan(1);
+        // every usage of a shared node is described like a usage of a separate node
+        assertThat(relationships).isEqualTo(describeRelationships());
+        store.commitTransaction();
+    }
+
+    @Test
+    public void testPrimitiveTypesNotInternedByDefault() throws Exception {
+        scanSampleProject(Map.of());
+        scanReport("ts-output.json", Map.of());
+        store.beginTransaction();
+        List<String> graph = describeGraph();
+        store.commitTransaction();
+
+        store.reset();
+        Map<String, Object> properties = Map.of(PROPERTY_INTERN_PRIMITIVE_TYPES, false);
+        scanSampleProject(properties);
+        scanReport("ts-output.json", properties);
+        store.beginTransaction();
+        assertThat(describeGraph()).isEqualTo(graph);
+        assertThat(query("MATCH (t:TS:Type:Primitive) WHERE size(()-->(t)) > 1 RETURN t").getRows()).isEmpty();
+        store.commitTransaction();
+    }
+
+    @Test
+    public void testInternCompositeTypes() throws Exception {
+        Map<String, Object> properties = Map.of(PROPERTY_INTERN_COMPOSITE_TYPES, true);
+        scanSampleProject(properties);
+        scanReport("ts-output.json", properties);
+        store.beginTransaction();
+        // the types of `destructA1` and `inspectPoint` are shared with the types of their initial values
+        assertThat(query("MATCH (t:TS:Type:Function) WHERE size(()-[:OF_TYPE]->(t)) > 1 RETURN t").getRows()).isNotEmpty();
+        List<String> relationships = describeRelationships();
+        store.commitTransaction();
+
+        store.reset();
+        scanSampleProject(Map.of());
+        scanReport("ts-output.json", Map.of());
+        store.beginTransaction();
+        assertThat(query("MATCH (t:TS:Type) WHERE size(()-->(t)) > 1 RETURN t").getRows()).isEmpty();
+        // the relationships within a shared subtree only exist once
+        assertThat(relationships).hasSameElementsAs(describeRelationships());
+        assertThat(withoutTypeSources(relationships)).isEqualTo(withoutTypeSources(describeRelationships()));
+        store.commitTransaction();
+    }
+
+}
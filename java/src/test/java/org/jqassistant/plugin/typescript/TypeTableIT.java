@@ -0,0 +1,79 @@
+package org.jqassistant.plugin.typescript;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.jqassistant.plugin.typescript.impl.TypescriptProjectScannerPlugin.PROPERTY_INCREMENTAL;
+import static org.jqassistant.plugin.typescript.impl.TypescriptProjectScannerPlugin.PROPERTY_STREAMING;
+
+/**
+ * Verifies that a scan result written with a type table (`jqa-ts-lce --type-table`) results in the same graph as the
+ * same scan result with inline types, apart from the type nodes shared by all usages of a table entry.
+ * <p>
+ * `ts-output-type-table.json` has been converted from `ts-output.json` by the `TypeTable` of the extractor.
+ */
+public class TypeTableIT extends AbstractTypescriptScannerIT {
+
+    @Test
+    public void testTypeTableEqualsInlineTypes() throws Exception {
+        scanSampleProject(Map.of());
+        scanReport("ts-output-type-table.json", Map.of());
+        store.beginTransaction();
+        assertThat(query("MATCH (t:TS:Type) WHERE size(()-->(t)) > 1 RETURN t").getRows()).isNotEmpty();
+        assertThat(query("MATCH (t:TS:Type:Declared) WHERE t.referencedFqn IS NULL RETURN t").getRows()).isEmpty();
+        List<String> nodes = describeNodes();
+        List<String> relationships = describeRelationships();
+        store.commitTransaction();
+
+        store.reset();
+        scanSampleProject(Map.of());
+        scanReport("ts-output.json", Map.of());
+        store.beginTransaction();
+        assertThat(nodes).hasSameElementsAs(describeNodes());
+        assertThat(nodes.size()).isLessThan(describeNodes().size());
+        // the relationships within a shared type only exist once
+        assertThat(relationships).hasSameElementsAs(describeRelationships());
+        assertThat(withoutTypeSources(relationships)).isEqualTo(withoutTypeSources(describeRelationships()));
+        store.commitTransaction();
+    }
+
+    @Test
+    public void testStreamedTypeTable() throws Exception {
+        scanSampleProject(Map.of());
+        scanReport("ts-output-type-table.json", Map.of());
+        store.beginTransaction();
+        List<String> graph = describeGraph();
+        store.commitTransaction();
+
+        store.reset();
+        Map<String, Object> properties = Map.of(PROPERTY_STREAMING, true);
+        scanSampleProject(properties);
+        scanReport("ts-output-type-table.json", properties);
+        store.beginTransaction();
+        assertThat(describeGraph()).isEqualTo(graph);
+        store.commitTransaction();
+    }
+
+    @Test
+    public void testIncrementalTypeTableEqualsInlineTypes() throws Exception {
+        Map<String, Object> properties = Map.of(PROPERTY_INCREMENTAL, true);
+        scanSampleProject(properties);
+        scanReport("ts-output-type-table.json", properties);
+        store.beginTransaction();
+        // incremental scans do not share type nodes, so the graph is the same as with inline types
+        assertThat(query("MATCH (t:TS:Type) WHERE size(()-->(t)) > 1 RETURN t").getRows()).isEmpty();
+        List<String> graph = describeGraph();
+        store.commitTransaction();
+
+        store.reset();
+        scanSampleProject(properties);
+        scanReport("ts-output.json", properties);
+        store.beginTransaction();
+        assertThat(graph).isEqualTo(describeGraph());
+        store.commitTransaction();
+    }
+
+}
@@ -0,0 +1,117 @@
+package org.jqassistant.plugin.typescript.impl.mapper;
+
+import org.jqassistant.plugin.typescript.api.model.TypeScriptDescriptor;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DependencyAggregatorTest {
+
+    private final DependencyAggregator aggregator = new DependencyAggregator();
+
+    @Test
+    void numbersDescriptorsDenselyById() {
+        assertThat(aggregator.indexOf(descriptor(42L))).isEqualTo(0);
+        assertThat(aggregator.indexOf(descriptor(7L))).isEqualTo(1);
+        assertThat(aggregator.indexOf(descriptor(42L))).isEqualTo(0);
+    }
+
+    @Test
+    void sumsCardinalitiesPerPair() {
+        TypeScriptDescriptor a = descriptor(1L);
+        TypeScriptDescriptor b = descriptor(2L);
+        int source = aggregator.indexOf(a);
+        int target = aggregator.indexOf(b);
+
+        aggregator.add(source, target, 2);
+        aggregator.add(target, source, 1);
+        aggregator.add(source, target, 3);
+        aggregator.add(source, source, 0);
+
+        assertThat(aggregator.size()).isEqualTo(3);
+        assertThat(cardinalities()).containsExactly(
+            Map.entry("1->2", 5),
+            Map.entry("2->1", 1),
+            Map.entry("1->1", 0));
+    }
+
+    @Test
+    void keepsCollidingPairsApart() {
+        int capacity = aggregator.capacity();
+        int mask = capacity - 1;
+        int source = aggregator.indexOf(descriptor(0L));
+        // pairs whose initial slot is the same, so that all but the first one are found by probing
+        int slot = DependencyAggregator.hash(pair(source, 1)) & mask;
+        Map<String, Integer> expected = new HashMap<>();
+        for(int target = 1; expected.size() < 3; target++) {
+            aggregator.indexOf(descriptor(target));
+            if((DependencyAggregator.hash(pair(source, target)) & mask) == slot) {
+                aggregator.add(source, target, target);
+                expected.put("0->" + target, target);
+            }
+        }
+        for(Map.Entry<String, Integer> entry : expected.entrySet()) {
+            aggregator.add(source, Integer.parseInt(entry.getKey().substring(3)), 1);
+            entry.setValue(entry.getValue() + 1);
+        }
+
+        assertThat(aggregator.capacity()).isEqualTo(capacity);
+        assertThat(cardinalities()).containsExactlyInAnyOrderEntriesOf(expected);
+    }
+
+    @Test
+    void resizesAtHalfLoad() {
+        int capacity = aggregator.capacity();
+        int source = aggregator.indexOf(descriptor(-1L));
+        for(int target = 0; target < capacity / 2; target++) {
+            aggregator.add(source, aggregator.indexOf(descriptor(target)), 1);
+        }
+        assertThat(aggregator.capacity()).isEqualTo(capacity);
+
+        aggregator.add(source, aggregator.indexOf(descriptor(capacity / 2)), 1);
+        assertThat(aggregator.capacity()).isEqualTo(capacity * 2);
+
+        // all pairs can still be found after rehashing
+        for(int target = 0; target <= capacity / 2; target++) {
+            aggregator.add(source, aggregator.indexOf(descriptor(target)), target);
+        }
+        assertThat(aggregator.size()).isEqualTo(capacity / 2 + 1);
+        for(int position = 0; position < aggregator.size(); position++) {
+            long target = (Long) aggregator.getTarget(position).getId();
+            assertThat((Object) aggregator.getSource(position).getId()).isEqualTo(-1L);
+            assertThat(aggregator.getCardinality(position)).isEqualTo(target + 1);
+        }
+    }
+
+    /**
+     * @return the cardinalities by "<source id>-><target id>" in the order of the pairs
+     */
+    private Map<String, Integer> cardinalities() {
+        Map<String, Integer> cardinalities = new LinkedHashMap<>();
+        for(int position = 0; position < aggregator.size(); position++) {
+            cardinalities.put(aggregator.getSource(position).getId() + "->" + aggregator.getTarget(position).getId(),
+                aggregator.getCardinality(position));
+        }
+        return cardinalities;
+    }
+
+    private static long pair(int source, int target) {
+        return ((long) source << 32) | (target & 0xFFFFFFFFL);
+    }
+
+    private static TypeScriptDescriptor descriptor(long id) {
+        return (TypeScriptDescriptor) Proxy.newProxyInstance(DependencyAggregatorTest.class.getClassLoader(), new Class<?>[]{TypeScriptDescriptor.class},
+            (proxy, method, args) -> {
+                if(method.getName().equals("getId")) {
+                    return id;
+                }
+                throw new UnsupportedOperationException(method.getName());
+            });
+    }
+
+}
@@ -0,0 +1,123 @@
+package org.jqassistant.plugin.typescript.impl.mapper;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FqnIndexTest {
+
+    private final FqnIndex<String> index = new FqnIndex<>();
+
+    @Test
+    void storesSharedPrefixesOnce() {
+        assertThat(index.put("\"./src/app.ts\".MyClass", "class")).isTrue();
+        assertThat(index.put("\"./src/app.ts\".MyClass.method", "method")).isTrue();
+        assertThat(index.put("\"./src/app.ts\".other", "other")).isTrue();
+        assertThat(index.put("\"./src/app.ts\"", "module")).isTrue();
+
+        // "./src/app.ts", .MyClass, .method and .other
+        assertThat(index.nodeCount()).isEqualTo(4);
+        assertThat(index.size()).isEqualTo(4);
+        assertThat(index.get("\"./src/app.ts\".MyClass")).isEqualTo("class");
+        assertThat(index.get("\"./src/app.ts\".MyClass.method")).isEqualTo("method");
+        assertThat(index.get("\"./src/app.ts\".other")).isEqualTo("other");
+        assertThat(index.get("\"./src/app.ts\"")).isEqualTo("module");
+    }
+
+    @Test
+    void splitsOnlyOutsideOfQuotes() {
+        index.put("\"./src/x.y.ts\".A", "a");
+        index.put("\"./src/x.ts\".y.A", "other");
+
+        assertThat(index.nodeCount()).isEqualTo(5);
+        assertThat(index.get("\"./src/x.y.ts\".A")).isEqualTo("a");
+        assertThat(index.get("\"./src/x.ts\".y.A")).isEqualTo("other");
+        assertThat(index.get("\"./src/x.ts\".y")).isNull();
+    }
+
+    @Test
+    void keepsTheFirstValue() {
+        assertThat(index.put("a.b", "first")).isTrue();
+        assertThat(index.put("a.b", "second")).isFalse();
+
+        assertThat(index.get("a.b")).isEqualTo("first");
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void returnsNullForMissingNames() {
+        index.put("\"./src/app.ts\".MyClass.method", "method");
+        int nodeCount = index.nodeCount();
+
+        assertThat(index.get((String) null)).isNull();
+        assertThat(index.get(FqnIndex.NONE)).isNull();
+        assertThat(index.get("\"./src/app.ts\".MyClass")).as("prefix without value").isNull();
+        assertThat(index.get("\"./src/app.ts\".MyClass.method.x")).isNull();
+        assertThat(index.get("\"./src/app.ts\".MyClass.metho")).isNull();
+        assertThat(index.get("\"./src/app.ts\".MyClass.methods")).isNull();
+        assertThat(index.get("\"./src/other.ts\".MyClass.method")).isNull();
+        assertThat(index.get("")).isNull();
+        assertThat(index.containsKey("\"./src/app.ts\".MyClass")).isFalse();
+        assertThat(index.containsKey("\"./src/app.ts\".MyClass.method")).isTrue();
+        assertThat(index.nodeCount()).as("lookups do not create nodes").isEqualTo(nodeCount);
+    }
+
+    @Test
+    void storesMultiByteSegments() {
+        List<String> fqns = List.of(
+            "\"./src/ü.ts\".Größe",
+            "\"./src/ü.ts\".Grösse",
+            "\"./src/名前.ts\".クラス.メソッド",
+            "\"./src/emoji.ts\".😀",
+            "\"./src/emoji.ts\".😁",
+            "\"./src/emoji.ts\".a\uD800",
+            "\"./src/emoji.ts\".a\uDC00b",
+            "\"./src/é.ts\".é");
+        for(String fqn : fqns) {
+            assertThat(index.put(fqn, fqn)).as(fqn).isTrue();
+        }
+
+        for(String fqn : fqns) {
+            assertThat(index.get(fqn)).isEqualTo(fqn);
+        }
+        assertThat(index.get("\"./src/u.ts\".Größe")).isNull();
+        assertThat(index.get("\"./src/ü.ts\".Gröss")).isNull();
+        assertThat(index.get("\"./src/ü.ts\".Größ")).isNull();
+        assertThat(index.get("\"./src/emoji.ts\".\uD83D")).isNull();
+        assertThat(index.get("\"./src/emoji.ts\".a")).isNull();
+        assertThat(index.get("\"./src/é.ts\".é")).isNull();
+
+        Map<String, String> decoded = new HashMap<>();
+        index.forEach(decoded::put);
+        assertThat(decoded).containsOnlyKeys(fqns);
+        decoded.forEach((fqn, value) -> assertThat(fqn).isEqualTo(value));
+    }
+
+    @Test
+    void growsPastItsInitialCapacity() {
+        int earlyNode = index.nodeOf("\"./src/late.ts\".Late");
+        int count = 20_000;
+        for(int i = 0; i < count; i++) {
+            index.put("\"./src/module" + (i % 100) + ".ts\".Declaration" + i + ".member_with_a_rather_long_name", "value" + i);
+        }
+
+        assertThat(index.size()).isEqualTo(count);
+        for(int i = 0; i < count; i++) {
+            assertThat(index.get("\"./src/module" + (i % 100) + ".ts\".Declaration" + i + ".member_with_a_rather_long_name")).isEqualTo("value" + i);
+        }
+        // nodes keep their offset while the index grows
+        assertThat(index.get(earlyNode)).isNull();
+        index.put("\"./src/late.ts\".Late", "late");
+        assertThat(index.get(earlyNode)).isEqualTo("late");
+        assertThat(index.nodeOf("\"./src/late.ts\".Late")).isEqualTo(earlyNode);
+
+        int[] visited = {0};
+        index.forEach((fqn, value) -> visited[0]++);
+        assertThat(visited[0]).isEqualTo(count + 1);
+    }
+
+}
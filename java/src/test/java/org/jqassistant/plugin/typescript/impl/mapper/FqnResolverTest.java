@@ -0,0 +1,117 @@
+package org.jqassistant.plugin.typescript.impl.mapper;
+
+import org.jqassistant.plugin.typescript.api.model.ClassDeclarationDescriptor;
+import org.jqassistant.plugin.typescript.api.model.TypeDeclaredDescriptor;
+import org.jqassistant.plugin.typescript.api.model.ValueDeclaredDescriptor;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FqnResolverTest {
+
+    private final FqnResolver resolver = new FqnResolver();
+
+    @Test
+    void resolvesReferencesRegisteredBeforeTheirTarget() {
+        Map<String, Object> type = new HashMap<>(Map.of("getReferencedFqn", "\"./src/a.ts\".A"));
+        Map<String, Object> value = new HashMap<>(Map.of("getReferencedFqn", "\"./src/a.ts\".A"));
+        resolver.registerRef(descriptor(TypeDeclaredDescriptor.class, type));
+        resolver.registerRef(descriptor(ValueDeclaredDescriptor.class, value));
+        ClassDeclarationDescriptor a = namedConcept(1L, "\"./src/a.ts\".A");
+        resolver.registerFqn(a);
+
+        resolver.resolveAll();
+
+        assertThat(type.get("setReference")).isSameAs(a);
+        assertThat(value.get("setReference")).isSameAs(a);
+        assertThat(resolver.getByFqn("\"./src/a.ts\".A")).isSameAs(a);
+    }
+
+    @Test
+    void leavesUnresolvedReferencesEmpty() {
+        resolver.registerFqn(namedConcept(1L, "\"./src/a.ts\".A"));
+        Map<String, Object> missing = new HashMap<>(Map.of("getReferencedFqn", "\"./src/a.ts\".B"));
+        Map<String, Object> prefix = new HashMap<>(Map.of("getReferencedFqn", "\"./src/a.ts\""));
+        Map<String, Object> external = new HashMap<>(Map.of("getReferencedFqn", "lodash.map"));
+        Map<String, Object> withoutFqn = new HashMap<>();
+        withoutFqn.put("getReferencedFqn", null);
+        for(Map<String, Object> ref : List.of(missing, prefix, external, withoutFqn)) {
+            resolver.registerRef(descriptor(TypeDeclaredDescriptor.class, ref));
+        }
+
+        resolver.resolveAll();
+
+        assertThat(missing).containsEntry("setReference", null);
+        assertThat(prefix).containsEntry("setReference", null);
+        assertThat(external).containsEntry("setReference", null);
+        assertThat(withoutFqn).containsEntry("setReference", null);
+        assertThat(resolver.getByFqn("\"./src/a.ts\".B")).isNull();
+        assertThat(resolver.getByFqn("lodash.map")).isNull();
+    }
+
+    @Test
+    void resolvesEachReferenceOnce() {
+        Map<String, Object> first = new HashMap<>(Map.of("getReferencedFqn", "a.A"));
+        resolver.registerRef(descriptor(TypeDeclaredDescriptor.class, first));
+        resolver.resolveAll();
+        first.remove("setReference");
+
+        resolver.registerFqn(namedConcept(1L, "a.A"));
+        resolver.resolveAll();
+
+        assertThat(first).doesNotContainKey("setReference");
+    }
+
+    @Test
+    void keepsTheFirstConceptOfAName() {
+        ClassDeclarationDescriptor first = namedConcept(1L, "a.A");
+        resolver.registerFqn(first);
+        resolver.registerFqn(namedConcept(2L, "a.A"));
+        resolver.registerFqn(namedConcept(3L, null));
+
+        assertThat(resolver.getByFqn("a.A")).isSameAs(first);
+    }
+
+    @Test
+    void tracksRetainedConcepts() {
+        ClassDeclarationDescriptor retained = namedConcept(1L, "a.A");
+        ClassDeclarationDescriptor mapped = namedConcept(2L, "a.B");
+        resolver.registerRetainedFqn(retained);
+        resolver.registerFqn(mapped);
+
+        assertThat(resolver.isRetained(retained)).isTrue();
+        assertThat(resolver.isRetained(mapped)).isFalse();
+        assertThat(resolver.getByFqn("a.A")).isSameAs(retained);
+    }
+
+    private static ClassDeclarationDescriptor namedConcept(long id, String fqn) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("getId", id);
+        properties.put("getFqn", fqn);
+        return descriptor(ClassDeclarationDescriptor.class, properties);
+    }
+
+    /**
+     * @param properties results of the getters by method name, the argument of a setter is recorded by its name
+     */
+    private static <D> D descriptor(Class<D> type, Map<String, Object> properties) {
+        return type.cast(Proxy.newProxyInstance(FqnResolverTest.class.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            String name = method.getName();
+            if(name.startsWith("set") && args != null && args.length == 1) {
+                properties.put(name, args[0]);
+                return null;
+            } else if(properties.containsKey(name)) {
+                return properties.get(name);
+            } else if(name.equals("toString")) {
+                return type.getSimpleName() + properties;
+            }
+            throw new UnsupportedOperationException(name);
+        }));
+    }
+
+}
@@ -0,0 +1,171 @@
+package org.jqassistant.plugin.typescript.impl.mapper;
+
+import com.buschmais.jqassistant.core.store.api.Store;
+import com.buschmais.jqassistant.core.store.api.model.Descriptor;
+import com.buschmais.xo.api.Query;
+import org.jqassistant.plugin.typescript.api.model.DependsOnDescriptor;
+import org.jqassistant.plugin.typescript.api.model.ModuleExportsDescriptor;
+import org.jqassistant.plugin.typescript.api.model.TypeScriptDescriptor;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GraphWriteBufferTest {
+
+    private final List<String> calls = new ArrayList<>();
+
+    private final List<Map<String, Object>> queryParameters = new ArrayList<>();
+
+    private final Map<String, Object> createdRelation = new HashMap<>();
+
+    private final Store store = proxy(Store.class, (proxy, method, args) -> {
+        switch(method.getName()) {
+            case "flush":
+                calls.add("flush");
+                return null;
+            case "executeQuery":
+                calls.add((String) args[0]);
+                queryParameters.add(copyRows(args[1]));
+                return proxy(Query.Result.class, (result, resultMethod, resultArgs) -> null);
+            case "create":
+                calls.add("create " + ((Class<?>) args[1]).getSimpleName() + " " + ((Descriptor) args[0]).getId() + "->" + ((Descriptor) args[2]).getId());
+                return proxy((Class<?>) args[1], (relation, relationMethod, relationArgs) -> {
+                    createdRelation.put(relationMethod.getName(), relationArgs[0]);
+                    return null;
+                });
+            default:
+                throw new UnsupportedOperationException(method.getName());
+        }
+    });
+
+    private final TypeScriptDescriptor a = node(1L);
+
+    private final TypeScriptDescriptor b = node(2L);
+
+    private final TypeScriptDescriptor c = node(3L);
+
+    @Test
+    void stagesRelationshipsUntilFlushed() {
+        GraphWriteBuffer buffer = new GraphWriteBuffer(store, 10);
+
+        buffer.create(a, DependsOnDescriptor.class, b, r -> r.setCardinality(2));
+        buffer.create(a, DependsOnDescriptor.class, c, r -> r.setCardinality(1));
+        buffer.create(b, ModuleExportsDescriptor.class, c, r -> r.setExportedName("c"));
+        assertThat(calls).isEmpty();
+
+        buffer.flush();
+
+        assertThat(calls).hasSize(4);
+        assertThat(calls.get(0)).isEqualTo("flush");
+        assertThat(calls.get(1)).contains("CREATE (source)-[r:DEPENDS_ON]->(target)");
+        assertThat(calls.get(2)).isEqualTo("flush");
+        assertThat(calls.get(3)).contains("CREATE (source)-[r:EXPORTS]->(target)");
+        assertThat(queryParameters.get(0).get("rows")).isEqualTo(List.of(
+            row(1L, 2L, Map.of("cardinality", 2)),
+            row(1L, 3L, Map.of("cardinality", 1))));
+        assertThat(queryParameters.get(1).get("rows")).isEqualTo(List.of(
+            row(2L, 3L, Map.of("exportedName", "c"))));
+
+        calls.clear();
+        buffer.flush();
+        assertThat(calls).as("nothing left to write").isEmpty();
+    }
+
+    @Test
+    void writesFullBatches() {
+        GraphWriteBuffer buffer = new GraphWriteBuffer(store, 2);
+
+        buffer.create(a, DependsOnDescriptor.class, b, null);
+        assertThat(calls).isEmpty();
+        buffer.create(a, DependsOnDescriptor.class, c, null);
+        assertThat(calls).hasSize(2);
+        buffer.create(b, DependsOnDescriptor.class, c, null);
+        assertThat(calls).hasSize(2);
+        buffer.flush();
+
+        assertThat(calls).hasSize(4);
+        assertThat(queryParameters.get(0).get("rows")).isEqualTo(List.of(row(1L, 2L, Map.of()), row(1L, 3L, Map.of())));
+        assertThat(queryParameters.get(1).get("rows")).isEqualTo(List.of(row(2L, 3L, Map.of())));
+    }
+
+    @Test
+    void createsRelationshipsImmediatelyWithoutBatchSize() {
+        GraphWriteBuffer buffer = new GraphWriteBuffer(store, 0);
+
+        buffer.create(a, DependsOnDescriptor.class, b, r -> r.setCardinality(3));
+
+        assertThat(calls).containsExactly("create DependsOnDescriptor 1->2");
+        assertThat(createdRelation).containsExactly(Map.entry("setCardinality", 3));
+        buffer.flush();
+        assertThat(calls).hasSize(1);
+    }
+
+    @Test
+    void skipsRelationshipsWithoutSourceOrTarget() {
+        GraphWriteBuffer buffer = new GraphWriteBuffer(store, 1);
+
+        buffer.create(null, DependsOnDescriptor.class, b, r -> r.setCardinality(1));
+        buffer.create(a, DependsOnDescriptor.class, null, r -> r.setCardinality(1));
+        buffer.flush();
+
+        assertThat(calls).isEmpty();
+    }
+
+    @Test
+    void rejectsAnythingButSettersOnStagedRelationships() {
+        GraphWriteBuffer buffer = new GraphWriteBuffer(store, 10);
+
+        assertThatThrownBy(() -> buffer.create(a, DependsOnDescriptor.class, b, r -> r.getCardinality()))
+            .isInstanceOf(UnsupportedOperationException.class)
+            .hasMessageContaining("getCardinality");
+        assertThatThrownBy(() -> buffer.create(a, DependsOnDescriptor.class, b, DependsOnDescriptor::getDependency))
+            .isInstanceOf(UnsupportedOperationException.class);
+
+        List<DependsOnDescriptor> escaped = new ArrayList<>();
+        buffer.create(a, DependsOnDescriptor.class, b, escaped::add);
+        assertThatThrownBy(() -> escaped.get(0).setCardinality(1))
+            .as("setters outside of the initializer")
+            .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void rejectsUnnamedRelationTypes() {
+        GraphWriteBuffer buffer = new GraphWriteBuffer(store, 10);
+
+        assertThatThrownBy(() -> buffer.create(a, TypeScriptDescriptor.class, b, null))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static Map<String, Object> row(long source, long target, Map<String, Object> properties) {
+        return Map.of("source", source, "target", target, "properties", properties);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> copyRows(Object parameters) {
+        Map<String, Object> copy = new HashMap<>((Map<String, Object>) parameters);
+        copy.put("rows", new ArrayList<>((List<?>) copy.get("rows")));
+        return copy;
+    }
+
+    private static TypeScriptDescriptor node(long id) {
+        return proxy(TypeScriptDescriptor.class, (proxy, method, args) -> {
+            if(method.getName().equals("getId")) {
+                return id;
+            }
+            throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(GraphWriteBufferTest.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+}
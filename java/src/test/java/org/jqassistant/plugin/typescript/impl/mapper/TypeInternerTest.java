@@ -0,0 +1,232 @@
+package org.jqassistant.plugin.typescript.impl.mapper;
+
+import org.jqassistant.plugin.typescript.api.model.TypeDescriptor;
+import org.jqassistant.plugin.typescript.api.model.TypePrimitiveDescriptor;
+import org.jqassistant.plugin.typescript.impl.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TypeInternerTest {
+
+    private final TypeTable typeTable = new TypeTable(true);
+
+    private final TypeInterner interner = new TypeInterner(true, true, typeTable);
+
+    private final List<TypeDescriptor> created = new ArrayList<>();
+
+    @Test
+    void sharesStructurallyIdenticalComposites() {
+        TypeDescriptor first = intern(union(primitive("string"), primitive("number")));
+        TypeDescriptor second = intern(union(primitive("string"), primitive("number")));
+
+        assertThat(second).isSameAs(first);
+        assertThat(created).hasSize(1);
+    }
+
+    @Test
+    void sharesNestedComposites() {
+        TypeDescriptor first = intern(object(member("point", tuple(primitive("number"), primitive("number")), false)));
+        TypeDescriptor second = intern(object(member("point", tuple(primitive("number"), primitive("number")), false)));
+        TypeDescriptor function = intern(function(List.of(), parameter(0, "point", tuple(primitive("number"), primitive("number")))));
+
+        assertThat(second).isSameAs(first);
+        assertThat(function).isNotSameAs(first);
+    }
+
+    @Test
+    void separatesStructurallyDifferentComposites() {
+        TypeDescriptor union = intern(union(primitive("string"), primitive("number")));
+        TypeDescriptor reordered = intern(union(primitive("number"), primitive("string")));
+        TypeDescriptor intersection = intern(intersection(primitive("string"), primitive("number")));
+        TypeDescriptor object = intern(object(member("id", primitive("string"), false)));
+        TypeDescriptor optional = intern(object(member("id", primitive("string"), true)));
+        TypeDescriptor literals = intern(union(literal(1), literal("1")));
+        TypeDescriptor otherLiterals = intern(union(literal("1"), literal(1)));
+
+        assertThat(List.of(union, reordered, intersection, object, optional, literals, otherLiterals)).doesNotHaveDuplicates();
+        assertThat(created).hasSize(7);
+    }
+
+    @Test
+    void separatesNamesContainingDelimiters() {
+        TypeDescriptor first = intern(object(member("a", primitive("b"), false), member("c", primitive("d"), false)));
+        TypeDescriptor second = intern(object(member("a", primitive("b,1:cfalsefalseP1:d"), false)));
+
+        assertThat(second).isNotSameAs(first);
+    }
+
+    @Test
+    void separatesCompositesReferencingTypeParameters() {
+        TypeDescriptor first = intern(union(typeParameter("T"), primitive("string")));
+        TypeDescriptor second = intern(union(typeParameter("T"), primitive("string")));
+        TypeDescriptor nestedFirst = intern(object(member("value", union(typeParameter("T"), primitive("null")), false)));
+        TypeDescriptor nestedSecond = intern(object(member("value", union(typeParameter("T"), primitive("null")), false)));
+
+        assertThat(List.of(first, second, nestedFirst, nestedSecond)).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void separatesGenericFunctionTypes() {
+        TypeDescriptor first = intern(function(List.of(typeParameterDeclaration("T")), parameter(0, "value", primitive("string"))));
+        TypeDescriptor second = intern(function(List.of(typeParameterDeclaration("T")), parameter(0, "value", primitive("string"))));
+        TypeDescriptor unionFirst = intern(union(primitive("null"), function(List.of(typeParameterDeclaration("T")))));
+        TypeDescriptor unionSecond = intern(union(primitive("null"), function(List.of(typeParameterDeclaration("T")))));
+
+        assertThat(List.of(first, second, unionFirst, unionSecond)).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void sharesNonGenericFunctionTypes() {
+        TypeDescriptor first = intern(function(List.of(), parameter(0, "value", primitive("string"))));
+        TypeDescriptor second = intern(function(List.of(), parameter(0, "value", primitive("string"))));
+        TypeDescriptor renamed = intern(function(List.of(), parameter(0, "other", primitive("string"))));
+
+        assertThat(second).isSameAs(first);
+        assertThat(renamed).isNotSameAs(first);
+    }
+
+    @Test
+    void keysTableReferencesByTheirEntry() {
+        typeTable.add(union(primitive("string"), primitive("number")));
+
+        TypeDescriptor referencing = intern(tuple(reference(0)));
+        TypeDescriptor inline = intern(tuple(union(primitive("string"), primitive("number"))));
+
+        assertThat(inline).isSameAs(referencing);
+    }
+
+    @Test
+    void separatesCompositesIfDisabled() {
+        TypeInterner disabled = new TypeInterner(true, false, typeTable);
+
+        TypeDescriptor first = disabled.composite(union(primitive("string"), primitive("number")), this::create);
+        TypeDescriptor second = disabled.composite(union(primitive("string"), primitive("number")), this::create);
+
+        assertThat(second).isNotSameAs(first);
+    }
+
+    @Test
+    void sharesPrimitivesByName() {
+        Supplier<TypePrimitiveDescriptor> factory = () -> proxy(TypePrimitiveDescriptor.class);
+
+        assertThat(interner.primitive("string", factory)).isSameAs(interner.primitive("string", factory));
+        assertThat(interner.primitive("string", factory)).isNotSameAs(interner.primitive("number", factory));
+        assertThat(new TypeInterner(false, true, typeTable).primitive("string", factory))
+            .isNotSameAs(interner.primitive("string", factory));
+    }
+
+    private TypeDescriptor intern(Type type) {
+        return interner.composite(type, this::create);
+    }
+
+    private TypeDescriptor create() {
+        TypeDescriptor descriptor = proxy(TypeDescriptor.class);
+        created.add(descriptor);
+        return descriptor;
+    }
+
+    /**
+     * @return a descriptor that only supports identity comparison
+     */
+    private static <D> D proxy(Class<D> type) {
+        return type.cast(Proxy.newProxyInstance(TypeInternerTest.class.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if(method.getName().equals("equals")) {
+                return proxy == args[0];
+            } else if(method.getName().equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            } else if(method.getName().equals("toString")) {
+                return type.getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(proxy));
+            }
+            throw new UnsupportedOperationException(method.getName());
+        }));
+    }
+
+    private static TypePrimitive primitive(String name) {
+        TypePrimitive type = new TypePrimitive();
+        type.setName(name);
+        return type;
+    }
+
+    private static TypeLiteral literal(Object value) {
+        TypeLiteral type = new TypeLiteral();
+        type.setValue(value);
+        return type;
+    }
+
+    private static TypeParameterReference typeParameter(String name) {
+        TypeParameterReference type = new TypeParameterReference();
+        type.setName(name);
+        return type;
+    }
+
+    private static TypeTableReference reference(int id) {
+        TypeTableReference type = new TypeTableReference();
+        type.setId(id);
+        return type;
+    }
+
+    private static TypeUnion union(Type... types) {
+        TypeUnion type = new TypeUnion();
+        type.setTypes(List.of(types));
+        return type;
+    }
+
+    private static TypeIntersection intersection(Type... types) {
+        TypeIntersection type = new TypeIntersection();
+        type.setTypes(List.of(types));
+        return type;
+    }
+
+    private static TypeTuple tuple(Type... types) {
+        TypeTuple type = new TypeTuple();
+        type.setTypes(List.of(types));
+        return type;
+    }
+
+    private static TypeObject object(TypeObjectMember... members) {
+        TypeObject type = new TypeObject();
+        type.setMembers(List.of(members));
+        return type;
+    }
+
+    private static TypeObjectMember member(String name, Type memberType, boolean optional) {
+        TypeObjectMember member = new TypeObjectMember();
+        member.setName(name);
+        member.setType(memberType);
+        member.setOptional(optional);
+        member.setReadonly(false);
+        return member;
+    }
+
+    private static TypeFunction function(List<TypeParameterDeclaration> typeParameters, TypeFunctionParameter... parameters) {
+        TypeFunction type = new TypeFunction();
+        type.setTypeParameters(typeParameters);
+        type.setParameters(List.of(parameters));
+        type.setReturnType(primitive("void"));
+        type.setAsync(false);
+        return type;
+    }
+
+    private static TypeFunctionParameter parameter(int index, String name, Type parameterType) {
+        TypeFunctionParameter parameter = new TypeFunctionParameter();
+        parameter.setIndex(index);
+        parameter.setName(name);
+        parameter.setOptional(false);
+        parameter.setType(parameterType);
+        return parameter;
+    }
+
+    private static TypeParameterDeclaration typeParameterDeclaration(String name) {
+        TypeParameterDeclaration declaration = new TypeParameterDeclaration();
+        declaration.setName(name);
+        declaration.setIndex(0);
+        return declaration;
+    }
+
+}
@@ -0,0 +1,108 @@
+package org.jqassistant.plugin.typescript.impl.reader;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReadAheadPipelineTest {
+
+    @Test
+    void mapsAllConceptsInOrder() throws IOException {
+        List<Integer> mapped = new ArrayList<>();
+
+        new ReadAheadPipeline(512).run(sink -> {
+            for(int i = 0; i < 1000; i++) {
+                int concept = i;
+                sink.add(session -> mapped.add(concept));
+            }
+        }, null);
+
+        assertThat(mapped).hasSize(1000).isSorted();
+    }
+
+    @Test
+    void mapsInlineWithoutCapacity() throws IOException {
+        Thread caller = Thread.currentThread();
+        List<Thread> readers = new ArrayList<>();
+        List<Thread> mappers = new ArrayList<>();
+
+        new ReadAheadPipeline(0).run(sink -> {
+            readers.add(Thread.currentThread());
+            sink.add(session -> mappers.add(Thread.currentThread()));
+        }, null);
+
+        assertThat(readers).containsExactly(caller);
+        assertThat(mappers).containsExactly(caller);
+    }
+
+    @Test
+    void rethrowsReaderFailureAfterQueuedConceptsHaveBeenMapped() {
+        AtomicInteger mapped = new AtomicInteger();
+        IOException failure = new IOException("broken report");
+
+        // two full batches are queued before the reader fails
+        assertThatThrownBy(() -> new ReadAheadPipeline(1024).run(sink -> {
+            for(int i = 0; i < 600; i++) {
+                sink.add(session -> mapped.incrementAndGet());
+            }
+            throw failure;
+        }, null)).isSameAs(failure);
+        assertThat(mapped.get()).isEqualTo(512);
+
+        mapped.set(0);
+        IllegalStateException unchecked = new IllegalStateException("broken reader");
+        assertThatThrownBy(() -> new ReadAheadPipeline(1024).run(sink -> {
+            for(int i = 0; i < 256; i++) {
+                sink.add(session -> mapped.incrementAndGet());
+            }
+            throw unchecked;
+        }, null)).isInstanceOf(IOException.class).hasCause(unchecked);
+        assertThat(mapped.get()).isEqualTo(256);
+    }
+
+    @Test
+    void interruptsBlockedReaderWhenMappingFails() throws InterruptedException {
+        AtomicReference<Thread> reader = new AtomicReference<>();
+        AtomicReference<IOException> readerFailure = new AtomicReference<>();
+        IllegalStateException mapperFailure = new IllegalStateException("broken mapping");
+
+        // a queue of a single batch, which the reader fills up while the first mapping waits for it
+        assertThatThrownBy(() -> new ReadAheadPipeline(256).run(sink -> {
+            reader.set(Thread.currentThread());
+            try {
+                while(true) {
+                    sink.add(session -> {
+                        awaitWaiting(reader.get());
+                        throw mapperFailure;
+                    });
+                }
+            } catch(IOException e) {
+                readerFailure.set(e);
+                throw e;
+            }
+        }, null)).isSameAs(mapperFailure);
+
+        reader.get().join(10_000);
+        assertThat(reader.get().isAlive()).isFalse();
+        assertThat(readerFailure.get()).isInstanceOf(InterruptedIOException.class);
+    }
+
+    private static void awaitWaiting(Thread thread) {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while(thread.getState() != Thread.State.WAITING) {
+            if(System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Reader is not blocked: " + thread.getState());
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+}
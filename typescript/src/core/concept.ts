@@ -30,53 +30,90 @@ export function isNamedConcept(concept: LCEConcept): concept is LCENamedConcept
 export type ConceptMap = Map<string, Map<string, LCEConcept[]>>;
 
 /**
- * Merges the given ConceptMaps. Array values of the same keys are concatenated.
+ * Concept arrays created by a `ConceptAccumulator`, which it may extend in place.
+ * Arrays handed out to processors (see `releaseConcepts`) are removed, as they may be referenced by concepts.
+ * Concept arrays (or the maps holding them) must therefore only be read from a ConceptMap through `getAndCastConcepts` or
+ * `getChildConcepts`/`getAndDeleteChildConcepts`, an array read directly may still grow with later merges.
  */
-export function mergeConceptMaps(...maps: ConceptMap[]): ConceptMap {
-    const result: ConceptMap = new Map();
-    for (const map of maps) {
-        for (const [kO, vMap] of map.entries()) {
-            const outerRes = result.get(kO);
-            if (!outerRes) {
-                result.set(kO, vMap);
+const ownedConceptArrays = new WeakSet<LCEConcept[]>();
+
+/**
+ * Collects concepts with the semantics of `mergeConceptMaps` and `unifyConceptMap`, but without copying.
+ *
+ * Concept arrays are extended in place instead of being concatenated for every merge, so that collecting the concepts of an
+ * AST is linear in its size. Added ConceptMaps are consumed: their inner maps and arrays may be taken over and must not be used
+ * afterward. Arrays that have not been created by an accumulator are copied once before being extended.
+ */
+export class ConceptAccumulator {
+    private readonly concepts: ConceptMap = new Map();
+
+    /**
+     * Adds all concepts of the given map.
+     * @param parentPropName if given, all concepts are added under this parent property name instead of their own (see `unifyConceptMap`)
+     */
+    public add(conceptMap: ConceptMap, parentPropName?: string): this {
+        for (const [propName, conceptsById] of conceptMap.entries()) {
+            const key = parentPropName ?? propName;
+            const target = this.concepts.get(key);
+            if (!target) {
+                this.concepts.set(key, conceptsById);
                 continue;
             }
-            for (const [kI, vArr] of vMap.entries()) {
-                const innerRes = outerRes.get(kI);
-                if (innerRes) {
-                    outerRes.set(kI, innerRes.concat(vArr));
+            for (const [conceptId, concepts] of conceptsById.entries()) {
+                const existing = target.get(conceptId);
+                if (!existing) {
+                    target.set(conceptId, concepts);
+                } else if (ownedConceptArrays.has(existing)) {
+                    // length fixed up front, in case the same array is added twice
+                    for (let i = 0, length = concepts.length; i < length; i++) {
+                        existing.push(concepts[i]);
+                    }
                 } else {
-                    outerRes.set(kI, vArr);
+                    const extended = existing.concat(concepts);
+                    ownedConceptArrays.add(extended);
+                    target.set(conceptId, extended);
                 }
             }
         }
+        return this;
+    }
+
+    /**
+     * @returns the collected concepts, the accumulator must not be used afterward
+     */
+    public toConceptMap(): ConceptMap {
+        return this.concepts;
     }
-    return result;
+}
+
+/**
+ * Marks a concept array taken from a ConceptMap as no longer being owned by an accumulator, so that it is not modified by later merges.
+ * @returns the given array
+ */
+export function releaseConcepts<T extends LCEConcept>(concepts: T[]): T[] {
+    ownedConceptArrays.delete(concepts);
+    return concepts;
+}
+
+/**
+ * Merges the given ConceptMaps. Array values of the same keys are concatenated.
+ * The given maps are consumed, see `ConceptAccumulator`.
+ */
+export function mergeConceptMaps(...maps: ConceptMap[]): ConceptMap {
+    const accumulator = new ConceptAccumulator();
+    for (const map of maps) {
+        accumulator.add(map);
+    }
+    return accumulator.toConceptMap();
 }
 
 /**
  * takes all concepts and their conceptIds and unifies them under a single outer common key
+ * The given map is consumed, see `ConceptAccumulator`.
  * @returns a ConceptMap with a single key which maps to all concepts contained in the original map
  */
 export function unifyConceptMap(conceptMap: ConceptMap, commonKey: string): ConceptMap {
-    const result: ConceptMap = new Map();
-    let innerMap = result.get(commonKey);
-    for (const [, vMap] of conceptMap.entries()) {
-        if (innerMap) {
-            for (const [kI, vArr] of vMap.entries()) {
-                const innerRes = innerMap.get(kI);
-                if (innerRes) {
-                    innerMap.set(kI, innerRes.concat(vArr));
-                } else {
-                    innerMap.set(kI, vArr);
-                }
-            }
-        } else {
-            result.set(commonKey, vMap);
-            innerMap = vMap;
-        }
-    }
-    return result;
+    return new ConceptAccumulator().add(conceptMap, commonKey).toConceptMap();
 }
 
 /**
@@ -97,5 +134,5 @@ export function createConceptMap(conceptId: string, concepts: LCEConcept[], pare
  * retrieves an array of concepts from a ConceptMap entry and casts it to the provided type
  */
 export function getAndCastConcepts<T extends LCEConcept>(conceptId: string, concepts: Map<string, LCEConcept[]>): T[] {
-    return concepts.has(conceptId) ? (concepts.get(conceptId) as T[]) : [];
+    return concepts.has(conceptId) ? releaseConcepts(concepts.get(conceptId) as T[]) : [];
 }
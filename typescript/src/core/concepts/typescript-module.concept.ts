@@ -3,7 +3,7 @@ import {LCENamedConcept} from "../concept";
 export class LCEModule extends LCENamedConcept {
     public static override conceptId = "module";
 
-    constructor(fqn: string, public path: string) {
+    constructor(fqn: string, public path: string, public contentHash: string) {
         super(fqn);
     }
 }
@@ -18,7 +18,8 @@ export class GlobalContext {
             range: true;
         }>,
         public services: ParserServicesWithTypeInformation,
-        public typeChecker: TypeChecker
+        public typeChecker: TypeChecker,
+        public contentHash: string
     ) {
     }
 }
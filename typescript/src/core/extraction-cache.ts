@@ -0,0 +1,211 @@
+import { createHash } from "crypto";
+import * as fs from "fs";
+import path from "path";
+import ts from "typescript";
+import * as v8 from "v8";
+
+import { ConceptMap } from "./concept";
+import { NodeUtils } from "./utils/node.utils";
+import { FileUtils } from "./utils/file.utils";
+import packageInfo from "../../package.json";
+
+interface CacheEntry {
+    key: string;
+    concepts: ConceptMap;
+}
+
+/**
+ * Persistent cache of the concepts extracted from single project files (the results of `AstTraverser.traverse`), stored in
+ * `.reports/jqa-cache` next to the reports.
+ *
+ * The entry of a file is used as long as its content, the `tsconfig.json` of the project, the extractor version, the initialized
+ * extensions and the content of all files it imports are unchanged. The imports of project files are followed transitively, so
+ * e.g. a change of a module re-exported by an imported barrel file invalidates the entry as well.
+ * Project files that may declare types without being imported (declaration files, scripts without imports or exports, and
+ * files containing `declare global` or `declare module`) are part of the key of every file.
+ * Files outside the project (e.g. in `node_modules`) are only compared by their content, their own imports are not followed,
+ * and type packages included without an import are not compared at all. Instead, a change of the lock file of the package
+ * manager invalidates all entries.
+ * Entries are serialized using `v8.serialize`, i.e. the same way concepts are passed from worker threads, and are ignored if they
+ * can not be read.
+ */
+export class ExtractionCache {
+    public static readonly DIRECTORY = path.join(".reports", "jqa-cache");
+
+    private readonly directory: string;
+
+    /** key components shared by all files */
+    private readonly projectKey: string;
+
+    private readonly projectRootRealPath: string;
+
+    /** `<path>=<content hash>` of imported files by their resolved path */
+    private readonly importKeys = new Map<string, string>();
+
+    /** resolved paths of the files imported by a project file, by the resolved path of the importing file */
+    private readonly resolvedImports = new Map<string, string[]>();
+
+    constructor(private readonly projectRoot: string, extensions: string[]) {
+        this.directory = path.join(projectRoot, ExtractionCache.DIRECTORY);
+        fs.mkdirSync(this.directory, { recursive: true });
+        this.projectRootRealPath = fs.realpathSync(projectRoot);
+        const tsconfig = fs.readFileSync(path.join(projectRoot, "tsconfig.json"));
+        this.projectKey = [packageInfo.version, [...extensions].sort().join(","), hash(tsconfig), ...this.getGlobalKeys()].join("\n");
+    }
+
+    /**
+     * @returns the key identifying the given state of a file and its imports
+     */
+    public getKey(file: string, code: string, contentHash: string): string {
+        const importingFile = file.replace(/\\/g, "/");
+        const parts: string[] = [];
+        const visited = new Set<string>([importingFile]);
+        const pending = this.resolveImports(importingFile, code);
+        while (pending.length > 0) {
+            const importedFile = pending.pop()!;
+            if (visited.has(importedFile)) {
+                continue;
+            }
+            visited.add(importedFile);
+            parts.push(this.getImportKey(importedFile));
+            if (this.isProjectFile(importedFile)) {
+                pending.push(...this.getResolvedImports(importedFile));
+            }
+        }
+        return hash([this.projectKey, contentHash, ...parts.sort()].join("\n"));
+    }
+
+    /**
+     * @returns the cached concepts of the file, if they have been stored with the given key
+     */
+    public get(file: string, key: string): ConceptMap | undefined {
+        const entryFile = this.getEntryFile(file);
+        if (!fs.existsSync(entryFile)) {
+            return undefined;
+        }
+        try {
+            const entry = v8.deserialize(fs.readFileSync(entryFile)) as CacheEntry;
+            return entry.key === key ? entry.concepts : undefined;
+        } catch (e) {
+            // e.g. written by an incompatible Node.js version
+            return undefined;
+        }
+    }
+
+    /**
+     * Stores the concepts of the file. They are serialized immediately, so the map may be modified afterward.
+     */
+    public put(file: string, key: string, concepts: ConceptMap) {
+        const entry: CacheEntry = { key, concepts };
+        try {
+            fs.writeFileSync(this.getEntryFile(file), v8.serialize(entry));
+        } catch (e) {
+            console.log("Could not write cache entry for file: " + file);
+            console.log(e);
+        }
+    }
+
+    /**
+     * Removes the entries of all files that are not part of the given file list anymore.
+     */
+    public static prune(projectRoot: string, fileList: string[]) {
+        const directory = path.join(projectRoot, ExtractionCache.DIRECTORY);
+        if (!fs.existsSync(directory)) {
+            return;
+        }
+        const entryNames = new Set(fileList.map((file) => ExtractionCache.getEntryName(projectRoot, file)));
+        for (const name of fs.readdirSync(directory)) {
+            if (!entryNames.has(name)) {
+                fs.rmSync(path.join(directory, name), { force: true });
+            }
+        }
+    }
+
+    private getEntryFile(file: string): string {
+        return path.join(this.directory, ExtractionCache.getEntryName(this.projectRoot, file));
+    }
+
+    private static getEntryName(projectRoot: string, file: string): string {
+        return hash(path.relative(projectRoot, file).replace(/\\/g, "/")) + ".bin";
+    }
+
+    /**
+     * @returns the keys of the lock files and of the project files that may declare types used by files not importing them
+     */
+    private getGlobalKeys(): string[] {
+        const lockFiles = LOCK_FILES.map((name) => path.join(this.projectRoot, name)).filter((file) => fs.existsSync(file));
+        const globalFiles = FileUtils.getProjectSourceFileList(this.projectRoot).filter((file) => {
+            if (file.endsWith(".d.ts")) {
+                return true;
+            }
+            const code = fs.readFileSync(file, "utf8");
+            return !MODULE_SYNTAX.test(code) || GLOBAL_DECLARATION.test(code);
+        });
+        return [...lockFiles, ...globalFiles].map((file) => this.getImportKey(file.replace(/\\/g, "/"))).sort();
+    }
+
+    /**
+     * @returns the resolved paths of the files imported by the given project file, read once per run
+     */
+    private getResolvedImports(file: string): string[] {
+        let imports = this.resolvedImports.get(file);
+        if (imports === undefined) {
+            imports = this.resolveImports(file, fs.readFileSync(file, "utf8"));
+            this.resolvedImports.set(file, imports);
+        }
+        return imports;
+    }
+
+    /**
+     * @returns the resolved paths of all files imported or re-exported by the given code, an import that can not be resolved
+     * is returned as its import path prefixed by `?`
+     */
+    private resolveImports(file: string, code: string): string[] {
+        return ts.preProcessFile(code, true, true).importedFiles.map((importedFile) => {
+            try {
+                return NodeUtils.resolveImportPath(importedFile.fileName, this.projectRoot, file);
+            } catch (e) {
+                return "?" + importedFile.fileName;
+            }
+        });
+    }
+
+    private getImportKey(resolvedPath: string): string {
+        let importKey = this.importKeys.get(resolvedPath);
+        if (importKey === undefined) {
+            // built-in modules are resolved to their name
+            const importHash = fs.existsSync(resolvedPath) ? hash(fs.readFileSync(resolvedPath)) : "unresolved";
+            importKey = this.toRelativePath(resolvedPath) + "=" + importHash;
+            this.importKeys.set(resolvedPath, importKey);
+        }
+        return importKey;
+    }
+
+    private isProjectFile(resolvedPath: string): boolean {
+        if (!path.isAbsolute(resolvedPath)) {
+            return false;
+        }
+        // imports are resolved to real paths, which differ from the project root if it is a symbolic link
+        return [this.projectRoot, this.projectRootRealPath].some((root) => {
+            const relativePath = path.relative(root, resolvedPath).replace(/\\/g, "/");
+            return !relativePath.startsWith("../") && !path.isAbsolute(relativePath) && !relativePath.split("/").includes("node_modules");
+        }) && fs.existsSync(resolvedPath);
+    }
+
+    private toRelativePath(resolvedPath: string): string {
+        return path.isAbsolute(resolvedPath) ? path.relative(this.projectRoot, resolvedPath).replace(/\\/g, "/") : resolvedPath;
+    }
+}
+
+/** lock files of the supported package managers, which change with the installed packages */
+const LOCK_FILES = ["package-lock.json", "yarn.lock", "pnpm-lock.yaml"];
+
+/** files without ES module syntax are scripts, whose declarations are global */
+const MODULE_SYNTAX = /^\s*(import|export)\b/m;
+
+/** global declarations and module augmentations within modules */
+const GLOBAL_DECLARATION = /\bdeclare\s+(global|module)\b/;
+
+function hash(content: string | Buffer): string {
+    return createHash("sha256").update(content).digest("hex");
+}
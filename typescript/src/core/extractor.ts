@@ -1,103 +1,261 @@
-import { parseAndGenerateServices } from "@typescript-eslint/typescript-estree";
+import { createProgram, parseAndGenerateServices } from "@typescript-eslint/typescript-estree";
+import { createHash } from "crypto";
+import { once } from "events";
 import * as fs from "fs";
 import path from "path";
-import { TypeChecker } from "typescript";
+import { finished } from "stream/promises";
+import { Worker } from "worker_threads";
+import { Program, TypeChecker } from "typescript";
 import { Presets, SingleBar } from "cli-progress";
 
-import { ConceptMap, LCEConcept, mergeConceptMaps, singleEntryConceptMap, unifyConceptMap } from "./concept";
+import { ConceptAccumulator, ConceptMap, LCEConcept, mergeConceptMaps, singleEntryConceptMap, unifyConceptMap } from "./concept";
 import { LCEProject } from "./concepts/typescript-project.concept";
 import { GlobalContext } from "./context";
+import { ExtractionCache } from "./extraction-cache";
 import { PathUtils } from "./utils/path.utils";
 import { AstTraverser } from "./traversers/ast.traverser";
 import { FileUtils } from "./utils/file.utils";
+import { TYPE_TABLE_ID, TypeTable } from "./type-table";
 import { POST_PROCESSORS } from "./features";
 
+/**
+ * Durations of the extraction phases in seconds, see `processProject`.
+ */
+export interface PhaseTimes {
+    fileListing: number;
+    fileReading: number;
+    /** creation of the TypeScript program and its type checker, including parsing and binding of all files */
+    programCreation: number;
+    /** conversion and traversal of all files, including reading them */
+    extraction: number;
+    postProcessing: number;
+}
+
 // eslint-disable-next-line @typescript-eslint/ban-types
-export async function processProject(projectRoot: string): Promise<Map<string, LCEConcept[]>> {
+export async function processProject(projectRoot: string, options: ExtractorOptions = {}, phaseTimes?: PhaseTimes): Promise<Map<string, LCEConcept[]>> {
+    const listingStartTime = process.hrtime();
     projectRoot = path.resolve(projectRoot);
     const fileList = FileUtils.getProjectSourceFileList(projectRoot);
+    const listingTime = secondsSince(listingStartTime);
 
     // maps filenames to the extracted concepts from these files
     let concepts: ConceptMap = singleEntryConceptMap(LCEProject.conceptId, new LCEProject(projectRoot.replace(/\\/g, "/")));
 
-    console.log("Analyzing " + fileList.length + " project files...");
+    const workers = Math.min(options.workers ?? 1, fileList.length);
+    console.log("Analyzing " + fileList.length + " project files" + (workers > 1 ? " using " + workers + " workers" : "") + "...");
     const startTime = process.hrtime();
-    let fileReadingTime = 0;
     const progressBar = new SingleBar({}, Presets.shades_classic);
     progressBar.start(fileList.length, 0);
+    const extensions = options.extensions ?? [];
+    const extraction = workers > 1 ?
+        await extractFilesInWorkers(projectRoot, fileList, workers, extensions, !!options.cache, () => progressBar.increment()) :
+        extractFiles(projectRoot, fileList, options.cache ? new ExtractionCache(projectRoot, extensions) : undefined,
+            () => progressBar.increment());
+    concepts = mergeConceptMaps(concepts, extraction.concepts);
+    progressBar.stop();
+    if (options.cache) {
+        ExtractionCache.prune(projectRoot, fileList);
+        console.log(extraction.cachedFiles + " of " + fileList.length + " files taken from the cache");
+    }
+    const extractionTime = secondsSince(startTime);
+    const fileReadingTime = extraction.fileReadingTime;
+
+    const postProcessingStartTime = process.hrtime();
+    const normalizedConcepts = unifyConceptMap(concepts, "").get("") ?? new Map();
+
+    // Post-process for project-wide concepts
+    console.log("Post-Processing Results...")
+    for(const postProcessor of POST_PROCESSORS) {
+        postProcessor.postProcess(normalizedConcepts, projectRoot.replace(/\\/g, "/"),);
+    }
+    if (phaseTimes) {
+        phaseTimes.fileListing = listingTime;
+        phaseTimes.fileReading = fileReadingTime;
+        phaseTimes.programCreation = extraction.programCreationTime;
+        phaseTimes.extraction = extractionTime - extraction.programCreationTime;
+        phaseTimes.postProcessing = secondsSince(postProcessingStartTime);
+    }
+
+    const endTime = process.hrtime();
+    const diffTime = (endTime[0] + endTime[1]/10**9) - (startTime[0] + startTime[1]/10**9);
+    console.log("Finished analyzing project files.");
+    console.log("Runtime: " + diffTime.toFixed(3) + "s (" + fileReadingTime.toFixed(3) + "s reading files)");
+
+    return normalizedConcepts;
+}
+
+/**
+ * Concepts extracted from a set of project files, along with the time it took to create the program and to read the files.
+ * With multiple workers, the reading time is summed up, while the program creation time is the maximum of all workers.
+ */
+export interface FileExtractionResult {
+    /** maps filenames to the extracted concepts from these files */
+    concepts: ConceptMap;
+    programCreationTime: number;
+    fileReadingTime: number;
+    /** number of files whose concepts have been taken from the cache */
+    cachedFiles: number;
+}
+
+/**
+ * Extracts the concepts of the given files of a project.
+ * @param cache if given, files are only extracted if there is no valid cache entry, which is updated afterward
+ * @param onFileStarted called before each file is processed, e.g. to report the progress
+ */
+export function extractFiles(projectRoot: string, fileList: string[], cache: ExtractionCache | undefined,
+                             onFileStarted: () => void): FileExtractionResult {
+    const concepts = new ConceptAccumulator();
+    let fileReadingTime = 0;
+    let programCreationTime = 0;
+    let cachedFiles = 0;
+
+    // one program (and type checker) is shared by all files, instead of letting the parser create one for each file
+    // (only created once a file is not cached, also avoiding to create one for empty projects, for which the compiler
+    // reports missing inputs as error)
+    let program: Program | undefined;
+    let typeChecker: TypeChecker | undefined;
 
     // Traverse and process all individual project files
     const traverser = new AstTraverser();
-    for (let i = 0; i < fileList.length; i++){
-        progressBar.update(i+1);
-        const file = fileList[i];
+    for (const file of fileList) {
+        onFileStarted();
 
         const frStartTime = process.hrtime();
         const code: string = fs.readFileSync(file, "utf8");
         const frEndTime = process.hrtime();
         fileReadingTime += (frEndTime[0] + frEndTime[1]/10**9) - (frStartTime[0] + frStartTime[1]/10**9);
 
+        const sourceFilePath = PathUtils.normalize(projectRoot, file).replace(/\\/g, "/");
+        const contentHash = createHash("sha256").update(code).digest("hex");
+        const cacheKey = cache?.getKey(file, code, contentHash);
+        const cachedConcepts = cache?.get(file, cacheKey!);
+        if (cachedConcepts) {
+            concepts.add(cachedConcepts, sourceFilePath);
+            cachedFiles++;
+            continue;
+        }
+
+        if (!program) {
+            const pcStartTime = process.hrtime();
+            program = createProgram(path.join(projectRoot, "tsconfig.json"), projectRoot);
+            typeChecker = program.getTypeChecker();
+            programCreationTime = secondsSince(pcStartTime);
+        }
+
         try {
             const {ast, services} = parseAndGenerateServices(code, {
                 loc: true,
                 range: true,
                 tokens: false,
                 filePath: file,
-                project: path.join(projectRoot, "tsconfig.json"),
+                programs: [program],
             });
             if (!services.program) {
                 continue;
             }
-            const typeChecker: TypeChecker = services.program.getTypeChecker();
 
             const globalContext: GlobalContext = {
                 projectRootPath: projectRoot.replace(/\\/g, "/"),
-                sourceFilePath: PathUtils.normalize(projectRoot, file).replace(/\\/g, "/"),
+                sourceFilePath: sourceFilePath,
                 ast: ast,
                 services: services,
-                typeChecker: typeChecker,
+                typeChecker: typeChecker!,
+                contentHash: contentHash,
             };
 
-            concepts = mergeConceptMaps(concepts, unifyConceptMap(traverser.traverse(globalContext), globalContext.sourceFilePath));
+            const fileConcepts = traverser.traverse(globalContext);
+            cache?.put(file, cacheKey!, fileConcepts);
+            concepts.add(fileConcepts, sourceFilePath);
         } catch(e) {
             console.log("Error occurred while processing file: " + file);
             console.log(e);
         }
     }
-    progressBar.stop();
-    const normalizedConcepts = unifyConceptMap(concepts, "").get("") ?? new Map();
+    return { concepts: concepts.toConceptMap(), programCreationTime, fileReadingTime, cachedFiles };
+}
 
-    // Post-process for project-wide concepts
-    console.log("Post-Processing Results...")
-    for(const postProcessor of POST_PROCESSORS) {
-        postProcessor.postProcess(normalizedConcepts, projectRoot.replace(/\\/g, "/"),);
+/**
+ * Data passed to the extraction worker, see `extraction-worker.ts`.
+ */
+export interface ExtractionWorkerData {
+    projectRoot: string;
+    fileList: string[];
+    /** extensions to be initialized in the worker, as done for the main thread */
+    extensions: string[];
+    cache: boolean;
+}
+
+/**
+ * Messages sent by the extraction worker: one `progress` message per file and a final `result`.
+ */
+export type ExtractionWorkerMessage = { type: "progress" } | { type: "result"; result: FileExtractionResult };
+
+/**
+ * Splits the files into contiguous partitions, which are extracted by worker threads with a program each.
+ * Each program contains all files of the project, as the types of a file may be declared by module augmentations or
+ * global declarations in files that it does not import.
+ * The results are merged in the order of the partitions, so that the concepts have the same order as for a
+ * sequential extraction.
+ */
+async function extractFilesInWorkers(projectRoot: string, fileList: string[], workers: number, extensions: string[],
+                                     cache: boolean, onFileStarted: () => void): Promise<FileExtractionResult> {
+    // the worker is run with ts-node, if the extractor itself is (e.g. for tests and benchmarks)
+    const workerScript = path.join(__dirname, "..", "extraction-worker" + path.extname(__filename));
+    const execArgv = path.extname(__filename) === ".ts" ? ["--require", "ts-node/register"] : undefined;
+
+    const partitionSize = Math.ceil(fileList.length / workers);
+    const partitions: string[][] = [];
+    for (let i = 0; i < fileList.length; i += partitionSize) {
+        partitions.push(fileList.slice(i, i + partitionSize));
     }
 
-    const endTime = process.hrtime();
-    const diffTime = (endTime[0] + endTime[1]/10**9) - (startTime[0] + startTime[1]/10**9);
-    console.log("Finished analyzing project files.");
-    console.log("Runtime: " + diffTime.toFixed(3) + "s (" + fileReadingTime.toFixed(3) + "s reading files)");
+    const results = await Promise.all(partitions.map((partition) => new Promise<FileExtractionResult>((resolve, reject) => {
+        const workerData: ExtractionWorkerData = { projectRoot, fileList: partition, extensions, cache };
+        const worker = new Worker(workerScript, { workerData, execArgv });
+        worker.on("message", (message: ExtractionWorkerMessage) => {
+            if (message.type === "progress") {
+                onFileStarted();
+            } else {
+                resolve(message.result);
+            }
+        });
+        worker.on("error", reject);
+        worker.on("exit", (exitCode) => {
+            if (exitCode !== 0) {
+                reject(new Error("Extraction worker stopped with exit code " + exitCode));
+            }
+        });
+    })));
 
-    return normalizedConcepts;
+    return {
+        concepts: mergeConceptMaps(...results.map((r) => r.concepts)),
+        programCreationTime: Math.max(...results.map((r) => r.programCreationTime)),
+        fileReadingTime: results.reduce((sum, r) => sum + r.fileReadingTime, 0),
+        cachedFiles: results.reduce((sum, r) => sum + r.cachedFiles, 0),
+    };
+}
+
+function secondsSince(startTime: [number, number]): number {
+    const diff = process.hrtime(startTime);
+    return diff[0] + diff[1] / 10**9;
 }
 
 export async function processAndOutputResult(projectRoot: string, options: ExtractorOptions) {
     // process project
-    const normalizedConcepts = await processProject(projectRoot);
+    const normalizedConcepts = await processProject(projectRoot, options);
 
     // output JSON file
     if (normalizedConcepts) {
-        const json = JSON.stringify(Object.fromEntries(normalizedConcepts), (_, value) => {
-            if(typeof  value === 'bigint') {
-                return value.toString();
-            } else if(typeof value === 'object' && value instanceof Map) {
-                return Object.fromEntries(Array.from(value.entries()))
-            } else {
-                return value;
-            }
-
-        }, options.prettyPrint ? 2 : undefined);
         let dirPath = path.join(projectRoot, ".reports", "jqa");
+        if (options.shard) {
+            outputShardedResult(normalizedConcepts, dirPath, options);
+            return;
+        }
+        if (options.ndjson) {
+            await outputNdjsonResult(normalizedConcepts, dirPath, options);
+            return;
+        }
+        const json = toJson(toReport(Object.fromEntries(normalizedConcepts), options), options);
         let filePath = path.join(dirPath, 'ts-output.json');
         fs.mkdir(dirPath, {recursive: true}, (errDir) => {
             if (errDir) {
@@ -116,6 +274,136 @@ export async function processAndOutputResult(projectRoot: string, options: Extra
     }
 }
 
+/**
+ * Writes the report as NDJSON to `ts-output.ndjson`: one line per concept, holding the concept and its concept id, e.g.
+ * `{"conceptId":"class-declaration","concept":{...}}`.
+ * The lines are streamed to the file, waiting for it to drain if necessary, so that the report is never held as a single string.
+ * With a type table, each entry is written as concept `type-table` before the first concept using it.
+ */
+async function outputNdjsonResult(normalizedConcepts: Map<string, LCEConcept[]>, dirPath: string, options: ExtractorOptions) {
+    const filePath = path.join(dirPath, "ts-output.ndjson");
+    const typeTable = options.typeTable ? new TypeTable() : undefined;
+    try {
+        fs.mkdirSync(dirPath, {recursive: true});
+        const stream = fs.createWriteStream(filePath);
+        for (const [conceptId, concepts] of normalizedConcepts.entries()) {
+            for (const concept of concepts) {
+                const lines: string[] = [];
+                const converted = typeTable ? typeTable.convert(concept) : concept;
+                for (const entry of typeTable?.takeNewEntries() ?? []) {
+                    lines.push(toJson({ conceptId: TYPE_TABLE_ID, concept: entry }, {}) + "\n");
+                }
+                lines.push(toJson({ conceptId, concept: converted }, {}) + "\n");
+                if (!stream.write(lines.join(""))) {
+                    await once(stream, "drain");
+                }
+            }
+        }
+        stream.end();
+        await finished(stream);
+        console.log("NDJSON result successfully written to " + filePath);
+    } catch (e) {
+        console.log("Error writing NDJSON: " + e);
+    }
+}
+
+/**
+ * Writes one report per source directory into `ts-output/` and a manifest `ts-output.manifest.json` listing them.
+ * Concepts that do not belong to a single source file (e.g. the project and external modules) are part of the manifest.
+ */
+function outputShardedResult(normalizedConcepts: Map<string, LCEConcept[]>, dirPath: string, options: ExtractorOptions) {
+    const manifest: Record<string, unknown> = {};
+    const shards = new Map<string, Record<string, LCEConcept[]>>();
+    for (const [conceptId, concepts] of normalizedConcepts.entries()) {
+        for (const concept of concepts) {
+            const sourceFile = getSourceFile(concept);
+            let target: Record<string, unknown>;
+            if (sourceFile === undefined) {
+                target = manifest;
+            } else {
+                const shardKey = path.posix.dirname(sourceFile.replace(/^\.?\//, ""));
+                target = shards.get(shardKey) ?? {};
+                shards.set(shardKey, target as Record<string, LCEConcept[]>);
+            }
+            const targetConcepts = (target[conceptId] ?? []) as LCEConcept[];
+            targetConcepts.push(concept);
+            target[conceptId] = targetConcepts;
+        }
+    }
+
+    const shardDirName = "ts-output";
+    try {
+        fs.rmSync(path.join(dirPath, shardDirName), {recursive: true, force: true});
+        fs.mkdirSync(path.join(dirPath, shardDirName), {recursive: true});
+        const shardFiles: string[] = [];
+        for (const shard of shards.values()) {
+            const shardFile = shardDirName + "/shard-" + shardFiles.length + ".json";
+            fs.writeFileSync(path.join(dirPath, shardFile), toJson(toReport(shard, options), options));
+            shardFiles.push(shardFile);
+        }
+        const manifestPath = path.join(dirPath, "ts-output.manifest.json");
+        fs.writeFileSync(manifestPath, toJson({ ...toReport(manifest, options), shards: shardFiles }, options));
+        console.log("JSON result successfully written to " + manifestPath + " (" + shardFiles.length + " shards)");
+    } catch (e) {
+        console.log("Error writing JSON: " + e);
+    }
+}
+
+/**
+ * @returns the project-relative path of the file the concept has been extracted from, if it belongs to a single file
+ */
+function getSourceFile(concept: LCEConcept): string | undefined {
+    // eslint-disable-next-line @typescript-eslint/no-explicit-any
+    const c = concept as any;
+    if (c.coordinates?.fileName) {
+        return c.coordinates.fileName;
+    } else if (typeof c.path === "string") {
+        return c.path;
+    } else if (typeof c.sourceFilePath === "string") {
+        return c.sourceFilePath;
+    } else if (typeof c.sourceFQN === "string") {
+        return c.sourceFQN.startsWith('"') ? PathUtils.extractFQNPath(c.sourceFQN) : c.sourceFQN;
+    }
+    return undefined;
+}
+
+/**
+ * @returns the given report, or a copy of it in which all types are replaced by references to a type table, if enabled.
+ * The table is the first property, so that it is read before the concepts referencing it.
+ */
+function toReport(report: Record<string, unknown>, options: ExtractorOptions): Record<string, unknown> {
+    if (!options.typeTable) {
+        return report;
+    }
+    const typeTable = new TypeTable();
+    const converted = typeTable.convert(report);
+    return { [TYPE_TABLE_ID]: typeTable.getEntries(), ...converted };
+}
+
+function toJson(value: unknown, options: ExtractorOptions): string {
+    return JSON.stringify(value, (_, value) => {
+        if(typeof  value === 'bigint') {
+            return value.toString();
+        } else if(typeof value === 'object' && value instanceof Map) {
+            return Object.fromEntries(Array.from(value.entries()))
+        } else {
+            return value;
+        }
+
+    }, options.prettyPrint ? 2 : undefined);
+}
+
 export interface ExtractorOptions {
     prettyPrint?: boolean;
+    shard?: boolean;
+    /** writes the report as NDJSON with one concept per line */
+    ndjson?: boolean;
+    /** number of worker threads extracting the project files, `1` extracts them on the main thread */
+    workers?: number;
+    /** extensions initialized by the caller, which are initialized in every worker as well */
+    extensions?: string[];
+    /** reuses the concepts of unchanged files extracted by a previous run, see `ExtractionCache` */
+    cache?: boolean;
+    /** writes each distinct type once to a type table and references it by id, see `TypeTable` */
+    typeTable?: boolean;
 }
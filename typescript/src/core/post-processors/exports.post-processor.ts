@@ -6,8 +6,20 @@ import { PathUtils } from "../utils/path.utils";
 import { LCEExternalModule } from "../concepts/externals.concept";
 import { LCEDependency } from "../concepts/dependency.concept";
 import { NodeUtils } from "../utils/node.utils";
-import path from "path";
-import * as fs from "fs";
+
+/**
+ * Exports of all modules, indexed by module path, along with the already resolved module exports.
+ */
+interface ExportIndex {
+    modulePaths: Set<string>;
+    exportsByModule: Map<string, LCEExportDeclaration[]>;
+    /** resolved exports by module path, re-exports are only resolved once per module */
+    resolvedExports: Map<string, LCEExportDeclaration[]>;
+    /** modules whose exports are currently being resolved, by their depth in the resolution, used to detect cyclic re-exports */
+    modulesInResolution: Map<string, number>;
+    /** lowest depth of a module in resolution that was reached again by a cyclic re-export */
+    cycleDepth: number;
+}
 
 export class ExportsPostProcessor extends PostProcessor {
     postProcess(concepts: Map<string, LCEConcept[]>, projectRootPath: string): void {
@@ -16,32 +28,90 @@ export class ExportsPostProcessor extends PostProcessor {
         const allExports = (concepts.get(LCEExportDeclaration.conceptId) ?? []) as LCEExportDeclaration[];
         const newExports: LCEExportDeclaration[] = [];
 
+        const index: ExportIndex = {
+            modulePaths: new Set(modules.map((module) => module.fqn)),
+            exportsByModule: new Map(),
+            resolvedExports: new Map(),
+            modulesInResolution: new Map(),
+            cycleDepth: Infinity,
+        };
+        for (const exp of allExports) {
+            const moduleExports = index.exportsByModule.get(exp.sourceFilePath);
+            if (moduleExports) {
+                moduleExports.push(exp);
+            } else {
+                index.exportsByModule.set(exp.sourceFilePath, [exp]);
+            }
+        }
+
         for (const module of modules) {
-            newExports.push(...this.getAllModuleExports(concepts, allExports, module.fqn, externalModules, projectRootPath));
+            newExports.push(...this.getAllModuleExports(concepts, index, module.fqn, externalModules, projectRootPath));
         }
 
         concepts.set(LCEExportDeclaration.conceptId, newExports);
     }
 
+    /**
+     * @returns the exports of the module, with all re-exports resolved to the exported declarations
+     */
     private getAllModuleExports(
         concepts: Map<string, LCEConcept[]>,
-        exports: LCEExportDeclaration[],
+        index: ExportIndex,
         modulePath: string,
         externalModules: LCEExternalModule[],
         projectRootPath: string,
     ): LCEExportDeclaration[] {
-        const result: LCEExportDeclaration[] = [];
-        const stats = fs.statSync(path.resolve(projectRootPath, modulePath));
-        if (stats.isDirectory()) {
+        if (!index.modulePaths.has(modulePath) && index.modulePaths.has(modulePath + "/index.ts")) {
+            // directory import
             modulePath += "/index.ts";
         }
-        const rawExports = this.filterExportsForModule(exports, modulePath);
+        const resolvedExports = index.resolvedExports.get(modulePath);
+        if (resolvedExports) {
+            return resolvedExports;
+        }
+        const cycleDepth = index.modulesInResolution.get(modulePath);
+        if (cycleDepth !== undefined) {
+            // cyclic re-export: the exports of the module are added by the first module of the cycle
+            index.cycleDepth = Math.min(index.cycleDepth, cycleDepth);
+            return [];
+        }
+        const depth = index.modulesInResolution.size;
+        const outerCycleDepth = index.cycleDepth;
+        index.cycleDepth = Infinity;
+        index.modulesInResolution.set(modulePath, depth);
+        const dependencies: LCEDependency[] = [];
+        const result = this.resolveModuleExports(concepts, index, modulePath, externalModules, projectRootPath, dependencies);
+        index.modulesInResolution.delete(modulePath);
+        if (index.cycleDepth >= depth) {
+            // complete, as the result does not depend on a module above in the resolution, whose exports are still unknown
+            index.resolvedExports.set(modulePath, result);
+            this.addDependencies(concepts, dependencies);
+        }
+        // otherwise the module is resolved again later, without the partial result and its dependencies being kept
+        index.cycleDepth = Math.min(outerCycleDepth, index.cycleDepth);
+        return result;
+    }
+
+    private resolveModuleExports(
+        concepts: Map<string, LCEConcept[]>,
+        index: ExportIndex,
+        modulePath: string,
+        externalModules: LCEExternalModule[],
+        projectRootPath: string,
+        dependencies: LCEDependency[],
+    ): LCEExportDeclaration[] {
+        const result: LCEExportDeclaration[] = [];
+        const rawExports = index.exportsByModule.get(modulePath) ?? [];
+        // local exports and named re-exports take precedence over namespace re-exports of the same name
+        const explicitNames = new Set(
+            rawExports.filter((exp) => exp.kind !== "namespace").map((exp) => (exp.isDefault ? "default" : exp.alias ?? exp.identifier)),
+        );
 
         for (const exp of rawExports) {
             if (exp.importSource) {
                 if (exp.sourceInProject) {
                     // internal re-export: try to resolve export tree
-                    const moduleExports = this.getAllModuleExports(concepts, exports, exp.importSource, externalModules, projectRootPath);
+                    const moduleExports = this.getAllModuleExports(concepts, index, exp.importSource, externalModules, projectRootPath);
                     if (exp.kind === "namespace") {
                         // namespace re-export: convert all namespace exports into individual export declarations
                         if (exp.declFqn) {
@@ -50,6 +120,9 @@ export class ExportsPostProcessor extends PostProcessor {
                                 if (moduleExport.isDefault) {
                                     identifier = "default";
                                 }
+                                if (!exp.alias && explicitNames.has(identifier)) {
+                                    continue;
+                                }
                                 result.push(
                                     new LCEExportDeclaration(
                                         identifier,
@@ -63,7 +136,7 @@ export class ExportsPostProcessor extends PostProcessor {
                                     ),
                                 );
                             }
-                            this.addDependency(concepts, modulePath, exp.importSource, "module");
+                            this.addDependency(dependencies, modulePath, exp.importSource, "module");
                         }
                     } else {
                         // named re-export
@@ -82,7 +155,7 @@ export class ExportsPostProcessor extends PostProcessor {
                                 ),
                             );
                             if (originalExport.declFqn) {
-                                this.addDependency(concepts, modulePath, originalExport.declFqn);
+                                this.addDependency(dependencies, modulePath, originalExport.declFqn);
                             }
                         } else {
                             console.log(
@@ -138,7 +211,7 @@ export class ExportsPostProcessor extends PostProcessor {
                                     ),
                                 );
                             }
-                            this.addDependency(concepts, modulePath, importSource, "module");
+                            this.addDependency(dependencies, modulePath, importSource, "module");
                         } else {
                             // named re-export of single external dependency
                             let eDecl = externalDeclarations.find((ed) => ed.name === exp.identifier);
@@ -159,7 +232,7 @@ export class ExportsPostProcessor extends PostProcessor {
                                         modulePath,
                                     ),
                                 );
-                                this.addDependency(concepts, modulePath, eDecl.fqn);
+                                this.addDependency(dependencies, modulePath, eDecl.fqn);
                             } else {
                                 console.log(
                                     "\n" +
@@ -179,10 +252,6 @@ export class ExportsPostProcessor extends PostProcessor {
         return result;
     }
 
-    private filterExportsForModule(exports: LCEExportDeclaration[], modulePath: string): LCEExportDeclaration[] {
-        return exports.filter((ed) => ed.sourceFilePath === modulePath);
-    }
-
     private findSingleModuleExport(moduleExports: LCEExportDeclaration[], name: string) {
         for (const me of moduleExports) {
             if (name === "default") {
@@ -198,9 +267,13 @@ export class ExportsPostProcessor extends PostProcessor {
         }
     }
 
-    private addDependency(concepts: Map<string, LCEConcept[]>, source: string, target: string, targetType: "declaration" | "module" = "declaration") {
-        const dependencies = (concepts.get(LCEDependency.conceptId) ?? []) as LCEDependency[];
+    private addDependency(dependencies: LCEDependency[], source: string, target: string, targetType: "declaration" | "module" = "declaration") {
         dependencies.push(new LCEDependency(target, targetType, source, "module", 1));
-        concepts.set(LCEDependency.conceptId, dependencies);
+    }
+
+    private addDependencies(concepts: Map<string, LCEConcept[]>, dependencies: LCEDependency[]) {
+        const allDependencies = (concepts.get(LCEDependency.conceptId) ?? []) as LCEDependency[];
+        allDependencies.push(...dependencies);
+        concepts.set(LCEDependency.conceptId, allDependencies);
     }
 }
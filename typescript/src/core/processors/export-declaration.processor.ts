@@ -1,6 +1,6 @@
 import { AST_NODE_TYPES } from "@typescript-eslint/utils";
 
-import { ConceptMap, getAndCastConcepts, LCEConcept, mergeConceptMaps, singleEntryConceptMap } from "../concept";
+import { ConceptMap, mergeConceptMaps, singleEntryConceptMap } from "../concept";
 import { LCEClassDeclaration } from "../concepts/class-declaration.concept";
 import { LCEEnumDeclaration } from "../concepts/enum-declaration.concept";
 import { LCEExportDeclaration } from "../concepts/export-declaration.concept";
@@ -11,6 +11,7 @@ import { LCEVariableDeclaration } from "../concepts/variable-declaration.concept
 import { ProcessingContext } from "../context";
 import { ExecutionCondition } from "../execution-condition";
 import { PathUtils } from "../utils/path.utils";
+import { getChildConcepts } from "../utils/processor.utils";
 import { Processor } from "../processor";
 import { ExportDefaultDeclarationTraverser, ExportNamedDeclarationTraverser } from "../traversers/export-declaration.traverser";
 import { DependencyResolutionProcessor } from "./dependency-resolution.processor";
@@ -31,7 +32,7 @@ export class ExportDeclarationProcessor extends Processor {
             }
 
             if (node.declaration) {
-                const identifier = this.extractExportedIdentifier(childConcepts.get(ExportNamedDeclarationTraverser.DECLARATION_PROP));
+                const identifier = this.extractExportedIdentifier(ExportNamedDeclarationTraverser.DECLARATION_PROP, childConcepts);
                 if (identifier) {
                     const fqn = DependencyResolutionProcessor.constructFQNPrefix(localContexts) + identifier;
                     concepts.push(
@@ -73,7 +74,7 @@ export class ExportDeclarationProcessor extends Processor {
                 }
             }
         } else if (node.type === AST_NODE_TYPES.ExportDefaultDeclaration) {
-            const identifier = this.extractExportedIdentifier(childConcepts.get(ExportDefaultDeclarationTraverser.DECLARATION_PROP));
+            const identifier = this.extractExportedIdentifier(ExportDefaultDeclarationTraverser.DECLARATION_PROP, childConcepts);
             if (identifier) {
                 const fqn = DependencyResolutionProcessor.constructFQNPrefix(localContexts) + identifier;
                 concepts.push(
@@ -115,23 +116,15 @@ export class ExportDeclarationProcessor extends Processor {
         return mergeConceptMaps(...concepts);
     }
 
-    private extractExportedIdentifier(exportedConcept?: Map<string, LCEConcept[]>): string | undefined {
-        let identifier: string | undefined;
-        if (exportedConcept) {
-            if (exportedConcept.has(LCEClassDeclaration.conceptId)) {
-                identifier = getAndCastConcepts<LCEClassDeclaration>(LCEClassDeclaration.conceptId, exportedConcept)[0].className;
-            } else if (exportedConcept.has(LCEInterfaceDeclaration.conceptId)) {
-                identifier = getAndCastConcepts<LCEInterfaceDeclaration>(LCEInterfaceDeclaration.conceptId, exportedConcept)[0].interfaceName;
-            } else if (exportedConcept.has(LCEFunctionDeclaration.conceptId)) {
-                identifier = getAndCastConcepts<LCEFunctionDeclaration>(LCEFunctionDeclaration.conceptId, exportedConcept)[0].functionName;
-            } else if (exportedConcept.has(LCETypeAliasDeclaration.conceptId)) {
-                identifier = getAndCastConcepts<LCETypeAliasDeclaration>(LCETypeAliasDeclaration.conceptId, exportedConcept)[0].typeAliasName;
-            } else if (exportedConcept.has(LCEEnumDeclaration.conceptId)) {
-                identifier = getAndCastConcepts<LCEEnumDeclaration>(LCEEnumDeclaration.conceptId, exportedConcept)[0].enumName;
-            } else if (exportedConcept.has(LCEVariableDeclaration.conceptId)) {
-                identifier = getAndCastConcepts<LCEVariableDeclaration>(LCEVariableDeclaration.conceptId, exportedConcept)[0].variableName;
-            }
-        }
-        return identifier;
+    /**
+     * @returns the name of the exported declaration, read through `getChildConcepts`, so that the concept arrays are released
+     */
+    private extractExportedIdentifier(propName: string, childConcepts: ConceptMap): string | undefined {
+        return getChildConcepts<LCEClassDeclaration>(propName, LCEClassDeclaration.conceptId, childConcepts)[0]?.className ??
+            getChildConcepts<LCEInterfaceDeclaration>(propName, LCEInterfaceDeclaration.conceptId, childConcepts)[0]?.interfaceName ??
+            getChildConcepts<LCEFunctionDeclaration>(propName, LCEFunctionDeclaration.conceptId, childConcepts)[0]?.functionName ??
+            getChildConcepts<LCETypeAliasDeclaration>(propName, LCETypeAliasDeclaration.conceptId, childConcepts)[0]?.typeAliasName ??
+            getChildConcepts<LCEEnumDeclaration>(propName, LCEEnumDeclaration.conceptId, childConcepts)[0]?.enumName ??
+            getChildConcepts<LCEVariableDeclaration>(propName, LCEVariableDeclaration.conceptId, childConcepts)[0]?.variableName;
     }
 }
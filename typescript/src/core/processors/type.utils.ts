@@ -275,7 +275,8 @@ export function parseClassLikeBaseType(
     const tc = globalContext.typeChecker;
     const node = globalContext.services.esTreeNodeToTSNodeMap.get(esTypeIdentifier);
     const type = tc.getTypeAtLocation(node);
-    const result = parseType(processingContext, type, node);
+    // not taken from the cache, as the type arguments of the result are replaced
+    const result = parseTypeStructure(processingContext, type, node);
 
     if (result instanceof LCETypeDeclared) {
         const typeArgs: LCEType[] = [];
@@ -300,7 +301,109 @@ export function parseESNodeType(processingContext: ProcessingContext, esNode: ES
     return result;
 }
 
+/**
+ * Parsed type along with the dependencies registered while parsing it, which are registered again for every use of the entry.
+ */
+interface ParsedTypeCacheEntry {
+    type: LCEType;
+    dependencies: string[];
+}
+
+/**
+ * Dependencies registered by a type that is currently being parsed.
+ * Types are not cached if they (or one of their nested types) have been scheduled for FQN resolution, as the resolution
+ * depends on the scope they are used in, or if their structure contains the type of a symbol at the location of the parsed
+ * node (see `getTypeOfSymbolAtNode`).
+ */
+interface DependencyCollector {
+    dependencies: string[];
+    cacheable: boolean;
+}
+
+/**
+ * parsed types of each program, by type and the options of `parseType` (see `getParsedTypeCacheKey`)
+ */
+const parsedTypeCaches = new WeakMap<ts.TypeChecker, Map<Type, Map<string, ParsedTypeCacheEntry>>>();
+
+/** collectors of all types that are currently being parsed, the innermost type last */
+const dependencyCollectors: DependencyCollector[] = [];
+
+/**
+ * Returns the type representation of a TypeChecker type.
+ *
+ * Results are cached per program and shared by all uses of the same type, so they must not be modified.
+ * The dependencies of a cached type are registered again for every use.
+ */
 function parseType(processingContext: ProcessingContext, type: Type, node: Node, excludedFQN?: string, ignoreDependencies = false): LCEType {
+    const typeChecker = processingContext.globalContext.typeChecker;
+    let cache = parsedTypeCaches.get(typeChecker);
+    if (!cache) {
+        cache = new Map();
+        parsedTypeCaches.set(typeChecker, cache);
+    }
+    const cacheKey = getParsedTypeCacheKey(excludedFQN, ignoreDependencies);
+    const cachedEntry = cache.get(type)?.get(cacheKey);
+    if (cachedEntry) {
+        for (const dependency of cachedEntry.dependencies) {
+            registerTypeDependency(processingContext, dependency, false);
+        }
+        return cachedEntry.type;
+    }
+
+    const collector: DependencyCollector = { dependencies: [], cacheable: true };
+    dependencyCollectors.push(collector);
+    let result: LCEType;
+    try {
+        result = parseTypeStructure(processingContext, type, node, excludedFQN, ignoreDependencies);
+    } finally {
+        dependencyCollectors.pop();
+    }
+
+    const parentCollector = dependencyCollectors.at(-1);
+    if (parentCollector) {
+        parentCollector.dependencies.push(...collector.dependencies);
+        parentCollector.cacheable &&= collector.cacheable;
+    }
+    if (collector.cacheable) {
+        let typeEntries = cache.get(type);
+        if (!typeEntries) {
+            typeEntries = new Map();
+            cache.set(type, typeEntries);
+        }
+        typeEntries.set(cacheKey, { type: result, dependencies: collector.dependencies });
+    }
+    return result;
+}
+
+function getParsedTypeCacheKey(excludedFQN: string | undefined, ignoreDependencies: boolean): string {
+    return (ignoreDependencies ? "i" : "d") + (excludedFQN ?? "");
+}
+
+/**
+ * Registers a dependency of the current scope and records it for the cache entries of all types currently being parsed.
+ */
+function registerTypeDependency(processingContext: ProcessingContext, fqn: string, resolveFQN: boolean) {
+    DependencyResolutionProcessor.registerDependency(processingContext.localContexts, fqn, resolveFQN);
+    const collector = dependencyCollectors.at(-1);
+    if (collector) {
+        collector.dependencies.push(fqn);
+        collector.cacheable &&= !resolveFQN;
+    }
+}
+
+/**
+ * Returns the type of the symbol at the given node, e.g. of a parameter or a property of an anonymous type.
+ * As it may depend on the node (e.g. if it is narrowed there), the types currently being parsed are not cached.
+ */
+function getTypeOfSymbolAtNode(processingContext: ProcessingContext, symbol: Symbol, node: Node): Type {
+    const collector = dependencyCollectors.at(-1);
+    if (collector) {
+        collector.cacheable = false;
+    }
+    return processingContext.globalContext.typeChecker.getTypeOfSymbolAtLocation(symbol, node);
+}
+
+function parseTypeStructure(processingContext: ProcessingContext, type: Type, node: Node, excludedFQN?: string, ignoreDependencies = false): LCEType {
     const globalContext = processingContext.globalContext;
     const tc = globalContext.typeChecker;
 
@@ -419,11 +522,15 @@ function parseType(processingContext: ProcessingContext, type: Type, node: Node,
         // TODO: handle locally defined (non-)anonymous types (e.g. with class expressions)
 
         if (!ignoreDependencies && !isStandardLibrary)
-            DependencyResolutionProcessor.registerDependency(processingContext.localContexts, normalizedFQN, scheduleFqnResolution);
+            registerTypeDependency(processingContext, normalizedFQN, scheduleFqnResolution);
 
         const result = new LCETypeDeclared(normalizedFQN, typeArguments);
         if (scheduleFqnResolution) {
             DependencyResolutionProcessor.scheduleFqnResolution(processingContext.localContexts, fqn, result);
+            const collector = dependencyCollectors.at(-1);
+            if (collector) {
+                collector.cacheable = false;
+            }
         }
         return result;
     }
@@ -456,7 +563,7 @@ function parseAnonymousType(
         const paramSyms = signature.getParameters();
         for (let i = 0; i < paramSyms.length; i++) {
             const parameterSym = paramSyms[i];
-            const paramType = tc.getTypeOfSymbolAtLocation(parameterSym, node);
+            const paramType = getTypeOfSymbolAtNode(processingContext, parameterSym, node);
             const paramNode = parameterSym.getDeclarations();
             const optional = paramNode ? tc.isOptionalParameter(paramNode[0] as ParameterDeclaration) : false;
             parameters.push(
@@ -480,7 +587,7 @@ function parseAnonymousType(
                 const optional = !!propSignature.questionToken;
                 const readonly = !!propSignature.modifiers && propSignature.modifiers.some(mod => mod.kind === ts.SyntaxKind.ReadonlyKeyword);
 
-                const propType = tc.getTypeOfSymbolAtLocation(prop, node);
+                const propType = getTypeOfSymbolAtNode(processingContext, prop, node);
                 members.push(new LCETypeObjectMember(
                     prop.name,
                     parseType(processingContext, propType, node, excludedFQN, ignoreDependencies),
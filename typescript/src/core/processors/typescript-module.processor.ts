@@ -12,7 +12,7 @@ export class ModuleProcessor extends Processor {
 
     public override postChildrenProcessing({ globalContext, localContexts, node }: ProcessingContext): ConceptMap {
         if (node.type === AST_NODE_TYPES.Program) {
-            const module = new LCEModule(globalContext.sourceFilePath, PathUtils.toGraphPath(globalContext.sourceFilePath));
+            const module = new LCEModule(globalContext.sourceFilePath, PathUtils.toGraphPath(globalContext.sourceFilePath), globalContext.contentHash);
             return singleEntryConceptMap(LCEModule.conceptId, module);
         }
         return new Map();
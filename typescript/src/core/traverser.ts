@@ -40,7 +40,7 @@ export abstract class Traverser {
         const childConcepts = this.traverseChildren(processingContext, processors);
 
         // post-processing
-        const concepts: ConceptMap[] = [];
+        const concepts: ConceptMap[] = [childConcepts];
         if (validProcessors) {
             for (const proc of validProcessors) {
                 concepts.push(proc.postChildrenProcessing(processingContext, childConcepts));
@@ -51,7 +51,27 @@ export abstract class Traverser {
         processingContext.localContexts.popContexts();
 
         // unify created concepts and remaining childConcepts under current parentPropName
-        return unifyConceptMap(mergeConceptMaps(childConcepts, ...concepts), traverserContext.parentPropName);
+        return Traverser.unifyConcepts(concepts, traverserContext.parentPropName);
+    }
+
+    /**
+     * Same as `unifyConceptMap(mergeConceptMaps(...conceptMaps), parentPropName)`, but without allocating new maps if at most one of
+     * the maps is not empty, as for most nodes without processors.
+     */
+    private static unifyConcepts(conceptMaps: ConceptMap[], parentPropName: string): ConceptMap {
+        let single: ConceptMap | undefined;
+        for (const conceptMap of conceptMaps) {
+            if (conceptMap.size > 0) {
+                if (single) {
+                    return unifyConceptMap(mergeConceptMaps(...conceptMaps), parentPropName);
+                }
+                single = conceptMap;
+            }
+        }
+        if (!single) {
+            return conceptMaps[0];
+        }
+        return single.size === 1 && single.has(parentPropName) ? single : unifyConceptMap(single, parentPropName);
     }
 
     public abstract traverseChildren(processingContext: ProcessingContext, processors: ProcessorMap): ConceptMap;
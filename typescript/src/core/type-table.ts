@@ -0,0 +1,136 @@
+/** concept id under which the type table is written to the report */
+export const TYPE_TABLE_ID = "type-table";
+
+/** kinds of all types, see `LCEType` */
+const TYPE_KINDS = new Set(["primitive", "declared", "union", "intersection", "object", "function", "type-parameter", "literal", "tuple", "not-identified"]);
+
+/** properties of class and interface declarations that hold declared types, which are always written inline */
+const INLINE_TYPE_PROPERTIES = new Set(["extendsClass", "implementsInterfaces", "extendsInterfaces"]);
+
+/** reference to an entry of a type table, as written to the report */
+export interface TypeTableReference {
+    type: "ref";
+    id: number;
+}
+
+/**
+ * Collects the distinct types of a report, so that each of them is written only once.
+ *
+ * `convert` returns a plain copy of the given concepts in which every type is replaced by a reference `{"type":"ref","id":<n>}`
+ * to its entry in the table. Structurally identical types share the same entry.
+ * The entries reference their nested types the same way, always by a lower id, so that the table can be read in order.
+ *
+ * Types referencing type parameters or declaring them (generic function types) are kept inline, as they have to be
+ * resolved within the scope they are used in. The same applies to the base types of classes and interfaces.
+ * Nested types of inline types are still replaced by references.
+ */
+export class TypeTable {
+
+    private readonly entries: object[] = [];
+
+    private readonly ids = new Map<string, number>();
+
+    private readonly references: TypeTableReference[] = [];
+
+    /** converted types, by the original type object */
+    private readonly convertedTypes = new WeakMap<object, object>();
+
+    /** index of the first entry that has not been returned by `takeNewEntries` yet */
+    private newEntriesStart = 0;
+
+    /** indicates whether the type that is currently converted contains an inline type */
+    private containsInlineType = false;
+
+    /**
+     * @returns a copy of the given value (concepts, arrays or maps of them) with all types replaced by table references
+     */
+    convert<T>(value: T): T {
+        return this.convertValue(value) as T;
+    }
+
+    /**
+     * @returns all entries of the table, the index of an entry is its id
+     */
+    getEntries(): object[] {
+        return this.entries;
+    }
+
+    /**
+     * @returns the entries that have been added since the last call, so that they can be written before the concepts using them
+     */
+    takeNewEntries(): object[] {
+        const newEntries = this.entries.slice(this.newEntriesStart);
+        this.newEntriesStart = this.entries.length;
+        return newEntries;
+    }
+
+    private convertValue(value: unknown): unknown {
+        if (value === null || typeof value !== "object") {
+            return value;
+        } else if (Array.isArray(value)) {
+            return value.map((item) => this.convertValue(item));
+        } else if (value instanceof Map) {
+            return this.convertObject(Object.fromEntries(value.entries()));
+        } else if (TypeTable.isType(value)) {
+            return this.convertType(value);
+        } else {
+            return this.convertObject(value);
+        }
+    }
+
+    private convertObject(value: object): Record<string, unknown> {
+        const result: Record<string, unknown> = {};
+        for (const [key, propValue] of Object.entries(value)) {
+            result[key] = INLINE_TYPE_PROPERTIES.has(key) ? this.convertInline(propValue) : this.convertValue(propValue);
+        }
+        return result;
+    }
+
+    /**
+     * converts the given type (or array of types) without replacing it by a reference
+     */
+    private convertInline(value: unknown): unknown {
+        if (Array.isArray(value)) {
+            return value.map((item) => this.convertInline(item));
+        } else if (value !== null && typeof value === "object") {
+            return this.convertObject(value);
+        }
+        return value;
+    }
+
+    private convertType(type: { type: string; typeParameters?: unknown[] }): object {
+        let result = this.convertedTypes.get(type);
+        if (result) {
+            this.containsInlineType ||= (result as TypeTableReference).type !== "ref";
+            return result;
+        }
+
+        const outerContainsInlineType = this.containsInlineType;
+        this.containsInlineType = false;
+        const converted = this.convertObject(type);
+        const inline = this.containsInlineType || type.type === "type-parameter" ||
+            (type.type === "function" && (type.typeParameters?.length ?? 0) > 0);
+        this.containsInlineType = outerContainsInlineType || inline;
+
+        result = inline ? converted : this.reference(converted);
+        this.convertedTypes.set(type, result);
+        return result;
+    }
+
+    private reference(converted: object): TypeTableReference {
+        const key = JSON.stringify(converted, (_, value) => typeof value === "bigint" ? value.toString() : value);
+        let id = this.ids.get(key);
+        if (id === undefined) {
+            id = this.entries.length;
+            this.entries.push(converted);
+            this.ids.set(key, id);
+            this.references.push({ type: "ref", id });
+        }
+        return this.references[id];
+    }
+
+    private static isType(value: object): value is { type: string } {
+        const kind = (value as { type?: unknown }).type;
+        return typeof kind === "string" && TYPE_KINDS.has(kind);
+    }
+}
@@ -1,20 +1,31 @@
 import { PathUtils } from "./path.utils";
 import path from "path";
-import { FileUtils } from "./file.utils";
 import * as fs from "fs";
 import ts, { ParsedCommandLine } from "typescript";
 
 export class NodeUtils {
-    private static packageMappings = new Map();
+    /**
+     * maps directories to the name of the Node.js package containing them, `undefined` if they are not part of a package
+     * (filled while searching for `package.json` files and by the module resolution)
+     */
+    private static packageNames: Map<string, string | undefined> = new Map();
 
     /**
      * maps project root paths to a map of additional paths to be considered for resolving import paths
      */
     private static tsConfigs: Map<string, ParsedCommandLine> = new Map();
 
+    /**
+     * maps project root paths to the cache used for all module resolutions within the project
+     */
+    private static moduleResolutionCaches: Map<string, ts.ModuleResolutionCache> = new Map();
+
     /**
      * Tries to determine the Node.js package name for a given source file path.
      * Tries to resolve @types/* packages to their implementation counterparts.
+     *
+     * The directories from the file up to the project root are searched for a `package.json` declaring a name.
+     * The result is cached for every visited directory, so that each directory is only checked once.
      */
     public static getPackageNameForPath(projectRootPath: string, pathToPackageFile: string): string | undefined {
         if (PathUtils.getPathType(pathToPackageFile) === "node") {
@@ -23,31 +34,47 @@ export class NodeUtils {
         if (PathUtils.getPathType(pathToPackageFile) === "relative") {
             pathToPackageFile = path.resolve(projectRootPath, pathToPackageFile);
         }
-        const packagePath = path.dirname(pathToPackageFile);
-        if (this.packageMappings.has(packagePath)) {
-            return this.packageMappings.get(packagePath)!;
-        }
 
-        let currentPath = packagePath;
+        const visitedPaths: string[] = [];
+        let packageName: string | undefined;
+        let currentPath = path.dirname(pathToPackageFile);
         while (currentPath !== projectRootPath && !path.relative(projectRootPath, currentPath).startsWith("..")) {
-            const allFiles = FileUtils.getAllFiles(currentPath).map((f) => f.replace(/\\/g, "/"));
-            for (const file of allFiles) {
-                if (path.basename(file) === "package.json") {
-                    const data = fs.readFileSync(file, "utf8");
-                    const json = JSON.parse(data);
-
-                    let packageName = json["name"];
-                    if (packageName && typeof packageName === "string") {
-                        if (packageName.startsWith("@types/")) {
-                            packageName = packageName.substring(7); // remove @types/ prefix
-                        }
-                        this.packageMappings.set(packagePath, packageName);
-                        return packageName;
-                    }
-                }
+            if (this.packageNames.has(currentPath)) {
+                packageName = this.packageNames.get(currentPath);
+                break;
+            }
+            visitedPaths.push(currentPath);
+            packageName = this.readPackageName(path.join(currentPath, "package.json"));
+            const parentPath = path.dirname(currentPath);
+            if (packageName || parentPath === currentPath) {
+                break;
             }
-            currentPath = path.dirname(currentPath);
+            currentPath = parentPath;
+        }
+        for (const visitedPath of visitedPaths) {
+            this.packageNames.set(visitedPath, packageName);
+        }
+        return packageName;
+    }
+
+    /**
+     * @returns the name declared by the given `package.json` without a leading `@types/`, `undefined` if the file does not
+     * exist or does not declare a name
+     */
+    private static readPackageName(packageJsonPath: string): string | undefined {
+        if (!fs.existsSync(packageJsonPath)) {
+            return undefined;
         }
+        try {
+            const packageName = JSON.parse(fs.readFileSync(packageJsonPath, "utf8"))["name"];
+            return packageName && typeof packageName === "string" ? this.stripTypesScope(packageName) : undefined;
+        } catch (e) {
+            return undefined;
+        }
+    }
+
+    private static stripTypesScope(packageName: string): string {
+        return packageName.startsWith("@types/") ? packageName.substring(7) : packageName;
     }
 
     /**
@@ -62,6 +89,16 @@ export class NodeUtils {
         }
         const tsconfig = this.tsConfigs.get(projectRootPath)!;
 
+        let moduleResolutionCache = this.moduleResolutionCaches.get(projectRootPath);
+        if (!moduleResolutionCache) {
+            moduleResolutionCache = ts.createModuleResolutionCache(
+                projectRootPath,
+                (fileName) => (ts.sys.useCaseSensitiveFileNames ? fileName : fileName.toLowerCase()),
+                tsconfig.options,
+            );
+            this.moduleResolutionCaches.set(projectRootPath, moduleResolutionCache);
+        }
+
         let tsResolvedModule: string | undefined;
         try {
             const module = ts.resolveModuleName(
@@ -69,8 +106,14 @@ export class NodeUtils {
                 path.resolve(projectRootPath, sourceFilePath),
                 tsconfig.options,
                 this.moduleResolutionHost,
+                moduleResolutionCache,
             );
             tsResolvedModule = module.resolvedModule?.resolvedFileName;
+            // the package of a module resolved from node_modules is known without searching for its package.json
+            const packageId = module.resolvedModule?.packageId;
+            if (tsResolvedModule && packageId && !this.packageNames.has(path.dirname(tsResolvedModule))) {
+                this.packageNames.set(path.dirname(tsResolvedModule), this.stripTypesScope(packageId.name));
+            }
         } catch (e) {}
         if (tsResolvedModule) {
             return tsResolvedModule.replace(/\\/g, "/");
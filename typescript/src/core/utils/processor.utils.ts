@@ -1,4 +1,4 @@
-import { ConceptMap, LCEConcept } from "../concept";
+import { ConceptMap, LCEConcept, releaseConcepts } from "../concept";
 import { LCEValue, valueConceptIds } from "../concepts/value.concept";
 import { LocalContexts } from "../context";
 import { Traverser, TraverserContext } from "../traverser";
@@ -10,7 +10,7 @@ export function getAndDeleteChildConcepts<T extends LCEConcept>(propName: string
     const result = propConcepts.get(conceptId) ?? [];
     propConcepts.delete(conceptId);
     if (propConcepts.size == 0) childConcepts.delete(propName);
-    return result as T[];
+    return releaseConcepts(result as T[]);
 }
 
 export function getAndDeleteAllValueChildConcepts(propName: string, childConcepts: ConceptMap): LCEValue[] {
@@ -25,7 +25,7 @@ export function getChildConcepts<T extends LCEConcept>(propName: string, concept
     const propConcepts = childConcepts.get(propName);
     if (!propConcepts) return [];
     const result = propConcepts.get(conceptId) ?? [];
-    return result as T[];
+    return releaseConcepts(result as T[]);
 }
 
 export function getParentPropName(localContexts: LocalContexts): string {
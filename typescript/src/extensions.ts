@@ -0,0 +1,10 @@
+import { initializeReactExtractor } from "./react/react-extractor";
+
+/**
+ * Initializes the extensions with the given names, unknown names are ignored.
+ */
+export function initializeExtensions(extensions: string[]) {
+    if(extensions.includes("react")) {
+        initializeReactExtractor();
+    }
+}
@@ -0,0 +1,15 @@
+import { parentPort, workerData } from "worker_threads";
+import { ExtractionWorkerData, ExtractionWorkerMessage, extractFiles } from "./core/extractor";
+import { ExtractionCache } from "./core/extraction-cache";
+import { initializeExtensions } from "./extensions";
+
+/**
+ * Worker thread extracting the concepts of a partition of the project files, see `processProject`.
+ */
+const data = workerData as ExtractionWorkerData;
+const port = parentPort!;
+initializeExtensions(data.extensions);
+
+const cache = data.cache ? new ExtractionCache(data.projectRoot, data.extensions) : undefined;
+const result = extractFiles(data.projectRoot, data.fileList, cache, () => port.postMessage({ type: "progress" } as ExtractionWorkerMessage));
+port.postMessage({ type: "result", result } as ExtractionWorkerMessage);
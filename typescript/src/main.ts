@@ -3,7 +3,7 @@
 import { program } from "commander";
 import { processAndOutputResult } from "./core/extractor";
 import packageInfo from "../package.json";
-import { initializeReactExtractor } from "./react/react-extractor";
+import { initializeExtensions } from "./extensions";
 
 
 // Setup CLI
@@ -14,7 +14,12 @@ program
     .version(packageInfo.version)
     .argument("[path]", "path to the root of the TypeScript project to be scanned", ".")
     .option("-e, --extension [extensions...]", "space separated list of extensions to activate")
-    .option("-p, --pretty", "pretty-print JSON result report");
+    .option("-p, --pretty", "pretty-print JSON result report")
+    .option("-s, --shard", "split the JSON result report into one file per source directory and a manifest")
+    .option("-n, --ndjson", "write the result report as NDJSON with one concept per line")
+    .option("-t, --type-table", "write each distinct type once to a type table that is referenced by id")
+    .option("-c, --cache", "reuse the concepts of files that did not change since the previous run")
+    .option("-w, --workers <number>", "number of worker threads extracting the project files in parallel", "1");
 program.parse();
 
 // retrieve CLI arguments and options
@@ -22,13 +27,19 @@ const options = program.opts();
 
 const extensions: string[] = options.extension ?? [];
 const prettyPrint = !!options.pretty;
+const shard = !!options.shard;
+const ndjson = !!options.ndjson;
+const cache = !!options.cache;
+const typeTable = !!options.typeTable;
+if (shard && ndjson) {
+    program.error("The options --shard and --ndjson cannot be combined");
+}
+const workers = Math.max(parseInt(options.workers, 10) || 1, 1);
 
 const projectRootPath: string = program.processedArgs[0];
 
 // initialize extensions
-if(extensions.includes("react")) {
-    initializeReactExtractor();
-}
+initializeExtensions(extensions);
 
 // initializeReactExtractor();
-processAndOutputResult(projectRootPath, {prettyPrint});
+processAndOutputResult(projectRootPath, {prettyPrint, shard, ndjson, typeTable, cache, workers, extensions});
@@ -0,0 +1,184 @@
+import * as fs from "fs";
+import * as os from "os";
+import path from "path";
+
+import { PhaseTimes, processProject } from "../../src/core/extractor";
+import { GeneratorOptions, SCENARIOS, generateProject } from "./project-generator";
+
+/**
+ * Measures the extraction of a synthetic project and compares it with the stored baseline of the scenario.
+ *
+ * Usage: `npm run benchmark -- [scenario] [--modules N] [--fan-out N] [--generic-ratio R] [--chain N]
+ * [--workers N] [--tolerance R] [--update-baseline]`
+ *
+ * The project is generated into the temp directory once per configuration and reused by later runs.
+ * Baselines are stored in `test/benchmark/baselines/<scenario>.json`. A run whose wall time, phase time or peak RSS exceeds
+ * the baseline by more than the tolerance (default 0.2, i.e. 20%) is reported as regression and exits with code 1.
+ * Results contain the machine they have been measured on, a comparison with a baseline of another machine is only reported
+ * with a warning.
+ * Peak RSS is the maximum of the whole benchmark process, as reported by `process.resourceUsage()`.
+ */
+
+interface BenchmarkResult {
+    scenario: string;
+    options: GeneratorOptions;
+    workers: number;
+    files: number;
+    concepts: number;
+    wallTime: number;
+    phases: PhaseTimes;
+    peakRssMb: number;
+    nodeVersion: string;
+    /** machine the result has been measured on, not contained in baselines recorded before it was added */
+    machine?: Machine;
+    date: string;
+}
+
+interface Machine {
+    platform: string;
+    arch: string;
+    cpu: string;
+    cores: number;
+    memoryGb: number;
+}
+
+const BASELINE_DIR = path.join(__dirname, "baselines");
+
+async function main() {
+    const args = process.argv.slice(2);
+    const scenario = args.length > 0 && !args[0].startsWith("--") ? args[0] : "small";
+    if (!SCENARIOS[scenario]) {
+        console.log("Unknown scenario \"" + scenario + "\", available: " + Object.keys(SCENARIOS).join(", "));
+        process.exit(2);
+    }
+    const options: GeneratorOptions = {
+        ...SCENARIOS[scenario],
+        modules: numberArg(args, "--modules") ?? SCENARIOS[scenario].modules,
+        importFanOut: numberArg(args, "--fan-out") ?? SCENARIOS[scenario].importFanOut,
+        genericRatio: numberArg(args, "--generic-ratio") ?? SCENARIOS[scenario].genericRatio,
+        reexportChainLength: numberArg(args, "--chain") ?? SCENARIOS[scenario].reexportChainLength,
+    };
+    const tolerance = numberArg(args, "--tolerance") ?? 0.2;
+    const workers = numberArg(args, "--workers") ?? 1;
+
+    const projectRoot = prepareProject(options);
+
+    const phases: PhaseTimes = { fileListing: 0, fileReading: 0, programCreation: 0, extraction: 0, postProcessing: 0 };
+    const startTime = process.hrtime();
+    const concepts = await processProject(projectRoot, { workers }, phases);
+    const wallTime = process.hrtime(startTime);
+
+    const result: BenchmarkResult = {
+        scenario: scenario,
+        options: options,
+        workers: workers,
+        files: options.modules + options.reexportChainLength,
+        concepts: Array.from(concepts.values()).reduce((sum, c) => sum + c.length, 0),
+        wallTime: wallTime[0] + wallTime[1] / 10**9,
+        phases: phases,
+        peakRssMb: process.resourceUsage().maxRSS / 1024,
+        nodeVersion: process.version,
+        machine: currentMachine(),
+        date: new Date().toISOString(),
+    };
+    console.log(JSON.stringify(result, undefined, 2));
+
+    const baselineFile = path.join(BASELINE_DIR, scenario + ".json");
+    const customized = JSON.stringify(options) !== JSON.stringify(SCENARIOS[scenario]) || workers !== 1;
+    if (args.includes("--update-baseline") || (!customized && !fs.existsSync(baselineFile))) {
+        fs.mkdirSync(BASELINE_DIR, { recursive: true });
+        fs.writeFileSync(baselineFile, JSON.stringify(result, undefined, 2) + "\n");
+        console.log("Baseline written to " + baselineFile);
+    } else if (customized) {
+        console.log("Options differ from the scenario, skipping the comparison with the baseline");
+    } else {
+        const baseline: BenchmarkResult = JSON.parse(fs.readFileSync(baselineFile, "utf8"));
+        if (!compare(result, baseline, tolerance)) {
+            process.exitCode = 1;
+        }
+    }
+}
+
+/**
+ * Generates the project, unless it already exists for the same options.
+ * @returns the project root
+ */
+function prepareProject(options: GeneratorOptions): string {
+    const projectRoot = path.join(os.tmpdir(), "jqa-ts-lce-benchmark", hashOptions(options));
+    const optionsFile = path.join(projectRoot, "generator-options.json");
+    if (fs.existsSync(optionsFile) && fs.readFileSync(optionsFile, "utf8") === JSON.stringify(options)) {
+        console.log("Using existing synthetic project " + projectRoot);
+        return projectRoot;
+    }
+    console.log("Generating synthetic project with " + options.modules + " modules in " + projectRoot + "...");
+    fs.rmSync(projectRoot, { recursive: true, force: true });
+    generateProject(projectRoot, options);
+    // written last, so that an interrupted generation is repeated
+    fs.writeFileSync(optionsFile, JSON.stringify(options));
+    return projectRoot;
+}
+
+/**
+ * Prints current and baseline values.
+ * @returns `false` if a value exceeds the baseline by more than the tolerance
+ */
+function compare(result: BenchmarkResult, baseline: BenchmarkResult, tolerance: number): boolean {
+    const metrics: [string, number, number][] = [
+        ["wall time (s)", result.wallTime, baseline.wallTime],
+        ["file listing (s)", result.phases.fileListing, baseline.phases.fileListing],
+        ["file reading (s)", result.phases.fileReading, baseline.phases.fileReading],
+        // baselines recorded before the program was created up front do not contain its time
+        ["program creation (s)", result.phases.programCreation, baseline.phases.programCreation ?? 0],
+        ["extraction (s)", result.phases.extraction, baseline.phases.extraction],
+        ["post-processing (s)", result.phases.postProcessing, baseline.phases.postProcessing],
+        ["peak RSS (MB)", result.peakRssMb, baseline.peakRssMb],
+    ];
+    let passed = true;
+    console.log("Comparison with baseline of " + baseline.date + " (tolerance " + (tolerance * 100).toFixed(0) + "%):");
+    if (JSON.stringify(result.machine) !== JSON.stringify(baseline.machine)) {
+        console.log("  WARNING: the baseline has been recorded on " + describeMachine(baseline.machine) + ", this run on " +
+            describeMachine(result.machine) + ", times are not comparable");
+    }
+    for (const [name, current, previous] of metrics) {
+        const change = previous > 0 ? (current - previous) / previous : 0;
+        const regression = change > tolerance;
+        passed = passed && !regression;
+        console.log("  " + name.padEnd(20) + current.toFixed(3).padStart(12) + previous.toFixed(3).padStart(12) +
+            ((change >= 0 ? "+" : "") + (change * 100).toFixed(1) + "%").padStart(10) + (regression ? "  REGRESSION" : ""));
+    }
+    if (result.concepts !== baseline.concepts) {
+        console.log("  number of extracted concepts changed from " + baseline.concepts + " to " + result.concepts);
+    }
+    return passed;
+}
+
+function currentMachine(): Machine {
+    const cpus = os.cpus();
+    return {
+        platform: os.platform(),
+        arch: os.arch(),
+        cpu: cpus.length > 0 ? cpus[0].model.trim() : "unknown",
+        cores: cpus.length,
+        memoryGb: Math.round(os.totalmem() / 1024 ** 3),
+    };
+}
+
+function describeMachine(machine?: Machine): string {
+    return machine ? machine.cpu + " (" + machine.cores + " cores, " + machine.memoryGb + " GB, " + machine.platform + "-" + machine.arch + ")" :
+        "an unknown machine";
+}
+
+function numberArg(args: string[], name: string): number | undefined {
+    const index = args.indexOf(name);
+    return index >= 0 && index + 1 < args.length ? Number(args[index + 1]) : undefined;
+}
+
+function hashOptions(options: GeneratorOptions): string {
+    let hash = 0;
+    for (const c of JSON.stringify(options)) {
+        hash = (Math.imul(hash, 31) + c.charCodeAt(0)) | 0;
+    }
+    return (hash >>> 0).toString(16);
+}
+
+main();
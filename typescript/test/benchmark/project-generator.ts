@@ -0,0 +1,230 @@
+import * as fs from "fs";
+import path from "path";
+
+/**
+ * Dimensions of a synthetic project, see `generateProject`.
+ */
+export interface GeneratorOptions {
+    /** number of regular modules */
+    modules: number;
+    /** number of modules per source directory */
+    modulesPerDirectory: number;
+    /** classes per module, at least one */
+    classesPerModule: number;
+    interfacesPerModule: number;
+    /** share of classes, interfaces and functions that declare type parameters (0 to 1) */
+    genericRatio: number;
+    /** number of other modules each module imports from */
+    importFanOut: number;
+    /** length of the chain of modules re-exporting each other, `0` disables re-exports */
+    reexportChainLength: number;
+    seed: number;
+}
+
+export const SCENARIOS: Record<string, GeneratorOptions> = {
+    small: {
+        modules: 1000,
+        modulesPerDirectory: 50,
+        classesPerModule: 2,
+        interfacesPerModule: 1,
+        genericRatio: 0.3,
+        importFanOut: 3,
+        reexportChainLength: 5,
+        seed: 1,
+    },
+    medium: {
+        modules: 10000,
+        modulesPerDirectory: 100,
+        classesPerModule: 2,
+        interfacesPerModule: 1,
+        genericRatio: 0.3,
+        importFanOut: 4,
+        reexportChainLength: 10,
+        seed: 1,
+    },
+    large: {
+        modules: 100000,
+        modulesPerDirectory: 100,
+        classesPerModule: 2,
+        interfacesPerModule: 1,
+        genericRatio: 0.3,
+        importFanOut: 4,
+        reexportChainLength: 20,
+        seed: 1,
+    },
+};
+
+/**
+ * Writes a TypeScript project with `tsconfig.json` into the given (empty or non-existing) directory.
+ *
+ * Module `i` is written to `src/d<i / modulesPerDirectory>/m<i>.ts` and declares classes `C<i>_<k>`, interfaces `I<i>_<k>`,
+ * a type alias, a function and a variable.
+ * Each module imports from `importFanOut` randomly chosen modules with lower index, so that the imports are acyclic.
+ * The modules `src/reexport/chain<k>.ts` re-export everything from their predecessor, the first one from module 0.
+ * Modules import from the end of this chain in turn.
+ *
+ * The generated project only depends on the options, including the seed.
+ */
+export function generateProject(root: string, options: GeneratorOptions): void {
+    if (options.modules < 1 || options.classesPerModule < 1 || options.modulesPerDirectory < 1) {
+        throw new Error("A synthetic project requires at least one module with one class");
+    }
+    const random = seededRandom(options.seed);
+    fs.mkdirSync(path.join(root, "src"), { recursive: true });
+    fs.writeFileSync(path.join(root, "tsconfig.json"), JSON.stringify({
+        include: ["./src/**/*"],
+        compilerOptions: {
+            target: "ESNext",
+            module: "ESNext",
+            moduleResolution: "node",
+            strict: true,
+            skipLibCheck: true,
+        },
+    }, undefined, 2));
+
+    for (let k = 0; k < options.reexportChainLength; k++) {
+        const source = k === 0 ? modulePath(0, options) : chainPath(k - 1);
+        writeModule(root, chainPath(k), `export * from "${importSpecifier(chainPath(k), source)}";\n`);
+    }
+
+    for (let i = 0; i < options.modules; i++) {
+        writeModule(root, modulePath(i, options), generateModule(i, options, random));
+    }
+}
+
+function generateModule(i: number, options: GeneratorOptions, random: () => number): string {
+    const file = modulePath(i, options);
+    const lines: string[] = [];
+
+    // imports of random modules with lower index and of the re-export chain
+    const imported: number[] = [];
+    for (let n = 0; n < Math.min(options.importFanOut, i); n++) {
+        const j = Math.floor(random() * i);
+        if (!imported.includes(j)) {
+            imported.push(j);
+            const names = options.interfacesPerModule > 0 ? `C${j}_0, I${j}_0` : `C${j}_0`;
+            lines.push(`import { ${names} } from "${importSpecifier(file, modulePath(j, options))}";`);
+        }
+    }
+    const chained = options.reexportChainLength > 0 && i > 0 && i % 10 === 0;
+    if (chained) {
+        lines.push(`import { C0_0 as Chained${i} } from "${importSpecifier(file, chainPath(options.reexportChainLength - 1))}";`);
+    }
+    lines.push("");
+
+    const target = imported.length > 0 && options.interfacesPerModule > 0 ? imported[0] : undefined;
+    for (let k = 0; k < options.interfacesPerModule; k++) {
+        const generic = isGeneric("interface", i, k, options);
+        lines.push(`export interface I${i}_${k}${generic ? "<T>" : ""} {`);
+        lines.push(`    id: ${generic ? "T" : "number"};`);
+        lines.push(`    name?: string;`);
+        if (target !== undefined) {
+            lines.push(`    related${i}: ${interfaceRef(target, options)}[];`);
+        }
+        lines.push(`}`);
+        lines.push("");
+    }
+
+    for (let k = 0; k < options.classesPerModule; k++) {
+        const generic = isGeneric("class", i, k, options);
+        const typeParameters = generic ? "<T extends object>" : "";
+        const extended = k === 0 && imported.length > 0 ? ` extends ${classRef(imported[0], options)}` : "";
+        const implemented = k < options.interfacesPerModule ?
+            ` implements I${i}_${k}${isGeneric("interface", i, k, options) ? "<number>" : ""}` : "";
+        lines.push(`export class C${i}_${k}${typeParameters}${extended}${implemented} {`);
+        lines.push(`    id = ${k};`);
+        if (k < options.interfacesPerModule) {
+            lines.push(`    name?: string;`);
+            if (target !== undefined) {
+                lines.push(`    related${i}: ${interfaceRef(target, options)}[] = [];`);
+            }
+        }
+        for (const j of imported.slice(1)) {
+            lines.push(`    field${i}_${j}?: ${classRef(j, options)};`);
+        }
+        if (chained) {
+            lines.push(`    chained${i}?: Chained${i}${isGeneric("class", 0, 0, options) ? "<object>" : ""};`);
+        }
+        const valueType = generic ? "T" : "number";
+        lines.push(`    method${i}_${k}(value: ${valueType}, flag: boolean): ${valueType}[] {`);
+        lines.push(`        return flag ? [value] : [];`);
+        lines.push(`    }`);
+        lines.push(`}`);
+        lines.push("");
+    }
+
+    const generic = isGeneric("function", i, 0, options);
+    lines.push(`export type Alias${i} = ${classRef(i, options)} | { key: string; values: Array<${classRef(i, options)}> };`);
+    lines.push("");
+    if (generic) {
+        lines.push(`export function create${i}<T>(input: T): Promise<T> {`);
+        lines.push(`    return Promise.resolve(input);`);
+    } else {
+        lines.push(`export function create${i}(input: string): ${classRef(i, options)} {`);
+        lines.push(`    return new C${i}_0();`);
+    }
+    lines.push(`}`);
+    lines.push("");
+    lines.push(`export const instance${i} = { id: ${i}, label: "module ${i}", nested: { values: [1, 2, 3] } };`);
+    lines.push("");
+    return lines.join("\n");
+}
+
+/**
+ * @returns a reference to the first class of module `j`, including type arguments if it is generic
+ */
+function classRef(j: number, options: GeneratorOptions): string {
+    return `C${j}_0` + (isGeneric("class", j, 0, options) ? "<object>" : "");
+}
+
+/**
+ * @returns a reference to the first interface of module `j`, including type arguments if it is generic
+ */
+function interfaceRef(j: number, options: GeneratorOptions): string {
+    return `I${j}_0` + (isGeneric("interface", j, 0, options) ? "<unknown>" : "");
+}
+
+/**
+ * Decides whether a declaration declares type parameters, independent of the order in which the modules are generated.
+ */
+function isGeneric(kind: string, module: number, index: number, options: GeneratorOptions): boolean {
+    let hash = options.seed ^ 0x9e3779b9;
+    for (const value of [kind.length, module, index]) {
+        hash = Math.imul(hash ^ value, 0x85ebca6b);
+        hash ^= hash >>> 13;
+    }
+    return (hash >>> 0) / 4294967296 < options.genericRatio;
+}
+
+function writeModule(root: string, file: string, content: string) {
+    const fullPath = path.join(root, file);
+    fs.mkdirSync(path.dirname(fullPath), { recursive: true });
+    fs.writeFileSync(fullPath, content);
+}
+
+function modulePath(i: number, options: GeneratorOptions): string {
+    return `src/d${Math.floor(i / options.modulesPerDirectory)}/m${i}.ts`;
+}
+
+function chainPath(k: number): string {
+    return `src/reexport/chain${k}.ts`;
+}
+
+function importSpecifier(from: string, to: string): string {
+    const relative = path.posix.relative(path.posix.dirname(from), to).replace(/\.ts$/, "");
+    return relative.startsWith(".") ? relative : "./" + relative;
+}
+
+/**
+ * mulberry32, a small deterministic pseudo random number generator
+ */
+function seededRandom(seed: number): () => number {
+    let state = seed >>> 0;
+    return () => {
+        state = (state + 0x6d2b79f5) >>> 0;
+        let t = state;
+        t = Math.imul(t ^ (t >>> 15), t | 1);
+        t ^= t + Math.imul(t ^ (t >>> 7), t | 61);
+        return ((t ^ (t >>> 14)) >>> 0) / 4294967296;
+    };
+}
@@ -0,0 +1,103 @@
+import { ConceptAccumulator, ConceptMap, createConceptMap, getAndCastConcepts, LCEConcept, mergeConceptMaps, unifyConceptMap } from "../../src/core/concept";
+import { getAndDeleteChildConcepts, getChildConcepts } from "../../src/core/utils/processor.utils";
+
+class TestConcept extends LCEConcept {
+    public static override conceptId = "test";
+
+    constructor(public name: string) {
+        super();
+    }
+}
+
+describe("concept accumulation test", () => {
+    function concepts(...names: string[]): TestConcept[] {
+        return names.map((name) => new TestConcept(name));
+    }
+
+    function names(conceptMap: ConceptMap, propName = ""): string[] {
+        return (conceptMap.get(propName)?.get(TestConcept.conceptId) ?? []).map((concept) => (concept as TestConcept).name);
+    }
+
+    /** merges twice, so that the array of the result is owned by an accumulator */
+    function ownedConceptMap(...names: string[]): ConceptMap {
+        return mergeConceptMaps(
+            createConceptMap(TestConcept.conceptId, concepts(names[0])),
+            createConceptMap(TestConcept.conceptId, concepts(...names.slice(1))),
+        );
+    }
+
+    test("concepts are merged in order", () => {
+        const merged = mergeConceptMaps(
+            createConceptMap(TestConcept.conceptId, concepts("a")),
+            createConceptMap(TestConcept.conceptId, concepts("b", "c")),
+            createConceptMap(TestConcept.conceptId, concepts("d"), "other"),
+            createConceptMap(TestConcept.conceptId, concepts("e")),
+        );
+
+        expect(names(merged)).toEqual(["a", "b", "c", "e"]);
+        expect(names(merged, "other")).toEqual(["d"]);
+    });
+
+    test("arrays not created by an accumulator are not modified", () => {
+        const first = concepts("a");
+        const second = concepts("b");
+
+        const merged = mergeConceptMaps(createConceptMap(TestConcept.conceptId, first), createConceptMap(TestConcept.conceptId, second));
+
+        expect(names(merged)).toEqual(["a", "b"]);
+        expect(first.map((concept) => concept.name)).toEqual(["a"]);
+        expect(second.map((concept) => concept.name)).toEqual(["b"]);
+    });
+
+    test("an owned array added twice is extended by its length once", () => {
+        const owned = ownedConceptMap("a", "b");
+        const array = owned.get("")!.get(TestConcept.conceptId)!;
+
+        const merged = new ConceptAccumulator().add(owned).add(createConceptMap(TestConcept.conceptId, array)).toConceptMap();
+
+        expect(names(merged)).toEqual(["a", "b", "a", "b"]);
+    });
+
+    test("arrays handed out by getAndCastConcepts do not change with later merges", () => {
+        const owned = ownedConceptMap("a", "b");
+        const held = getAndCastConcepts<TestConcept>(TestConcept.conceptId, owned.get("")!);
+
+        const merged = mergeConceptMaps(owned, createConceptMap(TestConcept.conceptId, concepts("c")));
+
+        expect(held.map((concept) => concept.name)).toEqual(["a", "b"]);
+        expect(names(merged)).toEqual(["a", "b", "c"]);
+    });
+
+    test("arrays handed out by getChildConcepts do not change with later merges", () => {
+        const owned = ownedConceptMap("a", "b");
+        const held = getChildConcepts<TestConcept>("", TestConcept.conceptId, owned);
+
+        // merged again as the existing array of the accumulator
+        const merged = new ConceptAccumulator().add(owned).add(createConceptMap(TestConcept.conceptId, concepts("c"))).toConceptMap();
+        const mergedAgain = mergeConceptMaps(merged, createConceptMap(TestConcept.conceptId, concepts("d")));
+
+        expect(held.map((concept) => concept.name)).toEqual(["a", "b"]);
+        expect(names(mergedAgain)).toEqual(["a", "b", "c", "d"]);
+    });
+
+    test("arrays handed out by getAndDeleteChildConcepts do not change with later merges", () => {
+        const owned = unifyConceptMap(ownedConceptMap("a", "b"), "members");
+        const held = getAndDeleteChildConcepts<TestConcept>("members", TestConcept.conceptId, owned);
+
+        const merged = mergeConceptMaps(createConceptMap(TestConcept.conceptId, held, "members"), createConceptMap(TestConcept.conceptId, concepts("c"), "members"));
+
+        expect(owned.size).toBe(0);
+        expect(held.map((concept) => concept.name)).toEqual(["a", "b"]);
+        expect(names(merged, "members")).toEqual(["a", "b", "c"]);
+    });
+
+    test("an owned array is extended in place", () => {
+        const owned = ownedConceptMap("a", "b");
+        const array = owned.get("")!.get(TestConcept.conceptId)!;
+
+        const merged = mergeConceptMaps(owned, createConceptMap(TestConcept.conceptId, concepts("c")));
+
+        expect(merged.get("")!.get(TestConcept.conceptId)).toBe(array);
+        expect(names(merged)).toEqual(["a", "b", "c"]);
+    });
+});
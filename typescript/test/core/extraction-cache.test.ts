@@ -0,0 +1,124 @@
+import { createHash } from "crypto";
+import fs from "fs";
+import os from "os";
+import path from "path";
+
+import { ConceptMap } from "../../src/core/concept";
+import { ExtractionCache } from "../../src/core/extraction-cache";
+
+describe("extraction cache test", () => {
+    let projectRoot: string;
+
+    beforeEach(() => {
+        projectRoot = fs.mkdtempSync(path.join(os.tmpdir(), "jqa-cache-test-")).replace(/\\/g, "/");
+        writeFile("tsconfig.json", JSON.stringify({ compilerOptions: { target: "es2020", module: "commonjs" }, include: ["src"] }));
+        writeFile("src/model.ts", "export interface Model { id: number; }\n");
+        writeFile("src/index.ts", "export * from \"./model\";\nexport { Service } from \"./service\";\n");
+        writeFile("src/service.ts", "import { Model } from \"./model\";\nexport class Service { get(): Model | undefined { return undefined; } }\n");
+        writeFile("src/main.ts", "import { Model } from \"./index\";\nimport * as fs from \"fs\";\nexport const model: Model = { id: 1 };\n");
+        writeFile("src/unrelated.ts", "export const unrelated = 1;\n");
+    });
+
+    afterEach(() => {
+        fs.rmSync(projectRoot, { recursive: true, force: true });
+    });
+
+    function writeFile(relativePath: string, content: string) {
+        const file = path.join(projectRoot, relativePath);
+        fs.mkdirSync(path.dirname(file), { recursive: true });
+        fs.writeFileSync(file, content);
+    }
+
+    /** determines the key of a file the way a new extraction run does */
+    function getKey(relativePath: string, root = projectRoot): string {
+        const file = path.join(root, relativePath).replace(/\\/g, "/");
+        const code = fs.readFileSync(file, "utf8");
+        return new ExtractionCache(root, []).getKey(file, code, createHash("sha256").update(code).digest("hex"));
+    }
+
+    test("key is stable for unchanged files", () => {
+        expect(getKey("src/main.ts")).toBe(getKey("src/main.ts"));
+    });
+
+    test("key changes with a directly imported file", () => {
+        const key = getKey("src/main.ts");
+        writeFile("src/index.ts", "export * from \"./model\";\n");
+        expect(getKey("src/main.ts")).not.toBe(key);
+    });
+
+    test("key changes with a file re-exported by an imported barrel file", () => {
+        const key = getKey("src/main.ts");
+        writeFile("src/model.ts", "export interface Model { id: string; }\n");
+        expect(getKey("src/main.ts")).not.toBe(key);
+    });
+
+    test("key changes with a file imported through several other files", () => {
+        const key = getKey("src/main.ts");
+        writeFile("src/service.ts", "import { Model } from \"./model\";\nexport class Service { }\n");
+        expect(getKey("src/main.ts")).not.toBe(key);
+    });
+
+    test("key does not change with files that are not imported", () => {
+        const key = getKey("src/main.ts");
+        writeFile("src/unrelated.ts", "export const unrelated = 2;\n");
+        expect(getKey("src/main.ts")).toBe(key);
+    });
+
+    test("key does not change with the location of the project", () => {
+        const movedProjectRoot = fs.mkdtempSync(path.join(os.tmpdir(), "jqa-cache-test-moved-")).replace(/\\/g, "/");
+        try {
+            fs.cpSync(projectRoot, movedProjectRoot, { recursive: true });
+            expect(getKey("src/main.ts", movedProjectRoot)).toBe(getKey("src/main.ts"));
+        } finally {
+            fs.rmSync(movedProjectRoot, { recursive: true, force: true });
+        }
+    });
+
+    test("key changes with a declaration file that is not imported", () => {
+        writeFile("src/globals.d.ts", "declare const version: string;\n");
+        const key = getKey("src/unrelated.ts");
+        writeFile("src/globals.d.ts", "declare const version: number;\n");
+        expect(getKey("src/unrelated.ts")).not.toBe(key);
+    });
+
+    test("key changes with a script that is not imported", () => {
+        writeFile("src/script.ts", "const version = \"1\";\n");
+        const key = getKey("src/unrelated.ts");
+        writeFile("src/script.ts", "const version = 1;\n");
+        expect(getKey("src/unrelated.ts")).not.toBe(key);
+    });
+
+    test("key changes with a global declaration of a module that is not imported", () => {
+        writeFile("src/augmentation.ts", "export {};\ndeclare global { var version: string; }\n");
+        const key = getKey("src/unrelated.ts");
+        writeFile("src/augmentation.ts", "export {};\ndeclare global { var version: number; }\n");
+        expect(getKey("src/unrelated.ts")).not.toBe(key);
+    });
+
+    test("key changes with the lock file of the package manager", () => {
+        writeFile("package-lock.json", "{}\n");
+        const key = getKey("src/unrelated.ts");
+        writeFile("package-lock.json", "{ \"lockfileVersion\": 3 }\n");
+        expect(getKey("src/unrelated.ts")).not.toBe(key);
+    });
+
+    test("cyclic imports are followed once", () => {
+        writeFile("src/a.ts", "import { b } from \"./b\";\nexport const a = 1;\n");
+        writeFile("src/b.ts", "import { a } from \"./a\";\nexport const b = 2;\n");
+        const key = getKey("src/a.ts");
+        writeFile("src/b.ts", "import { a } from \"./a\";\nexport const b = 3;\n");
+        expect(getKey("src/a.ts")).not.toBe(key);
+    });
+
+    test("cached concepts are only returned for the same key", () => {
+        const cache = new ExtractionCache(projectRoot, []);
+        const file = path.join(projectRoot, "src/main.ts");
+        const concepts: ConceptMap = new Map([["module", new Map([["./src/main.ts", []]])]]);
+
+        cache.put(file, "key", concepts);
+
+        expect(cache.get(file, "key")).toEqual(concepts);
+        expect(cache.get(file, "other key")).toBeUndefined();
+        expect(cache.get(path.join(projectRoot, "src/model.ts"), "key")).toBeUndefined();
+    });
+});
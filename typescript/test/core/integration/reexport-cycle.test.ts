@@ -0,0 +1,57 @@
+import { processProject } from "../../../src/core/extractor";
+import { LCEConcept } from "../../../src/core/concept";
+import { LCEExportDeclaration } from "../../../src/core/concepts/export-declaration.concept";
+import { LCEDependency } from "../../../src/core/concepts/dependency.concept";
+import { expectDependency, expectExport, getDependenciesFromResult } from "../../utils/test-utils";
+
+jest.setTimeout(30000);
+
+describe("cyclic re-export test", () => {
+    let result: Map<string, LCEConcept[]>;
+    const exportDecls: Map<string, LCEExportDeclaration[]> = new Map();
+    let dependencies: Map<string, Map<string, LCEDependency>>;
+
+    beforeAll(async () => {
+        const projectRoot = "./test/core/integration/sample-projects/reexport-cycle";
+        result = await processProject(projectRoot);
+
+        for (const concept of result.get(LCEExportDeclaration.conceptId) ?? []) {
+            const exportDecl = concept as LCEExportDeclaration;
+            if (!exportDecls.has(exportDecl.sourceFilePath)) {
+                exportDecls.set(exportDecl.sourceFilePath, []);
+            }
+            exportDecls.get(exportDecl.sourceFilePath)!.push(exportDecl);
+        }
+
+        // fails for duplicate dependencies
+        dependencies = getDependenciesFromResult(result);
+    });
+
+    test("module starting the cycle (a.ts)", async () => {
+        const exports = exportDecls.get("./src/a.ts");
+        expect(exports).toBeDefined();
+        expect(exports!).toHaveLength(2);
+        expectExport(exports!, '"./src/a.ts".a', "a");
+        expectExport(exports!, '"./src/b.ts".b', "b");
+        expectDependency(dependencies, "./src/a.ts", "./src/b.ts", 1);
+    });
+
+    test("module closing the cycle (b.ts)", async () => {
+        const exports = exportDecls.get("./src/b.ts");
+        expect(exports).toBeDefined();
+        expect(exports!).toHaveLength(2);
+        expectExport(exports!, '"./src/a.ts".a', "a");
+        expectExport(exports!, '"./src/b.ts".b', "b");
+        expectDependency(dependencies, "./src/b.ts", "./src/a.ts", 1);
+    });
+
+    test("named re-exports from a module of the cycle (c.ts)", async () => {
+        const exports = exportDecls.get("./src/c.ts");
+        expect(exports).toBeDefined();
+        expect(exports!).toHaveLength(2);
+        expectExport(exports!, '"./src/a.ts".a', "a");
+        expectExport(exports!, '"./src/b.ts".b', "b");
+        expectDependency(dependencies, "./src/c.ts", '"./src/a.ts".a', 1);
+        expectDependency(dependencies, "./src/c.ts", '"./src/b.ts".b', 1);
+    });
+});
@@ -0,0 +1,3 @@
+export * from "./a";
+
+export const b = 2;
@@ -0,0 +1,7 @@
+import { Model } from "./a-model";
+
+// the type of `name` is declared by the augmentation of another partition
+export const modelName = (model: Model) => model.name;
+
+// the type of `modelCount` is declared by a global declaration of another partition
+export const count = modelCount;
@@ -0,0 +1,7 @@
+import "./a-model";
+
+declare module "./a-model" {
+    interface Model {
+        name: string;
+    }
+}
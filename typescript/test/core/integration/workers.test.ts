@@ -0,0 +1,39 @@
+import { processProject } from "../../../src/core/extractor";
+import { LCEConcept } from "../../../src/core/concept";
+import { LCEVariableDeclaration } from "../../../src/core/concepts/variable-declaration.concept";
+import { expectFunctionType, expectPrimitiveType } from "../../utils/test-utils";
+
+jest.setTimeout(60000);
+
+describe("extraction workers test", () => {
+    const projectRoot = "./test/core/integration/sample-projects/workers";
+    let sequentialResult: Map<string, LCEConcept[]>;
+    let workersResult: Map<string, LCEConcept[]>;
+
+    beforeAll(async () => {
+        sequentialResult = await processProject(projectRoot);
+        workersResult = await processProject(projectRoot, { workers: 2 });
+    });
+
+    function getVariableDeclaration(result: Map<string, LCEConcept[]>, fqn: string): LCEVariableDeclaration {
+        const varDecl = result.get(LCEVariableDeclaration.conceptId)?.find((concept) => (concept as LCEVariableDeclaration).fqn === fqn);
+        expect(varDecl).toBeDefined();
+        return varDecl as LCEVariableDeclaration;
+    }
+
+    test("types declared by module augmentations of other partitions are resolved", async () => {
+        for (const result of [sequentialResult, workersResult]) {
+            expectFunctionType(getVariableDeclaration(result, '"./src/b-usage.ts".modelName').type, 1, "string");
+        }
+    });
+
+    test("types declared by global declarations of other partitions are resolved", async () => {
+        for (const result of [sequentialResult, workersResult]) {
+            expectPrimitiveType(getVariableDeclaration(result, '"./src/b-usage.ts".count').type, "number");
+        }
+    });
+
+    test("workers extract the same concepts as a sequential extraction", async () => {
+        expect(workersResult).toEqual(sequentialResult);
+    });
+});
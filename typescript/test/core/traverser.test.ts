@@ -0,0 +1,85 @@
+import { AST_NODE_TYPES } from "@typescript-eslint/utils";
+
+import { ConceptMap, createConceptMap, LCEConcept, mergeConceptMaps } from "../../src/core/concept";
+import { LocalContexts, ProcessingContext } from "../../src/core/context";
+import { ExecutionCondition } from "../../src/core/execution-condition";
+import { Processor } from "../../src/core/processor";
+import { createProcessorMap, Traverser } from "../../src/core/traverser";
+
+class TestConcept extends LCEConcept {
+    public static override conceptId = "test";
+
+    constructor(public name: string) {
+        super();
+    }
+}
+
+/** traverser returning fixed child concepts */
+class FixedChildrenTraverser extends Traverser {
+    constructor(private readonly childConcepts: ConceptMap) {
+        super();
+    }
+
+    public override traverseChildren(): ConceptMap {
+        return this.childConcepts;
+    }
+}
+
+class FixedConceptsProcessor extends Processor {
+    public executionCondition = new ExecutionCondition([AST_NODE_TYPES.Identifier], () => true);
+
+    constructor(private readonly concepts: ConceptMap) {
+        super();
+    }
+
+    public override postChildrenProcessing(): ConceptMap {
+        return this.concepts;
+    }
+}
+
+describe("traverser test", () => {
+    function conceptMap(propName: string, ...names: string[]): ConceptMap {
+        return createConceptMap(TestConcept.conceptId, names.map((name) => new TestConcept(name)), propName);
+    }
+
+    function names(concepts: ConceptMap): [string, string[]][] {
+        return [...concepts.entries()].map(([propName, conceptsById]) => [
+            propName,
+            (conceptsById.get(TestConcept.conceptId) ?? []).map((concept) => (concept as TestConcept).name),
+        ]);
+    }
+
+    function traverse(childConcepts: ConceptMap, parentPropName: string, ...processorConcepts: ConceptMap[]): ConceptMap {
+        const processingContext = {
+            node: { type: AST_NODE_TYPES.Identifier },
+            localContexts: new LocalContexts(),
+        } as unknown as ProcessingContext;
+        const processors = createProcessorMap(processorConcepts.map((concepts) => new FixedConceptsProcessor(concepts)));
+        return new FixedChildrenTraverser(childConcepts).traverse({ parentPropName }, processingContext, processors);
+    }
+
+    test("no concepts", () => {
+        expect(traverse(new Map(), "body").size).toBe(0);
+        expect(traverse(new Map(), "body", new Map(), new Map()).size).toBe(0);
+    });
+
+    test("child concepts are unified under the parent property name", () => {
+        const childConcepts = mergeConceptMaps(conceptMap("params", "a"), conceptMap("body", "b", "c"));
+
+        expect(names(traverse(childConcepts, "body"))).toEqual([["body", ["a", "b", "c"]]]);
+    });
+
+    test("child concepts under the parent property name are kept", () => {
+        expect(names(traverse(conceptMap("body", "a", "b"), "body"))).toEqual([["body", ["a", "b"]]]);
+    });
+
+    test("concepts of a processor are unified under the parent property name", () => {
+        expect(names(traverse(new Map(), "body", conceptMap("", "a"), new Map()))).toEqual([["body", ["a"]]]);
+    });
+
+    test("child concepts are followed by the concepts of the processors", () => {
+        const result = traverse(mergeConceptMaps(conceptMap("params", "a"), conceptMap("", "b")), "body", conceptMap("", "c"), conceptMap("", "d"));
+
+        expect(names(result)).toEqual([["body", ["a", "b", "c", "d"]]]);
+    });
+});
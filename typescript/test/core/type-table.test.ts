@@ -0,0 +1,137 @@
+import { TypeTable, TypeTableReference } from "../../src/core/type-table";
+
+describe("type table test", () => {
+    const string = { type: "primitive", name: "string" };
+    const number = { type: "primitive", name: "number" };
+    const typeParameter = { type: "type-parameter", name: "T" };
+
+    function declared(fqn: string, ...typeArguments: object[]) {
+        return { type: "declared", fqn, typeArguments };
+    }
+
+    function func(returnType: object, parameterTypes: object[], typeParameters: object[] = []) {
+        return {
+            type: "function",
+            returnType,
+            parameters: parameterTypes.map((type, index) => ({ index, name: "p" + index, optional: false, type })),
+            async: false,
+            typeParameters
+        };
+    }
+
+    /** collects the ids of all table references within the given value */
+    function referencedIds(value: unknown, ids: number[] = []): number[] {
+        if (Array.isArray(value)) {
+            value.forEach((item) => referencedIds(item, ids));
+        } else if (value !== null && typeof value === "object") {
+            if ((value as TypeTableReference).type === "ref") {
+                ids.push((value as TypeTableReference).id);
+            } else {
+                Object.values(value).forEach((item) => referencedIds(item, ids));
+            }
+        }
+        return ids;
+    }
+
+    test("entries only reference entries with a lower id", () => {
+        const typeTable = new TypeTable();
+        const concepts = {
+            "variable-declaration": [
+                { fqn: "a", type: { type: "union", types: [declared("Map", string, declared("Set", number)), number] } },
+                { fqn: "b", type: func(declared("Promise", declared("Map", string, declared("Set", number))), [string, { type: "tuple", types: [number, string] }]) },
+                { fqn: "c", type: { type: "object", members: [{ name: "x", type: func(number, [declared("Set", number)]), optional: false, readonly: false }] } }
+            ]
+        };
+
+        const converted = typeTable.convert(concepts);
+
+        const entries = typeTable.getEntries();
+        expect(entries.length).toBeGreaterThan(0);
+        entries.forEach((entry, id) => {
+            expect((entry as TypeTableReference).type).not.toBe("ref");
+            for (const referencedId of referencedIds(entry)) {
+                expect(referencedId).toBeLessThan(id);
+            }
+        });
+        for (const referencedId of referencedIds(converted)) {
+            expect(referencedId).toBeLessThan(entries.length);
+        }
+        expect(converted["variable-declaration"].map((variable) => variable.type.type)).toEqual(["ref", "ref", "ref"]);
+    });
+
+    test("structurally identical types share an entry", () => {
+        const typeTable = new TypeTable();
+
+        const converted = typeTable.convert([
+            { fqn: "a", type: declared("Set", { type: "primitive", name: "number" }) },
+            { fqn: "b", type: declared("Set", { type: "primitive", name: "number" }) },
+            { fqn: "c", type: declared("Set", string) }
+        ]);
+
+        expect(converted[0].type).toEqual(converted[1].type);
+        expect(converted[2].type).not.toEqual(converted[0].type);
+        expect(typeTable.getEntries()).toHaveLength(4);
+    });
+
+    test("types using or declaring type parameters stay inline", () => {
+        const typeTable = new TypeTable();
+        const generic = func(typeParameter, [typeParameter, string], [{ name: "T" }]);
+        const usingTypeParameter = { type: "union", types: [typeParameter, declared("Set", number)] };
+
+        // eslint-disable-next-line @typescript-eslint/no-explicit-any
+        const converted: any[] = typeTable.convert([
+            { fqn: "a", type: generic },
+            { fqn: "b", type: usingTypeParameter },
+            { fqn: "c", type: declared("Box", typeParameter) }
+        ]);
+
+        // the generic function type is inline, its parameter type without type parameters is referenced
+        const convertedGeneric = converted[0].type;
+        expect(convertedGeneric.type).toBe("function");
+        expect(convertedGeneric.returnType).toEqual(typeParameter);
+        expect(convertedGeneric.parameters[0].type).toEqual(typeParameter);
+        expect(convertedGeneric.parameters[1].type.type).toBe("ref");
+
+        const convertedUnion = converted[1].type;
+        expect(convertedUnion.type).toBe("union");
+        expect(convertedUnion.types[0]).toEqual(typeParameter);
+        expect(convertedUnion.types[1].type).toBe("ref");
+
+        expect(converted[2].type.type).toBe("declared");
+        expect(converted[2].type.typeArguments[0]).toEqual(typeParameter);
+
+        for (const entry of typeTable.getEntries()) {
+            expect(JSON.stringify(entry)).not.toContain("type-parameter");
+            expect((entry as { typeParameters?: unknown[] }).typeParameters ?? []).toHaveLength(0);
+        }
+    });
+
+    test("base types of classes and interfaces stay inline", () => {
+        const typeTable = new TypeTable();
+
+        // eslint-disable-next-line @typescript-eslint/no-explicit-any
+        const converted: any = typeTable.convert({
+            fqn: "A",
+            extendsClass: declared("B", string),
+            implementsInterfaces: [declared("I")],
+            extendsInterfaces: [declared("J")]
+        });
+
+        expect(converted.extendsClass.type).toBe("declared");
+        expect(converted.extendsClass.typeArguments[0].type).toBe("ref");
+        expect(converted.implementsInterfaces[0]).toEqual(declared("I"));
+        expect(converted.extendsInterfaces[0]).toEqual(declared("J"));
+    });
+
+    test("new entries are taken once", () => {
+        const typeTable = new TypeTable();
+
+        typeTable.convert({ fqn: "a", type: declared("Set", number) });
+        expect(typeTable.takeNewEntries()).toHaveLength(2);
+        typeTable.convert({ fqn: "b", type: declared("Set", number) });
+        expect(typeTable.takeNewEntries()).toHaveLength(0);
+        typeTable.convert({ fqn: "c", type: string });
+        expect(typeTable.takeNewEntries()).toEqual([string]);
+        expect(typeTable.getEntries()).toHaveLength(3);
+    });
+});